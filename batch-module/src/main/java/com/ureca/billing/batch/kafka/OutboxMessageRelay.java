@@ -1,7 +1,12 @@
 package com.ureca.billing.batch.kafka;
 
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
+import com.ureca.billing.core.metrics.BillingMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -9,9 +14,11 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -19,7 +26,8 @@ import java.util.concurrent.CompletableFuture;
 public class OutboxMessageRelay {
 
     private final JdbcTemplate jdbcTemplate;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
 
     // application.yml의 토픽명 확인
     @Value("${app.kafka.topics.billing-notification}")
@@ -29,20 +37,22 @@ public class OutboxMessageRelay {
     @Scheduled(fixedDelay = 1000)
     public void dispatch() {
         // 1. READY 상태인 이벤트 100개 조회
-        String selectSql = "SELECT event_id, payload FROM OUTBOX_EVENTS WHERE status = 'READY' LIMIT 200";
-        List<OutboxEvent> events = jdbcTemplate.query(selectSql, (rs, rowNum) ->
-                new OutboxEvent(rs.getString("event_id"), rs.getString("payload"))
-        );
+        String selectSql = "SELECT event_id, payload, payload_bin, payload_encoding, created_at FROM OUTBOX_EVENTS WHERE status = 'READY' LIMIT 200";
+        List<OutboxEvent> events = jdbcTemplate.query(selectSql, (rs, rowNum) -> {
+            // 신규 행은 원본 암호문 바이트(payload_bin), 이전 행은 Base64 문자열(payload)
+            byte[] payload = rs.getBytes("payload_bin");
+            if (payload == null) {
+                payload = Base64.getDecoder().decode(rs.getString("payload"));
+            }
+            return new OutboxEvent(rs.getString("event_id"), payload, rs.getString("payload_encoding"),
+                    rs.getTimestamp("created_at").getTime());
+        });
 
         if (events.isEmpty()) return;
 
         // 2. 카프카로 병렬 전송 (비동기)
-        List<CompletableFuture<SendResult<String, String>>> futures = events.stream()
-                .map(event -> kafkaTemplate.send(
-                        topicName,                       // 1. Topic
-                        String.valueOf(event.eventId()),  // 2. Key
-                        event.payload()                  // 3. Data (Value)
-                ))
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = events.stream()
+                .map(this::publish)
                 .toList();
 
         // 3. 모든 전송이 끝날 때까지 대기 (Kafka가 빠르니 금방 끝남)
@@ -66,8 +76,43 @@ public class OutboxMessageRelay {
         // 쿼리 한 방으로 100개 상태 변경!
         jdbcTemplate.update(updateSql, eventIds.toArray());
 
+        // Outbox 적재 → 발행 완료까지 대기 시간
+        long now = System.currentTimeMillis();
+        Timer dwell = meterRegistry.timer(BillingMetrics.OUTBOX_DWELL);
+        events.forEach(event -> dwell.record(Math.max(0, now - event.createdAt()), TimeUnit.MILLISECONDS));
+
         log.info("Flushed {} events instantly.", events.size());
     }
 
-    private record OutboxEvent(String eventId, String payload) {}
+    /**
+     * 1건 발행 + send → broker ACK 시간 기록
+     */
+    private CompletableFuture<SendResult<String, byte[]>> publish(OutboxEvent event) {
+        long start = System.nanoTime();
+        return kafkaTemplate.send(toRecord(event)).whenComplete((result, error) ->
+                meterRegistry.timer(BillingMetrics.RELAY_PUBLISH,
+                                BillingMetrics.TAG_OUTCOME,
+                                error == null ? BillingMetrics.OUTCOME_SUCCESS : BillingMetrics.OUTCOME_FAILURE)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * value = payload_bin 그대로, 헤더 = payload_encoding
+     * - aes-gcm  : 원본 암호문 바이트 (Consumer가 Base64 디코딩 없이 바로 복호화)
+     * - field-aes: 코덱 평문 (PII 필드만 암호문) → Consumer는 복호화 없이 디코딩
+     */
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                topicName,                        // 1. Topic
+                String.valueOf(event.eventId()),  // 2. Key
+                event.payload()                   // 3. Data (Value)
+        );
+        record.headers().add(BillingMessageHeaders.ENCODING,
+                BillingMessageHeaders.ENCODING_FIELD_AES.equals(event.encoding())
+                        ? BillingMessageHeaders.ENCODING_FIELD_AES_BYTES
+                        : BillingMessageHeaders.ENCODING_AES_GCM_BYTES);
+        return record;
+    }
+
+    private record OutboxEvent(String eventId, byte[] payload, String encoding, long createdAt) {}
 }
\ No newline at end of file
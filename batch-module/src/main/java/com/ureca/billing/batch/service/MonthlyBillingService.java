@@ -10,17 +10,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.dto.codec.BillingMessageCodec;
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
+import com.ureca.billing.core.metrics.BillingMetrics;
 import com.ureca.billing.core.security.crypto.AesUtil;
 import com.ureca.billing.core.security.crypto.CryptoKeyProvider;
+import com.ureca.billing.core.security.crypto.PiiFieldCipher;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -36,8 +44,25 @@ public class MonthlyBillingService {
 
     private final NamedParameterJdbcTemplate namedJdbc;
     private final JdbcTemplate jdbcTemplate;
-    private final ObjectMapper objectMapper;
     private final CryptoKeyProvider keyProvider;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Outbox payload 평문 형식 (binary | json)
+     * - binary: BillingMessageCodec BINARY v1 (필드명 없이 직렬화 → 암호문/Base64 크기 감소)
+     *   (이전 설정값 binary-deflate도 binary로 동작, 0x02 압축 형식은 디코딩만 지원)
+     * - json: 이전 버전 Consumer가 남아있는 동안 사용
+     */
+    @Value("${billing.message.format:binary}")
+    private String messageFormat;
+
+    /**
+     * Outbox payload 암호화 방식 (field | payload)
+     * - field  : PII 필드만 개별 암호화, 나머지는 평문 → Consumer가 복호화 없이 라우팅/중복 체크
+     * - payload: 메시지 전체 AES-GCM 암호화 (이전 버전 Consumer가 남아있는 동안 사용)
+     */
+    @Value("${billing.message.encryption:field}")
+    private String messageEncryption;
 
     /* =====================================================
      * Step 1 : BILLS / BILL_DETAILS 생성
@@ -221,6 +246,7 @@ public class MonthlyBillingService {
 
         if (billIds == null || billIds.isEmpty()) return;
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         DateTimeFormatter ymd = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
         List<BillInfo> billInfos = new ArrayList<>();
@@ -259,6 +285,9 @@ public class MonthlyBillingService {
         }
 
         List<Object[]> outboxRows = new ArrayList<>();
+        BillingMessageCodec.Format format = BillingMessageCodec.Format.from(messageFormat);
+        boolean fieldEncryption = !"payload".equalsIgnoreCase(messageEncryption);
+        SecretKey key = keyProvider.getCurrentKey();
 
         for (BillInfo info : billInfos) {
             long total = totalAmountByBill.getOrDefault(info.getBillId(), 0L);
@@ -273,15 +302,15 @@ public class MonthlyBillingService {
                         .timestamp(LocalDateTime.now().toString())
                         .recipientEmail(info.getEmailCipher())
                         .recipientPhone(info.getPhoneCipher())
-                        .name(info.getName())
+                        .name(fieldEncryption ? PiiFieldCipher.encrypt(info.getName(), key) : info.getName())
                         .totalAmount(total)
                         .notificationType("EMAIL")
                         .build();
 
-                String payload = AesUtil.encrypt(
-                        objectMapper.writeValueAsString(dto),
-                        keyProvider.getCurrentKey()
-                );
+                // field: 평문 코덱 바이트 (PII만 암호문), payload: 원본 암호문 바이트 → Relay가 그대로 Kafka value로 전송
+                byte[] payload = fieldEncryption
+                        ? BillingMessageCodec.encode(dto, format)
+                        : AesUtil.encryptToBytes(BillingMessageCodec.encode(dto, format), key);
 
                 outboxRows.add(new Object[]{
                         UUID.randomUUID().toString(),
@@ -289,7 +318,8 @@ public class MonthlyBillingService {
                         info.getUserId(),
                         "BILLING_NOTIFY",
                         "EMAIL",
-                        payload
+                        payload,
+                        fieldEncryption ? BillingMessageHeaders.ENCODING_FIELD_AES : BillingMessageHeaders.ENCODING_AES_GCM
                 });
 
             } catch (Exception e) {
@@ -299,9 +329,12 @@ public class MonthlyBillingService {
 
         jdbcTemplate.batchUpdate("""
             INSERT INTO OUTBOX_EVENTS
-              (event_id, bill_id, user_id, event_type, notification_type, payload, status, attempt_count)
-            VALUES (?, ?, ?, ?, ?, ?, 'READY', 0)
+              (event_id, bill_id, user_id, event_type, notification_type, payload_bin, payload_encoding, status, attempt_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 'READY', 0)
         """, outboxRows);
+
+        sample.stop(meterRegistry.timer(BillingMetrics.OUTBOX_CREATE));
+        meterRegistry.counter(BillingMetrics.OUTBOX_EVENTS).increment(outboxRows.size());
     }
 
     /* =========================
@@ -0,0 +1,340 @@
+package com.ureca.billing.core.dto.codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ureca.billing.core.dto.BillingMessageDto;
+
+/**
+ * BillingMessageCodec
+ *
+ * [역할]
+ * - BillingMessageDto ↔ byte[] 변환 (Outbox payload, Kafka value, Redis 본문 공용)
+ * - 첫 바이트(format byte)로 형식을 구분 → 이전 JSON 메시지도 그대로 디코딩
+ *
+ * [BINARY v1 구조]
+ * - [0x01][presence bitmap(varint)][필드...]
+ * - bitmap의 i번째 bit = FIELDS i번째 필드가 null이 아님 (null 필드는 아예 기록하지 않음)
+ * - Long  : zigzag varint (대부분 1~5바이트)
+ * - String: varint 길이 + UTF-8 bytes
+ * - 필드 이름을 싣지 않으므로 JSON 대비 절반 이하 크기
+ *
+ * [BINARY v1 + DEFLATE (0x02, 디코딩 전용)]
+ * - [0x02][원본 길이(varint)][raw DEFLATE(BINARY v1)] - payload 전체 암호화 시절 compress-then-encrypt 용도
+ * - field 암호화로 PII 외 필드가 평문이 되어 Producer 배치 압축이 적용되므로 더 이상 인코딩하지 않음
+ * - 이미 Outbox/Kafka/Redis에 남아있는 메시지를 읽기 위해 디코딩과 당시 preset dictionary만 유지
+ *
+ * [호환성 규칙]
+ * - 새 필드는 FIELDS 끝에만 추가 (기존 순서 변경 금지)
+ *   → 이전 디코더는 모르는 bit/뒤쪽 바이트를 무시하므로 버전 변경 없이 확장 가능
+ * - 필드 삭제/타입 변경이 필요하면 새 format byte(0x03 ...)를 추가 (0x02는 DEFLATE 형식이 사용 중)
+ * - JSON은 항상 '{'(또는 공백)으로 시작하므로 0x01과 겹치지 않음
+ */
+public final class BillingMessageCodec {
+
+    public static final byte FORMAT_BINARY_V1 = 0x01;
+    public static final byte FORMAT_BINARY_V1_DEFLATE = 0x02;
+
+    /**
+     * 0x02 형식의 preset dictionary (형식의 일부이므로 변경 금지, 디코딩 전용)
+     */
+    private static final byte[] DEFLATE_DICTIONARY = ("5G 시그니처5G 프리미어 슈퍼5G 프리미어 플러스5G 프리미어 레귤러"
+            + "5G 프리미어 에센셜5G 스탠다드5G 데이터 슈퍼5G 라이트+5G 슬림+LTE 데이터 69LTE 데이터 33"
+            + "5G 키즈 39LTE 청소년 33PUSHSMS==EMAIL2026-2025-01-T").getBytes(StandardCharsets.UTF_8);
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    /**
+     * 압축 해제 크기 상한 (손상/악의적 길이로 큰 배열을 할당하지 않도록)
+     */
+    private static final int MAX_INFLATED_BYTES = 64 * 1024;
+
+    /**
+     * BINARY v1 필드 순서 (끝에만 추가할 것)
+     */
+    private static final String[] FIELDS = {
+            "billId", "userId", "billYearMonth", "billDate", "dueDate", "timestamp",
+            "recipientEmail", "recipientPhone", "notificationType", "name",
+            "totalAmount", "planFee", "addonFee", "microPaymentFee", "planName"
+    };
+
+    /**
+     * JSON 형식 인코딩/디코딩용 (Spring 기본 설정과 동일하게 모르는 필드는 무시)
+     */
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public enum Format {
+        JSON, BINARY;
+
+        /**
+         * 설정값(json/binary) → Format, 알 수 없는 값(이전 binary-deflate 포함)은 BINARY
+         */
+        public static Format from(String value) {
+            String normalized = value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+            return "json".equals(normalized) ? JSON : BINARY;
+        }
+    }
+
+    private BillingMessageCodec() {
+    }
+
+    /**
+     * BINARY v1 인코딩
+     */
+    public static byte[] encode(BillingMessageDto message) {
+        Object[] values = {
+                message.getBillId(), message.getUserId(), message.getBillYearMonth(), message.getBillDate(),
+                message.getDueDate(), message.getTimestamp(), message.getRecipientEmail(),
+                message.getRecipientPhone(), message.getNotificationType(), message.getName(),
+                message.getTotalAmount(), message.getPlanFee(), message.getAddonFee(),
+                message.getMicroPaymentFee(), message.getPlanName()
+        };
+
+        // 문자열을 먼저 UTF-8로 변환해 전체 크기를 계산 → 버퍼를 한 번만 할당
+        long bitmap = 0;
+        int size = 1;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            bitmap |= 1L << i;
+            if (value instanceof String text) {
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                values[i] = utf8;
+                size += varintSize(utf8.length) + utf8.length;
+            } else {
+                size += varintSize(zigzag((Long) value));
+            }
+        }
+        size += varintSize(bitmap);
+
+        Writer writer = new Writer(size);
+        writer.buf[writer.pos++] = FORMAT_BINARY_V1;
+        writer.writeVarint(bitmap);
+        for (Object value : values) {
+            if (value instanceof byte[] utf8) {
+                writer.writeVarint(utf8.length);
+                writer.writeBytes(utf8);
+            } else if (value != null) {
+                writer.writeVarint(zigzag((Long) value));
+            }
+        }
+        return writer.buf;
+    }
+
+    /**
+     * 지정한 형식으로 인코딩 (JSON은 이전 버전 Consumer 호환이 필요할 때만 사용)
+     */
+    public static byte[] encode(BillingMessageDto message, Format format) {
+        return format == Format.JSON ? toJsonBytes(message) : encode(message);
+    }
+
+    /**
+     * format byte를 보고 BINARY/JSON 자동 판별 후 디코딩
+     *
+     * @throws IllegalArgumentException 지원하지 않는 형식이거나 데이터가 손상된 경우
+     */
+    public static BillingMessageDto decode(byte[] data) {
+        return decode(data, 0, data.length);
+    }
+
+    public static BillingMessageDto decode(byte[] data, int offset, int length) {
+        if (length == 0) {
+            throw new IllegalArgumentException("Empty billing message");
+        }
+        byte format = data[offset];
+        if (format == FORMAT_BINARY_V1) {
+            return decodeBinary(data, offset + 1, offset + length);
+        }
+        if (format == FORMAT_BINARY_V1_DEFLATE) {
+            byte[] binary = inflate(data, offset + 1, offset + length);
+            return decodeBinary(binary, 1, binary.length);
+        }
+        if (isJsonStart(format)) {
+            try {
+                return JSON.readValue(data, offset, length, BillingMessageDto.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid JSON billing message", e);
+            }
+        }
+        throw new IllegalArgumentException("Unsupported billing message format: 0x" + Integer.toHexString(format & 0xff));
+    }
+
+    /**
+     * BINARY 형식 여부 (Redis 본문 등 다른 형식과 섞여 저장되는 곳에서 판별용)
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0
+                && (data[0] == FORMAT_BINARY_V1 || data[0] == FORMAT_BINARY_V1_DEFLATE);
+    }
+
+    public static String toJson(BillingMessageDto message) {
+        try {
+            return JSON.writeValueAsString(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize billing message", e);
+        }
+    }
+
+    private static byte[] toJsonBytes(BillingMessageDto message) {
+        try {
+            return JSON.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize billing message", e);
+        }
+    }
+
+    /**
+     * [원본 길이][DEFLATE] → BINARY v1
+     */
+    private static byte[] inflate(byte[] data, int offset, int limit) {
+        Reader reader = new Reader(data, offset, limit);
+        long rawLength = reader.readVarint();
+        if (rawLength <= 0 || rawLength > MAX_INFLATED_BYTES) {
+            throw new IllegalArgumentException("Invalid compressed billing message length: " + rawLength);
+        }
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        // raw DEFLATE는 dictionary 요청 신호가 없으므로 입력 전에 지정
+        inflater.setDictionary(DEFLATE_DICTIONARY);
+        inflater.setInput(data, reader.pos, limit - reader.pos);
+        byte[] binary = new byte[(int) rawLength];
+        try {
+            int read = inflater.inflate(binary);
+            if (read != rawLength || binary[0] != FORMAT_BINARY_V1) {
+                throw new IllegalArgumentException("Corrupted compressed billing message");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted compressed billing message", e);
+        }
+        return binary;
+    }
+
+    private static BillingMessageDto decodeBinary(byte[] data, int offset, int limit) {
+        Reader reader = new Reader(data, offset, limit);
+        long bitmap = reader.readVarint();
+
+        Object[] values = new Object[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((bitmap & (1L << i)) == 0) {
+                continue;
+            }
+            values[i] = isStringField(i) ? reader.readString() : unzigzag(reader.readVarint());
+        }
+        // FIELDS 이후의 bit/바이트는 이후 버전에서 추가된 필드 → 무시
+
+        return BillingMessageDto.builder()
+                .billId((Long) values[0])
+                .userId((Long) values[1])
+                .billYearMonth((String) values[2])
+                .billDate((String) values[3])
+                .dueDate((String) values[4])
+                .timestamp((String) values[5])
+                .recipientEmail((String) values[6])
+                .recipientPhone((String) values[7])
+                .notificationType((String) values[8])
+                .name((String) values[9])
+                .totalAmount((Long) values[10])
+                .planFee((Long) values[11])
+                .addonFee((Long) values[12])
+                .microPaymentFee((Long) values[13])
+                .planName((String) values[14])
+                .build();
+    }
+
+    /**
+     * 0~1: billId/userId, 10~13: 금액 → Long, 나머지 String
+     */
+    private static boolean isStringField(int index) {
+        return !(index <= 1 || (index >= 10 && index <= 13));
+    }
+
+    private static boolean isJsonStart(byte b) {
+        return b == '{' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        private final byte[] buf;
+        private int pos;
+
+        private Writer(int size) {
+            this.buf = new byte[size];
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private final int limit;
+        private int pos;
+
+        private Reader(byte[] buf, int offset, int limit) {
+            this.buf = buf;
+            this.pos = offset;
+            this.limit = limit;
+        }
+
+        private long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= limit) {
+                    throw new IllegalArgumentException("Truncated billing message");
+                }
+                byte b = buf[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in billing message");
+        }
+
+        private String readString() {
+            long length = readVarint();
+            if (length < 0 || length > limit - pos) {
+                throw new IllegalArgumentException("Truncated billing message");
+            }
+            String value = new String(buf, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return value;
+        }
+    }
+}
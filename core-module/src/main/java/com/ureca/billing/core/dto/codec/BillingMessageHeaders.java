@@ -0,0 +1,28 @@
+package com.ureca.billing.core.dto.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * billing-event Kafka 헤더
+ *
+ * - ENCODING: value가 어떤 형태인지 표시 (value는 byte[]로 송수신)
+ *   - aes-gcm: AES-GCM 원본 암호문 바이트 (IV + CipherText + AuthTag, Base64 아님) → 복호화 후 BillingMessageCodec
+ *   - field-aes: BillingMessageCodec 평문, PII 필드만 개별 암호화 (PiiFieldCipher) → 복호화 없이 디코딩
+ *   - plain  : BillingMessageCodec 평문 (대기열/예약 큐 재발행)
+ *   - 헤더 없음: 이전 버전 메시지 (Base64 암호문 문자열 또는 JSON 문자열)
+ */
+public final class BillingMessageHeaders {
+
+    public static final String ENCODING = "billing-encoding";
+
+    public static final String ENCODING_AES_GCM = "aes-gcm";
+    public static final String ENCODING_FIELD_AES = "field-aes";
+    public static final String ENCODING_PLAIN = "plain";
+
+    public static final byte[] ENCODING_AES_GCM_BYTES = ENCODING_AES_GCM.getBytes(StandardCharsets.UTF_8);
+    public static final byte[] ENCODING_FIELD_AES_BYTES = ENCODING_FIELD_AES.getBytes(StandardCharsets.UTF_8);
+    public static final byte[] ENCODING_PLAIN_BYTES = ENCODING_PLAIN.getBytes(StandardCharsets.UTF_8);
+
+    private BillingMessageHeaders() {
+    }
+}
@@ -0,0 +1,69 @@
+package com.ureca.billing.core.metrics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 청구 알림 파이프라인 Micrometer 지표 이름 (모듈 공용)
+ *
+ * - 구간: Outbox 생성 → Relay 발행 → Kafka 대기 → 복호화 → 중복 체크 → 수신 설정 조회 → 채널 발송 → 상태 저장
+ * - 모든 Timer는 billing.* 접두어 → management.metrics.distribution.percentiles-histogram.billing 으로 히스토그램 노출
+ * - 종단 지연(EVENT_LAG)은 BillingMessageDto.timestamp(Outbox 생성 시각) 기준
+ */
+public final class BillingMetrics {
+
+    /** Outbox 이벤트 생성 (createOutboxEvents 1회) */
+    public static final String OUTBOX_CREATE = "billing.outbox.create";
+    /** 생성된 Outbox 이벤트 수 */
+    public static final String OUTBOX_EVENTS = "billing.outbox.events";
+    /** Outbox 적재 → Relay 발행 완료까지 대기 */
+    public static final String OUTBOX_DWELL = "billing.outbox.dwell";
+    /** Relay Kafka 발행 (send → broker ACK) */
+    public static final String RELAY_PUBLISH = "billing.relay.publish";
+    /** Kafka 적재 → Consumer 수신 (record timestamp 기준) */
+    public static final String KAFKA_LAG = "billing.kafka.lag";
+    /** 복호화 + 디코딩 */
+    public static final String CONSUME_DECRYPT = "billing.consume.decrypt";
+    /** 중복/재시도 상태 체크 (Redis) */
+    public static final String CONSUME_DEDUP = "billing.consume.dedup";
+    /** 예약 발송/금지 시간 조회 */
+    public static final String CONSUME_PREFERENCE = "billing.consume.preference";
+    /** 채널 발송 (tag: channel, outcome) */
+    public static final String SEND = "billing.send";
+    /** 처리 결과 저장 (tag: mode=db|journal) */
+    public static final String PERSIST = "billing.persist";
+    /** Outbox 생성 → 발송 완료 종단 지연 (tag: channel) */
+    public static final String EVENT_LAG = "billing.event.lag";
+    /** Write-Behind Journal에서 길이/CRC가 깨져 건너뛴 레코드 수 (Gauge, 0이 아니면 quarantine/ 확인) */
+    public static final String JOURNAL_CORRUPT = "billing.journal.corrupt";
+
+    public static final String TAG_CHANNEL = "channel";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_MODE = "mode";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    private BillingMetrics() {
+    }
+
+    /**
+     * 메시지 timestamp(LocalDateTime 문자열, 시스템 기본 시간대) 기준 경과 시간
+     *
+     * @return 경과 ms, 형식이 다르거나 없으면 -1
+     */
+    public static long eventTimeLagMillis(String timestamp, long nowMillis) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return -1;
+        }
+        try {
+            long eventMillis = LocalDateTime.parse(timestamp)
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli();
+            return Math.max(0, nowMillis - eventMillis);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -57,6 +57,29 @@ public class AesUtil {
      * @return Base64로 인코딩된 암호문 (IV + CipherText + AuthTag)
      */
     public static String encrypt(String plainText, SecretKey secretKey) {
+        return encrypt(plainText.getBytes(), secretKey);
+    }
+
+    /**
+     * 바이트 평문을 AES-256-GCM 방식으로 암호화한다.
+     * - BillingMessageCodec의 BINARY 메시지처럼 문자열이 아닌 평문용
+     *
+     * @param plainBytes 암호화할 평문 바이트
+     * @param secretKey 환경변수에서 로드된 AES 비밀키
+     * @return Base64로 인코딩된 암호문 (IV + CipherText + AuthTag)
+     */
+    public static String encrypt(byte[] plainBytes, SecretKey secretKey) {
+        // DB 저장을 위해 Base64 문자열로 인코딩
+        return Base64.getEncoder().encodeToString(encryptToBytes(plainBytes, secretKey));
+    }
+
+    /**
+     * 바이트 평문을 암호화해 Base64 없이 원본 바이트로 반환한다.
+     * - Kafka value처럼 바이트를 그대로 전송할 수 있는 곳에서 사용 (Base64 33% 증가 제거)
+     *
+     * @return IV + CipherText + AuthTag
+     */
+    public static byte[] encryptToBytes(byte[] plainBytes, SecretKey secretKey) {
         try {
             // 1️⃣ 매 암호화마다 새로운 IV 생성 (GCM에서 매우 중요)
             byte[] iv = generateIv();
@@ -72,20 +95,15 @@ public class AesUtil {
                     gcmSpec
             );
 
-            // 4️⃣ 평문 → 암호문 (+ AuthTag 포함)
-            byte[] encrypted = cipher.doFinal(plainText.getBytes());
-
             /*
-             * 5️⃣ IV + 암호문 결합
+             * 4️⃣ 평문 → [IV][CipherText + AuthTag]
              * - GCM에서는 암호문 끝에 AuthTag가 자동 포함됨
-             * - [IV][CipherText + AuthTag] 구조
+             * - 결과 버퍼를 한 번만 할당하고 IV 뒤에 바로 암호화 (중간 배열 복사 없음)
              */
-            byte[] ivAndCipherText = new byte[iv.length + encrypted.length];
-            System.arraycopy(iv, 0, ivAndCipherText, 0, iv.length);
-            System.arraycopy(encrypted, 0, ivAndCipherText, iv.length, encrypted.length);
-
-            // 6️⃣ DB 저장을 위해 Base64 문자열로 인코딩
-            return Base64.getEncoder().encodeToString(ivAndCipherText);
+            byte[] ivAndCipherText = new byte[IV_LENGTH + cipher.getOutputSize(plainBytes.length)];
+            System.arraycopy(iv, 0, ivAndCipherText, 0, IV_LENGTH);
+            cipher.doFinal(plainBytes, 0, plainBytes.length, ivAndCipherText, IV_LENGTH);
+            return ivAndCipherText;
 
         } catch (Exception e) {
             throw new IllegalStateException("AES-GCM encryption failed", e);
@@ -103,25 +121,50 @@ public class AesUtil {
      *         - 암호문이 위변조된 경우 (AuthTag 검증 실패)
      */
     public static String decrypt(String cipherText, SecretKey secretKey) {
+        return new String(decryptToBytes(cipherText, secretKey));
+    }
+
+    /**
+     * AES-256-GCM으로 암호화된 문자열을 평문 바이트로 복호화한다.
+     * - 평문 형식(JSON/BINARY)을 호출 측에서 판별할 때 사용
+     *
+     * @param cipherText Base64 암호문
+     * @param secretKey 환경변수에서 로드된 AES 비밀키
+     * @return 복호화된 평문 바이트
+     *
+     * @throws IllegalStateException
+     *         - 암호문이 위변조된 경우 (AuthTag 검증 실패)
+     */
+    public static byte[] decryptToBytes(String cipherText, SecretKey secretKey) {
+        // 1️⃣ Base64 디코딩
+        return decryptBytes(Base64.getDecoder().decode(cipherText), secretKey);
+    }
+
+    /**
+     * Base64 없이 전달된 원본 암호문 바이트를 복호화한다.
+     *
+     * @param ivAndCipherText IV + CipherText + AuthTag
+     * @param secretKey 환경변수에서 로드된 AES 비밀키
+     * @return 복호화된 평문 바이트
+     *
+     * @throws IllegalStateException
+     *         - 암호문이 위변조된 경우 (AuthTag 검증 실패)
+     */
+    public static byte[] decryptBytes(byte[] ivAndCipherText, SecretKey secretKey) {
         try {
-            // 1️⃣ Base64 디코딩
-            byte[] decoded = Base64.getDecoder().decode(cipherText);
+            if (ivAndCipherText.length <= IV_LENGTH) {
+                throw new IllegalArgumentException("Cipher text too short");
+            }
 
             /*
-             * 2️⃣ IV와 암호문(+AuthTag) 분리
+             * 2️⃣ IV와 암호문(+AuthTag) 구간 지정
              * - 앞 12바이트: IV
              * - 나머지: CipherText + AuthTag
+             * - 별도 배열로 복사하지 않고 offset으로 바로 사용
              */
-            byte[] iv = new byte[IV_LENGTH];
-            byte[] encrypted = new byte[decoded.length - IV_LENGTH];
-
-            System.arraycopy(decoded, 0, iv, 0, IV_LENGTH);
-            System.arraycopy(decoded, IV_LENGTH, encrypted, 0, encrypted.length);
-
-            // 3️⃣ GCM 파라미터 설정
-            GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
+            GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BIT, ivAndCipherText, 0, IV_LENGTH);
 
-            // 4️⃣ Cipher 초기화 (복호화 모드)
+            // 3️⃣ Cipher 초기화 (복호화 모드)
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             cipher.init(
                     Cipher.DECRYPT_MODE,
@@ -129,10 +172,9 @@ public class AesUtil {
                     gcmSpec
             );
 
-            // 5️⃣ 복호화 수행
+            // 4️⃣ 복호화 수행
             // - AuthTag 검증 실패 시 예외 발생 (위변조 탐지)
-            byte[] decrypted = cipher.doFinal(encrypted);
-            return new String(decrypted);
+            return cipher.doFinal(ivAndCipherText, IV_LENGTH, ivAndCipherText.length - IV_LENGTH);
 
         } catch (Exception e) {
             throw new IllegalStateException("AES-GCM decryption failed", e);
@@ -0,0 +1,52 @@
+package com.ureca.billing.core.security.crypto;
+
+import javax.crypto.SecretKey;
+
+/**
+ * PiiFieldCipher
+ *
+ * [역할]
+ * - BillingMessageDto의 개인정보 필드(recipientEmail, recipientPhone, name)만 개별 암·복호화
+ *
+ * [설계 의도]
+ * - 메시지 전체를 암호화하지 않으므로 billId/userId/notificationType/billYearMonth 등
+ *   라우팅·중복 체크·금지 시간 판단은 복호화 없이 처리
+ * - 복호화는 실제 발송하는 채널 핸들러에서만, 필요한 필드만 수행
+ * - recipientEmail/recipientPhone은 USERS 암호문(email_cipher, phone_cipher)을 그대로 사용
+ */
+public final class PiiFieldCipher {
+
+    private PiiFieldCipher() {
+        // util class
+    }
+
+    /**
+     * PII 필드 암호화 (null/빈 값은 그대로)
+     *
+     * @return Base64 암호문 (AesUtil과 동일 형식)
+     */
+    public static String encrypt(String plainText, SecretKey secretKey) {
+        if (plainText == null || plainText.isEmpty()) {
+            return plainText;
+        }
+        return AesUtil.encrypt(plainText, secretKey);
+    }
+
+    /**
+     * PII 필드 복호화 (null/빈 값은 그대로)
+     *
+     * @throws IllegalStateException
+     *         - 복호화 실패 (키 불일치, 위변조, 암호문이 아닌 값)
+     *         → 암호문을 수신자로 쓰지 않도록 호출 측 발송 실패로 처리
+     */
+    public static String decrypt(String cipherText, SecretKey secretKey) {
+        if (cipherText == null || cipherText.isEmpty()) {
+            return cipherText;
+        }
+        try {
+            return AesUtil.decrypt(cipherText, secretKey);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("PII field decryption failed", e);
+        }
+    }
+}
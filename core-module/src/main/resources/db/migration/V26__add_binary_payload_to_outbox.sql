@@ -0,0 +1,9 @@
+-- V26: Outbox payload를 원본 암호문 바이트로 저장
+-- payload_bin: AES-GCM 암호문 (IV + CipherText + AuthTag), Base64 없이 Kafka value로 그대로 전송
+-- payload    : 이전 버전(Base64 문자열) 행 호환용, 신규 행은 NULL
+
+ALTER TABLE OUTBOX_EVENTS
+    ADD COLUMN payload_bin LONGBLOB NULL AFTER payload;
+
+ALTER TABLE OUTBOX_EVENTS
+    MODIFY payload LONGTEXT NULL;
@@ -0,0 +1,7 @@
+-- V27: Outbox payload 암호화 방식 기록
+-- payload_encoding: Relay가 billing-encoding 헤더로 그대로 전달
+--   aes-gcm  : payload_bin 전체가 AES-GCM 암호문 (V26 방식, 기존 행 기본값)
+--   field-aes: payload_bin은 BillingMessageCodec 평문, PII 필드(recipientEmail/recipientPhone/name)만 개별 암호화
+
+ALTER TABLE OUTBOX_EVENTS
+    ADD COLUMN payload_encoding VARCHAR(16) NOT NULL DEFAULT 'aes-gcm' AFTER payload_bin;
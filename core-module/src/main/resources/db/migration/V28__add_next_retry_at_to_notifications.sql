@@ -0,0 +1,9 @@
+-- V28: 재시도 대상 조회용 next_retry_at + 인덱스
+-- RetryService가 FAILED 행을 전부 읽지 않고 LIMIT/keyset으로 필요한 만큼만 점유(FOR UPDATE SKIP LOCKED)
+-- next_retry_at: 이 시각 이후에 재시도 (기존 행/신규 행은 생성 시각 → 즉시 대상)
+
+ALTER TABLE NOTIFICATIONS
+    ADD COLUMN next_retry_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP AFTER retry_count;
+
+CREATE INDEX idx_notifications_retry
+    ON NOTIFICATIONS (notification_status, retry_count, next_retry_at);
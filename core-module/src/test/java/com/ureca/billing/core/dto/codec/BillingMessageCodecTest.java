@@ -0,0 +1,121 @@
+package com.ureca.billing.core.dto.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ureca.billing.core.dto.BillingMessageDto;
+
+class BillingMessageCodecTest {
+
+    private static final BillingMessageDto MESSAGE = BillingMessageDto.builder()
+            .billId(123456789L)
+            .userId(987654L)
+            .billYearMonth("202501")
+            .billDate("2025-01-15")
+            .dueDate("2025-01-30")
+            .timestamp("2025-01-15T09:12:33.123456")
+            .recipientEmail("q2Jx8mT1VbQ0nYd3kP7sLw9aZc4Ef6Gh8iJk2Lm3No4Pq5Rs6Tu7Vw==")
+            .recipientPhone("r3Ky9nU2WcR1oZe4lQ8tMx0bAd5Fg7Hi9jKl3Mn4Op5Qr6St==")
+            .notificationType("EMAIL")
+            .name("홍길동")
+            .totalAmount(55000L)
+            .planName("5G 프리미어 에센셜")
+            .build();
+
+    private static final String LEGACY_DEFLATE_HEX = "02dc0163fcdfcfb86acbbdd29e13156c204103432e989ca1299c696c2085100d31b0b43234b23236d6333432363135b3"
+            + "2834f2aab0c80d310c4b0a34c88b4c31ce0e302ff629b74c8c4a36714d3373cfb0c8f4ca36f2c935f6cb370928340d2a"
+            + "360b29350f2bb7b5352a32f6aeb4cc0b350a4f0e32cc8f4a35c909b428f1ad3048724c31754b37f7c8b4ccf2ce31f6cd"
+            + "33f12f300d2c320b2eb1b565057b81f3edccde573b76bcee9fb9e1369b24c8eb58031b00";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void binaryRoundTripKeepsAllFieldsAndNulls() {
+        BillingMessageDto edge = BillingMessageDto.builder()
+                .billId(-1L)
+                .totalAmount(Long.MIN_VALUE)
+                .planFee(Long.MAX_VALUE)
+                .name("")
+                .build();
+
+        assertThat(BillingMessageCodec.decode(BillingMessageCodec.encode(MESSAGE)))
+                .usingRecursiveComparison().isEqualTo(MESSAGE);
+        assertThat(BillingMessageCodec.decode(BillingMessageCodec.encode(edge)))
+                .usingRecursiveComparison().isEqualTo(edge);
+    }
+
+    @Test
+    void decodesLegacyJsonAndIgnoresAppendedFields() throws Exception {
+        byte[] json = ("  " + objectMapper.writeValueAsString(MESSAGE)).getBytes(StandardCharsets.UTF_8);
+        assertThat(BillingMessageCodec.decode(json)).usingRecursiveComparison().isEqualTo(MESSAGE);
+
+        // 이후 버전에서 끝에 추가된 필드(bit + 바이트)는 무시
+        byte[] binary = BillingMessageCodec.encode(MESSAGE);
+        byte[] extended = Arrays.copyOf(binary, binary.length + 3);
+        extended[extended.length - 3] = 2;
+        extended[extended.length - 2] = 'o';
+        extended[extended.length - 1] = 'k';
+        assertThat(BillingMessageCodec.decode(extended)).usingRecursiveComparison().isEqualTo(MESSAGE);
+
+        assertThatThrownBy(() -> BillingMessageCodec.decode(new byte[] {0x7f, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BillingMessageCodec.decode(Arrays.copyOf(binary, binary.length - 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decodesLegacyDeflateFormatButNoLongerEncodesIt() {
+        // 0x02 인코더 제거 전 MESSAGE를 BINARY_DEFLATE로 인코딩한 결과 (Outbox/Kafka/Redis 잔여분 호환 확인용)
+        byte[] legacy = HexFormat.of().parseHex(LEGACY_DEFLATE_HEX);
+
+        assertThat(legacy[0]).isEqualTo(BillingMessageCodec.FORMAT_BINARY_V1_DEFLATE);
+        assertThat(BillingMessageCodec.isBinary(legacy)).isTrue();
+        assertThat(BillingMessageCodec.decode(legacy)).usingRecursiveComparison().isEqualTo(MESSAGE);
+
+        // 이전 설정값 binary-deflate는 BINARY v1로 인코딩
+        assertThat(BillingMessageCodec.encode(MESSAGE, BillingMessageCodec.Format.from("binary-deflate")))
+                .isEqualTo(BillingMessageCodec.encode(MESSAGE));
+    }
+
+    @Test
+    void binaryIsLessThanHalfOfJson() throws Exception {
+        assertThat(BillingMessageCodec.encode(MESSAGE).length * 2)
+                .isLessThan(objectMapper.writeValueAsBytes(MESSAGE).length);
+    }
+
+    /**
+     * 크기/CPU 비교 (./gradlew :core-module:test -Dbenchmark=true)
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstJackson() throws Exception {
+        int iterations = 2_000_000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += objectMapper.readValue(objectMapper.writeValueAsBytes(MESSAGE), BillingMessageDto.class).getBillId();
+            }
+            long json = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += BillingMessageCodec.decode(BillingMessageCodec.encode(MESSAGE)).getBillId();
+            }
+            long binary = System.nanoTime() - start;
+
+            System.out.printf("round %d: json %.0f ns/op, binary %.0f ns/op%n",
+                    round, json / (double) iterations, binary / (double) iterations);
+        }
+        System.out.printf("size: json %d bytes, binary %d bytes (sink=%d)%n",
+                objectMapper.writeValueAsBytes(MESSAGE).length, BillingMessageCodec.encode(MESSAGE).length, sink);
+    }
+}
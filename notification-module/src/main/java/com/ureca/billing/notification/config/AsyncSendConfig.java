@@ -0,0 +1,46 @@
+package com.ureca.billing.notification.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 비동기 발송 실행기 설정
+ *
+ * - notificationDelayScheduler: 발송 지연(SMTP 응답 대기 시뮬레이션 등)을 스레드 점유 없이 처리
+ * - mailExecutor: 실제 SMTP 호출처럼 블로킹이 불가피한 작업 전용 (크기 제한)
+ */
+@Configuration
+public class AsyncSendConfig {
+
+    @Value("${notification.send.delay-scheduler-threads:2}")
+    private int delaySchedulerThreads;
+
+    @Value("${notification.send.mail-executor-threads:8}")
+    private int mailExecutorThreads;
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService notificationDelayScheduler() {
+        return Executors.newScheduledThreadPool(delaySchedulerThreads, namedThreadFactory("send-delay-"));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService mailExecutor() {
+        return Executors.newFixedThreadPool(mailExecutorThreads, namedThreadFactory("mail-io-"));
+    }
+
+    private ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -4,6 +4,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,12 +20,14 @@ import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.util.backoff.FixedBackOff;
 
+import com.ureca.billing.notification.service.RetryTopicRouter;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Kafka Consumer 설정
  * - 3개의 컨슈머 인스턴스 병렬 처리
- * - 재시도 및 DLT 전략
+ * - 재시도 및 DLT 전략 (Non-blocking: 재시도 토픽 → DLT)
  * - 성능 최적화
  */
 @Slf4j
@@ -54,7 +58,8 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         config.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, org.apache.kafka.common.serialization.StringDeserializer.class);
-        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, org.apache.kafka.common.serialization.StringDeserializer.class);
+        // value는 byte[] 그대로 수신 (암호문/평문 판별과 디코딩은 Consumer에서 String 변환 없이 처리)
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, org.apache.kafka.common.serialization.ByteArrayDeserializer.class);
         
         // JSON 설정
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -94,24 +99,31 @@ public class KafkaConsumerConfig {
         // DLT (Dead Letter Topic) 전략
         // ==========================================
         
-        // 1. Recoverer: 3회 재시도 실패 시 DLT로 전송
+        // 1. Recoverer: 리스너 예외 시 consumer 스레드에서 재시도하지 않고 바로 다른 토픽으로 넘김
+        //    - billing-event / billing-event-retry-* → billing-retry-attempt 헤더 기준 다음 재시도 토픽
+        //      (1m → 10m → 1h, 단계 소진 시 billing-event-dlt) → 배치 전체 실패도 무한 순환하지 않음
+        //    - 그 외                                  → {topic}-dlt
         DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
             kafkaTemplate,
             (record, exception) -> {
-                log.error("🚨 [DLT 이동] 3회 재시도 실패 - Topic: {}, Partition: {}, Offset: {}", 
-                    record.topic(), record.partition(), record.offset());
-                log.error("🚨 [DLT 이동] Error: {}", exception.getMessage());
+                String destination = resolveRecoveryTopic(record);
+                log.error("🚨 [Recover] {} → {} - Partition: {}, Offset: {}, Error: {}", 
+                    record.topic(), destination, record.partition(), record.offset(), exception.getMessage());
                 
-                // billing-event.DLT로 전송
-                return new org.apache.kafka.common.TopicPartition(
-                    record.topic() + "-dlt", 
-                    record.partition()
-                );
+                // 파티션 < 0: Producer가 key 기준으로 선택 (토픽별 파티션 수가 달라도 안전)
+                return new org.apache.kafka.common.TopicPartition(destination, -1);
             }
         );
+        // 재시도 토픽으로 보낼 때 단계 수 + 1, due-at 헤더 추가
+        recoverer.setHeadersFunction((record, exception) -> isRetryPipelineTopic(record.topic())
+                ? RetryTopicRouter.nextTierHeaders(record)
+                : new RecordHeaders());
         
-        // 2. BackOff: 1초 간격으로 3회 재시도
-        FixedBackOff backOff = new FixedBackOff(1000L, 3);
+        // 2. BackOff: 리스너 예외(데드락, 커넥션 풀 타임아웃 등 일시적 인프라 오류)는 100ms 간격 2회 제자리 재시도
+        //    - 건별 발송 실패는 예외가 아니라 BillingEventConsumer가 직접 재시도 토픽으로 보냄
+        //    - 제자리 재시도까지 실패한 경우에만 Recoverer → 재시도 토픽
+        //    - 이전 FixedBackOff(1000L, 3)은 파티션을 수 초간 막았으므로 짧게 유지
+        FixedBackOff backOff = new FixedBackOff(100L, 2L);
         
         // 3. Error Handler 설정
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
@@ -133,4 +145,14 @@ public class KafkaConsumerConfig {
         
         return factory;
     }
+
+    private static String resolveRecoveryTopic(ConsumerRecord<?, ?> record) {
+        return isRetryPipelineTopic(record.topic())
+                ? RetryTopicRouter.nextTopicOf(record)
+                : record.topic() + "-dlt";
+    }
+
+    private static boolean isRetryPipelineTopic(String topic) {
+        return RetryTopicRouter.MAIN_TOPIC.equals(topic) || topic.startsWith(RetryTopicRouter.MAIN_TOPIC + "-retry-");
+    }
 }
\ No newline at end of file
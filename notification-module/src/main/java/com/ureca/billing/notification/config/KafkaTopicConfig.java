@@ -6,6 +6,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+import com.ureca.billing.notification.service.RetryTopicRouter;
+
 @Configuration
 @ConditionalOnProperty(
         name = "app.kafka.topic-creation.enabled", // 1. 감시할 yml 속성 이름
@@ -21,4 +23,20 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    // 지연 재시도 토픽 (RetryTopicRouter) - 재발행 시 key 기준으로 다시 분배되므로 파티션 수는 메인보다 적어도 됨
+    @Bean
+    public NewTopic billingEventRetry1mTopic() {
+        return TopicBuilder.name(RetryTopicRouter.RETRY_1M_TOPIC).partitions(6).replicas(1).build();
+    }
+
+    @Bean
+    public NewTopic billingEventRetry10mTopic() {
+        return TopicBuilder.name(RetryTopicRouter.RETRY_10M_TOPIC).partitions(3).replicas(1).build();
+    }
+
+    @Bean
+    public NewTopic billingEventRetry1hTopic() {
+        return TopicBuilder.name(RetryTopicRouter.RETRY_1H_TOPIC).partitions(3).replicas(1).build();
+    }
 }
@@ -0,0 +1,26 @@
+package com.ureca.billing.notification.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Producer value 직렬화 (String / byte[] 공용)
+ *
+ * - byte[]: 그대로 전송 (대기열/예약 재발행, DLT로 넘기는 원본 레코드)
+ * - String: UTF-8 (RetryService, 테스트 컨트롤러 등 기존 String 발행 코드)
+ * - KafkaTemplate 하나로 두 타입을 모두 보낼 수 있도록 함 (StringSerializer는 byte[] 레코드를 DLT로 보낼 때 실패)
+ */
+public class StringOrBytesSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[] bytes) {
+            return bytes;
+        }
+        return data.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ureca.billing.notification.consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.service.DownstreamHealthMonitor;
+import com.ureca.billing.notification.service.DownstreamHealthMonitor.Level;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * billing-event 배치 리스너 수신 조절
+ *
+ * - 하위 의존성이 CRITICAL이면 리스너 컨테이너 pause → 다음 poll부터 레코드를 받지 않음
+ *   (pause 중에도 컨테이너는 빈 poll을 계속하므로 세션/poll 타임아웃으로 인한 리밸런스 없음)
+ * - CRITICAL에서 벗어나면 resume (DownstreamHealthMonitor가 회복을 recover-ms 동안 확인한 뒤)
+ * - 직접 pause한 경우에만 resume (다른 경로로 멈춘 컨테이너는 건드리지 않음)
+ * - partitioned 모드는 PartitionedBillingEventConsumer가 in-flight 한도로 직접 조절
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BillingEventBackpressure {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final DownstreamHealthMonitor healthMonitor;
+
+    @Value("${notification.consumer.mode:batch}")
+    private String mode;
+
+    private volatile boolean pausedByHealth = false;
+
+    @Scheduled(fixedDelayString = "${notification.backpressure.check-interval-ms:500}")
+    public void adjust() {
+        if (!"batch".equalsIgnoreCase(mode)) {
+            return;
+        }
+        MessageListenerContainer container = registry.getListenerContainer(BillingEventConsumer.LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+
+        Level level = healthMonitor.level();
+        if (level == Level.CRITICAL && !container.isPauseRequested()) {
+            container.pause();
+            pausedByHealth = true;
+            log.warn("⏸️ [Backpressure] billing-event 수신 일시 정지. reason={}", healthMonitor.reason());
+        } else if (level != Level.CRITICAL && pausedByHealth) {
+            container.resume();
+            pausedByHealth = false;
+            log.info("▶️ [Backpressure] billing-event 수신 재개. level={}", level);
+        }
+    }
+}
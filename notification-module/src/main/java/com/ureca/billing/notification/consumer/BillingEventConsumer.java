@@ -1,31 +1,39 @@
 package com.ureca.billing.notification.consumer;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ureca.billing.core.dto.BillingMessageDto;
-import com.ureca.billing.core.security.crypto.AesUtil;
-import com.ureca.billing.core.security.crypto.CryptoKeyProvider;
+import com.ureca.billing.core.dto.codec.BillingMessageCodec;
 import com.ureca.billing.notification.consumer.handler.DuplicateCheckHandler;
 import com.ureca.billing.notification.consumer.handler.DuplicateCheckHandler.CheckResult;
 import com.ureca.billing.notification.domain.entity.Notification;
-import com.ureca.billing.notification.domain.repository.NotificationRepository;
+import com.ureca.billing.notification.handler.DeliveryRejectedException;
 import com.ureca.billing.notification.handler.NotificationHandler;
 import com.ureca.billing.notification.handler.NotificationHandlerFactory;
+import com.ureca.billing.notification.profiling.StageProfiler;
+import com.ureca.billing.notification.profiling.StageProfiler.Stage;
+import com.ureca.billing.notification.service.DownstreamHealthMonitor;
+import com.ureca.billing.notification.service.NotificationStatusWriter;
+import com.ureca.billing.notification.service.PipelineMetrics;
 import com.ureca.billing.notification.service.RedisUserPrefCache;
 import com.ureca.billing.notification.service.RedisUserPrefCache.QuietTimeResult;
+import com.ureca.billing.notification.service.RetryTopicRouter;
 import com.ureca.billing.notification.service.ScheduledQueueService;
 import com.ureca.billing.notification.service.WaitingQueueService;
 
@@ -44,190 +52,292 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class BillingEventConsumer {
 
-    private final ObjectMapper objectMapper;
+    /** 수신 조절(BillingEventBackpressure)에서 컨테이너 pause/resume 시 사용 */
+    public static final String LISTENER_ID = "billing-event-listener";
+
     private final DuplicateCheckHandler duplicateCheckHandler;
     private final RedisUserPrefCache userPrefCache;
     private final WaitingQueueService waitingQueueService;
     private final ScheduledQueueService scheduledQueueService;
     private final NotificationHandlerFactory handlerFactory;
-    private final NotificationRepository notificationRepository;
-    private final CryptoKeyProvider keyProvider;
+    private final NotificationStatusWriter notificationStatusWriter;
+    private final BillingRecordDecoder recordDecoder;
+    private final RetryTopicRouter retryTopicRouter;
+    private final DownstreamHealthMonitor healthMonitor;
+    private final PipelineMetrics metrics;
+    private final StageProfiler profiler;
+    private final LogSampler logSampler;
 
     private final ForkJoinPool customThreadPool = new ForkJoinPool(50);
 
     @KafkaListener(
+            id = LISTENER_ID,
             topics = "billing-event",
             groupId = "notification-group",
             containerFactory = "kafkaListenerContainerFactory",
-            concurrency = "50" // 파티션 개수에 맞춰 설정
+            concurrency = "50", // 파티션 개수에 맞춰 설정
+            // notification.consumer.mode=partitioned면 PartitionedBillingEventConsumer가 대신 소비
+            autoStartup = "#{'${notification.consumer.mode:batch}' == 'batch'}"
     )
-    public void consume(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+    public void consume(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
         long startTime = System.currentTimeMillis();
         int batchSize = records.size();
         log.info("[Batch] {}개 메시지 수신 시작", batchSize);
 
-        // 1. Thread-Safe하고 Lock이 없는 큐 사용 (병목 제거)
-        Queue<Notification> notificationsToSave = new ConcurrentLinkedQueue<>();
+        // 1. 메시지별 처리 시작 (전처리는 커스텀 스레드 풀, 발송은 비동기로 진행)
+        // 발송 대기 중에는 스레드를 점유하지 않으므로 배치 전체가 동시에 in-flight 상태가 됨
+        // 하위 의존성이 느려지면(DEGRADED) 배치를 나눠 한 번에 in-flight 되는 양을 줄임
+        // CRITICAL이면 남은 레코드를 처리하지 않고 되돌림 (건별 직렬 처리로 poll 간격을 넘기지 않도록)
+        double admission = healthMonitor.admissionFactor();
+        int chunkSize = admission > 0 ? Math.max(1, (int) Math.ceil(batchSize * admission)) : batchSize;
+        if (chunkSize < batchSize) {
+            log.info("[Batch] 하위 의존성 지연으로 {}개씩 나눠 처리 ({})", chunkSize, healthMonitor.reason());
+        }
 
-        // 2. [핵심 2] 커스텀 스레드 풀로 병렬 처리 실행 ⚡
+        // 2. 모든 발송 완료 대기 (개별 실패는 위에서 흡수됨)
+        List<Notification> notificationsToSave = new ArrayList<>(batchSize);
+        int unprocessedFrom = -1;
         try {
-            customThreadPool.submit(() -> {
-                // 이 안에서 parallelStream은 우리가 만든 50개 스레드를 사용함
-                records.parallelStream().forEach(record -> {
-                    try {
-                        Notification notification = processSingleMessage(record);
-                        if (notification != null) {
-                            notificationsToSave.add(notification);
-                        }
-                    } catch (Exception e) {
-                        log.error("메시지 처리 중 에러: {}", record.value(), e);
-                    }
-                });
-            }).get(); // 모든 작업이 끝날 때까지 대기
+            for (int from = 0; from < batchSize; from += chunkSize) {
+                if (healthMonitor.level() == DownstreamHealthMonitor.Level.CRITICAL) {
+                    unprocessedFrom = from;
+                    break;
+                }
+                List<CompletableFuture<Notification>> futures = new ArrayList<>(chunkSize);
+                for (ConsumerRecord<String, byte[]> record : records.subList(from, Math.min(batchSize, from + chunkSize))) {
+                    futures.add(processAsync(record));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                futures.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .forEach(notificationsToSave::add);
+            }
         } catch (Exception e) {
             log.error("배치 병렬 처리 중 심각한 에러", e);
             throw new RuntimeException(e);
         }
 
-        // 3. DB 일괄 저장 (Bulk Insert/Update)
-        // 수백 번의 INSERT 쿼리를 한 번의 트랜잭션으로 처리
+        // 3. 상태 일괄 저장 (Bulk Insert/Upsert 또는 Write-Behind Journal)
+        // Write-Behind 모드에서는 Journal 기록만 하고 DB 반영은 백그라운드에서 처리
         if (!notificationsToSave.isEmpty()) {
-            notificationRepository.saveAll(notificationsToSave);
-            log.info("[Batch] {}개 알림 상태 DB 저장 완료", notificationsToSave.size());
+            notificationStatusWriter.write(notificationsToSave);
+            log.info("[Batch] {}개 알림 상태 저장 완료 (writeBehind={})",
+                    notificationsToSave.size(), notificationStatusWriter.isWriteBehind());
         }
 
         // 4. 일괄 커밋 (Batch Commit)
-        ack.acknowledge();
+        if (unprocessedFrom >= 0) {
+            // 처리한 앞부분만 커밋, 나머지는 seek 후 critical-pause-ms 동안 pause
+            // (이후 수신 정지/재개는 BillingEventBackpressure가 담당)
+            ack.nack(unprocessedFrom, Duration.ofMillis(healthMonitor.criticalPauseMs()));
+            log.warn("⏸️ [Batch] 하위 의존성 CRITICAL → {}개 중 {}개 미처리분 되돌림 ({})",
+                    batchSize, batchSize - unprocessedFrom, healthMonitor.reason());
+        } else {
+            ack.acknowledge();
+        }
 
         long duration = System.currentTimeMillis() - startTime;
-        log.info("[Batch] {}개 처리 완료 (소요시간: {}ms)", batchSize, duration);
+        log.info("[Batch] {}개 처리 완료 (소요시간: {}ms)", unprocessedFrom >= 0 ? unprocessedFrom : batchSize, duration);
     }
 
 
 
-    private Notification processSingleMessage(ConsumerRecord<String, String> record){
-        String traceInfo = String.format("[P%d-0%d]", record.partition(), record.offset());
+    /**
+     * 단일 메시지 비동기 처리 (전처리는 커스텀 스레드 풀, 에러는 null로 흡수)
+     * - 배치 리스너와 PartitionedBillingEventConsumer가 공용으로 사용
+     */
+    CompletableFuture<Notification> processAsync(ConsumerRecord<String, byte[]> record) {
+        return CompletableFuture
+                .supplyAsync(() -> processSingleMessage(record), customThreadPool)
+                .thenCompose(future -> future)
+                .exceptionally(e -> {
+                    log.error("메시지 처리 중 에러: P{}-{}", record.partition(), record.offset(), e);
+                    return null;
+                });
+    }
+
+    /**
+     * 단일 메시지 처리
+     * - 중복/예약/금지시간 분기는 즉시 완료된 Future 반환
+     * - 발송 분기는 핸들러의 비동기 발송 완료 시점에 결과 엔티티로 완료
+     */
+    private CompletableFuture<Notification> processSingleMessage(ConsumerRecord<String, byte[]> record){
+        // 추적 ID 문자열은 로그가 실제로 출력될 때만 생성
+        RecordTraceId traceInfo = new RecordTraceId(record);
 
         try{
-            // 1. 암호화된 payload 복호화
-            String encryptedPayload = record.value();
-            String decryptedPayload;
-            try {
-                decryptedPayload = AesUtil.decrypt(encryptedPayload, keyProvider.getCurrentKey());
-            } catch (Exception e) {
-                log.error("{} 🔓 복호화 실패: {}", traceInfo, e.getMessage());
-                // 복호화 실패 시 원본을 그대로 시도 (하위 호환성)
-                decryptedPayload = encryptedPayload;
-            }
-            
-            // 2. 복호화된 JSON 파싱
-            BillingMessageDto message = objectMapper.readValue(decryptedPayload, BillingMessageDto.class);
+            metrics.recordKafkaLag(record);
+
+            // 1. 복호화 + 평문 파싱 (byte[]에서 바로 처리, String 변환 없음)
+            BillingMessageDto message = metrics.timeDecrypt(() -> {
+                long t = profiler.start();
+                byte[] plain = recordDecoder.plainBytes(record, traceInfo);
+                t = profiler.lap(Stage.DECRYPT, t);
+                BillingMessageDto decoded = BillingMessageCodec.decode(plain);
+                profiler.stop(Stage.PARSE, t);
+                return decoded;
+            });
             String channel = message.getNotificationType() != null ? message.getNotificationType().toUpperCase() : "EMAIL";
 
             log.debug("{} 메시지 처리 시작: billId={}, userId={}, channel={}", 
                     traceInfo, message.getBillId(), message.getUserId(), channel);
             
             // 메시지 상태 체크
-            CheckResult checkResult = duplicateCheckHandler.checkMessageStatus(message.getBillId(), channel);
+            long dedupStart = profiler.start();
+            CheckResult checkResult = metrics.timeDedup(() -> healthMonitor.measure(DownstreamHealthMonitor.REDIS,
+                    () -> duplicateCheckHandler.checkMessageStatus(message.getBillId(), channel)));
+            profiler.stop(Stage.DEDUP, dedupStart);
 
             // 중복이면 null 반환 (저장 안 함)
             if (checkResult.isDuplicate()) {
             	log.debug("{} 🔄 중복 메시지 스킵: billId={}", traceInfo, message.getBillId());
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
 
             boolean isRetry = checkResult.isRetry();
             Long existingNotificationId = checkResult.getNotificationId();
 
             // - 첫 시도: 1 (1% 실패율)
-            // - 재시도: 2 이상 (30% 실패율)
-            int deliveryAttempt = isRetry ? 2 : 1;
+            // - 재시도: 2 이상 (30% 실패율, 재시도 토픽을 거친 메시지 포함)
+            int retryAttempt = RetryTopicRouter.attemptOf(record);
+            int deliveryAttempt = Math.max(isRetry ? 2 : 1, retryAttempt + 1);
             
             
             YearMonth billingMonth = parseBillingMonth(message.getBillYearMonth());
-            Optional<LocalDateTime> scheduledTimeOpt = userPrefCache.getScheduledTime(
+            long prefStart = profiler.start();
+            Optional<LocalDateTime> scheduledTimeOpt = metrics.timePreference(() -> userPrefCache.getScheduledTime(
                 message.getUserId(), 
                 channel, 
                 billingMonth
-            );
+            ));
+            profiler.stop(Stage.PREF_LOOKUP, prefStart);
 
             if (scheduledTimeOpt.isPresent()) {
                 LocalDateTime scheduledAt = scheduledTimeOpt.get();
 
                 // 예약 시간이 이미 지났으면 즉시 발송
                 if (scheduledAt.isAfter(LocalDateTime.now())) {
-                    log.info("{} 📅 예약발송: userId={}, billId={}, scheduledAt={}", 
-                        traceInfo, message.getUserId(), message.getBillId(), scheduledAt);
+                    if (logSampler.sample(LogSampler.Event.SCHEDULED)) {
+                        log.info("{} 📅 예약발송: userId={}, billId={}, scheduledAt={} (1/{})",
+                            traceInfo, message.getUserId(), message.getBillId(), scheduledAt,
+                            logSampler.rateOf(LogSampler.Event.SCHEDULED));
+                    }
                  // 처리 중 마킹 (중복 방지)
                     duplicateCheckHandler.markAsProcessing(message.getBillId(), channel);
 
                     // ScheduledQueue에 저장
                     scheduledQueueService.schedule(message, scheduledAt, channel);
 
-                    return createNotificationEntity(
+                    return CompletableFuture.completedFuture(createNotificationEntity(
                         message, channel, "SCHEDULED",
                         "예약 발송: " + scheduledAt,
                         isRetry, existingNotificationId,
                         scheduledAt
-                    );
+                    ));
                 } else {
                     log.debug("{} ⏰ 예약시간 지남 → 즉시발송: scheduledAt={}", traceInfo, scheduledAt);
                 }
             }
             
             LocalTime now = LocalTime.now();
-            QuietTimeResult quietResult = userPrefCache.checkQuietTime(
+            prefStart = profiler.start();
+            QuietTimeResult quietResult = metrics.timePreference(() -> userPrefCache.checkQuietTime(
                 message.getUserId(), 
                 channel, 
                 now
-            );
+            ));
+            profiler.stop(Stage.PREF_LOOKUP, prefStart);
 
             if (quietResult.isQuiet) {
-                log.info("{} 🔕 금지시간: userId={}, reason={}, source={}", 
-                    traceInfo, message.getUserId(), quietResult.reason, quietResult.source);
+                if (logSampler.sample(LogSampler.Event.QUIET_TIME)) {
+                    log.info("{} 🔕 금지시간: userId={}, reason={}, source={} (1/{})",
+                        traceInfo, message.getUserId(), quietResult.reason, quietResult.source,
+                        logSampler.rateOf(LogSampler.Event.QUIET_TIME));
+                }
                 // 처리 중 마킹 (중복 방지)
                 duplicateCheckHandler.markAsProcessing(message.getBillId(), channel);
-                // 대기열에는 복호화된 JSON 저장 (재발송 시 다시 암호화할 필요 없음)
-                waitingQueueService.addToQueue(decryptedPayload);
+                // 대기열에는 복호화된 메시지 저장 (재발송 시 다시 암호화할 필요 없음)
+                waitingQueueService.addToQueue(message);
 
                 // PENDING 상태의 Notification 객체 생성/반환
-                return createOrUpdateNotificationEntity(
+                return CompletableFuture.completedFuture(createOrUpdateNotificationEntity(
                         message, channel, "PENDING",
                         quietResult.getMessage(),
                         isRetry, existingNotificationId
-                );
+                ));
             }
             
             
+            CompletableFuture<Void> sending;
+            // 채널 지연은 한도(동시 발송 수/속도) 대기가 끝난 시점부터 측정 (0 = 발송 시작 전 실패)
+            AtomicLong sendStart = new AtomicLong();
+            long sendProfileStart = profiler.start();
             try {
                 NotificationHandler handler = handlerFactory.getHandler(channel);
-                handler.handle(message, traceInfo, deliveryAttempt);
-
-                duplicateCheckHandler.onSendSuccess(message.getBillId(), channel);
-                
-                //log.info("{} ✅ 발송 성공: billId={}, userId={}, channel={}", 
-                       // traceInfo, message.getBillId(), message.getUserId(), channel);
+                sending = handler.handleAsync(message, traceInfo.toString(), deliveryAttempt,
+                        () -> sendStart.set(System.currentTimeMillis()));
+            } catch (Exception e) {
+                sending = CompletableFuture.failedFuture(e);
+            }
 
-                // SENT 상태의 Notification 객체 생성/반환
-                return createOrUpdateNotificationEntity(
-                        message, channel, "SENT",
-                        null,
-                        isRetry, existingNotificationId
-                );
+            // 발송 완료 후 후처리(Redis 마킹 등)는 스케줄러 스레드가 아닌 커스텀 풀에서 수행
+            return sending.handleAsync((ignored, error) -> {
+                profiler.stop(Stage.SEND, sendProfileStart);
+                if (sendStart.get() > 0) {
+                    long sendElapsedMs = System.currentTimeMillis() - sendStart.get();
+                    // 발송 건 자체의 실패(DeliveryRejectedException)는 채널이 정상 응답한 것 → 채널 실패율에서 제외
+                    healthMonitor.record(channel, sendElapsedMs,
+                            error != null && !DeliveryRejectedException.isCause(error));
+                    metrics.recordSend(channel, sendElapsedMs, error == null);
+                }
+                if (error == null) {
+                    duplicateCheckHandler.onSendSuccess(message.getBillId(), channel);
+                    metrics.recordEventLag(message, channel);
+
+                    // SENT 상태의 Notification 객체 생성/반환
+                    return CompletableFuture.completedFuture(createOrUpdateNotificationEntity(
+                            message, channel, "SENT",
+                            null,
+                            isRetry, existingNotificationId
+                    ));
+                }
 
-            } catch (Exception e) {
-                log.error("{} 발송 실패:billId={}, error={}", traceInfo,  message.getBillId(), e.getMessage());
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                log.error("{} 발송 실패:billId={}, error={}", traceInfo,  message.getBillId(), cause.getMessage());
 
-                // FAILED 상태의 Notification 객체 생성/반환
-                return createOrUpdateNotificationEntity(
+                Notification failed = createOrUpdateNotificationEntity(
                         message, channel, "FAILED",
-                        e.getMessage(),
+                        cause.getMessage(),
                         isRetry, existingNotificationId
                 );
-            }
+                if (!retryTopicRouter.isEnabled()) {
+                    // FAILED 상태 저장 → RetryScheduler가 next_retry_at에 재시도
+                    return CompletableFuture.completedFuture(failed);
+                }
+
+                // 재시도 토픽(또는 DLT)으로 보내고 RETRY 상태로 저장 (DB 폴링 대상 아님)
+                // 발행 실패 시 FAILED로 남겨 RetryScheduler가 대신 재시도
+                return retryTopicRouter.route(record, message)
+                        .thenApply(route -> {
+                            failed.setNotificationStatus(route.deadLetter() ? "FAILED" : "RETRY");
+                            failed.setRetryCount(route.attempt());
+                            if (route.deadLetter()) {
+                                // DLT 마커가 없으면 claimMaxRetryFailedMessages가 다시 집어 DLT로 중복 발행
+                                return failed.markAsFinalFailure(cause.getMessage() + " → DLT");
+                            }
+                            return failed;
+                        })
+                        .exceptionally(routeError -> {
+                            log.error("{} 재시도 토픽 발행 실패: billId={}, error={}",
+                                    traceInfo, message.getBillId(), routeError.getMessage());
+                            return failed;
+                        });
+            }, customThreadPool).thenCompose(future -> future);
         } catch (Exception e) {
             log.error("{} JSON 파싱 또는 로직 에러: {}", traceInfo, e.getMessage());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -259,6 +369,7 @@ public class BillingEventConsumer {
     	    ) {
     	    	
     	    	
+        long buildStart = profiler.start();
         String content = createNotificationContent(message, notificationType);
         String recipient = getRecipient(message, notificationType);
 
@@ -292,7 +403,9 @@ public class BillingEventConsumer {
             builder.sentAt(LocalDateTime.now());
         }
 
-        return builder.build();
+        Notification notification = builder.build();
+        profiler.stop(Stage.ENTITY_BUILD, buildStart);
+        return notification;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.ureca.billing.notification.consumer;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.dto.codec.BillingMessageCodec;
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
+import com.ureca.billing.core.security.crypto.AesUtil;
+import com.ureca.billing.core.security.crypto.CryptoKeyProvider;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * billing-event 계열 record value → BillingMessageDto
+ *
+ * billing-event, 재시도 토픽, DLT가 같은 value 형태를 공유하므로 Consumer마다 판별 로직을 두지 않음
+ * (DeadLetterPublishingRecoverer는 원본 value/헤더를 그대로 DLT로 넘김)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BillingRecordDecoder {
+
+    private final CryptoKeyProvider keyProvider;
+
+    public BillingMessageDto decode(ConsumerRecord<String, byte[]> record, Object traceInfo) {
+        return BillingMessageCodec.decode(plainBytes(record, traceInfo));
+    }
+
+    /**
+     * record value → 평문 bytes (billing-encoding 헤더로 형태 판별)
+     * - aes-gcm: 원본 암호문 바이트 → 바로 복호화 (Base64 디코딩 없음)
+     * - field-aes: PII 필드만 암호문인 평문 → 그대로 (PII 복호화는 발송 채널 핸들러에서만)
+     * - plain  : 대기열/예약 큐 재발행 평문 → 그대로
+     * - 헤더 없음(이전 버전, RetryTopicRouter의 DLT JSON): 평문(JSON/BINARY)이면 그대로, 아니면 Base64 암호문으로 보고 복호화
+     */
+    public byte[] plainBytes(ConsumerRecord<String, byte[]> record, Object traceInfo) {
+        byte[] value = record.value();
+        Header header = record.headers().lastHeader(BillingMessageHeaders.ENCODING);
+        if (header != null) {
+            return Arrays.equals(header.value(), BillingMessageHeaders.ENCODING_AES_GCM_BYTES)
+                    ? AesUtil.decryptBytes(value, keyProvider.getCurrentKey())
+                    : value;
+        }
+
+        if (BillingMessageCodec.isBinary(value) || (value.length > 0 && value[0] == '{')) {
+            return value;
+        }
+        try {
+            return AesUtil.decryptBytes(Base64.getDecoder().decode(value), keyProvider.getCurrentKey());
+        } catch (Exception e) {
+            log.error("{} 🔓 복호화 실패: {}", traceInfo, e.getMessage());
+            // 복호화 실패 시 원본을 그대로 시도 (하위 호환성)
+            return value;
+        }
+    }
+}
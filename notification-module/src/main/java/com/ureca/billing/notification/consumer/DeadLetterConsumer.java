@@ -1,9 +1,12 @@
 package com.ureca.billing.notification.consumer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -12,8 +15,10 @@ import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
 import com.ureca.billing.notification.consumer.handler.DuplicateCheckHandler;
 import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
 import com.ureca.billing.notification.domain.repository.NotificationRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -25,20 +30,30 @@ import lombok.extern.slf4j.Slf4j;
  * 3회 재시도 실패한 EMAIL 메시지를 받아서 SMS로 자동 폴백 발송
  * 
  * 배치 모드 지원 (KafkaConsumerConfig와 일치)
+ * - poll 배치 단위 집합 처리: 기존 EMAIL 조회 1회 + Redis 중복 체크/마킹 Pipeline 1회 + Bulk Upsert 1회
+ * - 장애 복구 후 DLT가 몰려도 건별 조회/저장 없이 빠르게 소진
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DeadLetterConsumer {
 
+    private static final String DLT_ERROR_MESSAGE = "🚨 DLT → SMS Fallback으로 대체 발송";
+    private static final int MAX_RETRY_COUNT = 3;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBulkRepository notificationBulkRepository;
     private final ObjectMapper objectMapper;
     private final DuplicateCheckHandler duplicateCheckHandler;
+    private final BillingRecordDecoder recordDecoder;
 
     /**
      * DLT 메시지 배치 처리
-     * - 배치로 들어온 메시지들을 순차 처리
-     * - 각 메시지마다 SMS 폴백 수행
+     * 1. 배치 전체 파싱 (billId 기준 중복 제거)
+     * 2. 기존 EMAIL 레코드 일괄 조회 → FAILED(DLT) 갱신 또는 신규 생성
+     * 3. SMS 중복 체크 + 발송 완료 마킹 일괄 (Redis Pipeline SET NX)
+     * 4. EMAIL FAILED + SMS SENT 일괄 저장
+     *    저장 실패 시 3에서 선점한 SMS 발송 완료 키를 반납하고 예외 전파 → 재전달 시 다시 선점/저장
      */
     @KafkaListener(
         topics = "billing-event-dlt",
@@ -46,25 +61,42 @@ public class DeadLetterConsumer {
         concurrency = "3",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void listenDeadLetter(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+    public void listenDeadLetter(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
         log.warn("🚨 [DLT] {}개 메시지 수신", records.size());
         
-        List<Notification> notificationsToSave = new ArrayList<>();
-        
-        for (ConsumerRecord<String, String> record : records) {
-            String traceInfo = String.format("[DLT-P%d-O%d]", record.partition(), record.offset());
-            
+        // 1️⃣ 파싱 (같은 billId가 여러 번 오면 마지막 메시지 사용)
+        Map<Long, BillingMessageDto> messages = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            BillingMessageDto message = parse(record);
+            if (message != null && message.getBillId() != null) {
+                messages.put(message.getBillId(), message);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            List<Notification> notificationsToSave = new ArrayList<>(messages.size() * 2);
+
+            // 2️⃣ 기존 EMAIL FAILED 레코드 갱신 (실패해도 SMS 발송은 계속 진행)
             try {
-                processSingleDltMessage(record, traceInfo, notificationsToSave);
+                notificationsToSave.addAll(buildEmailFailedRecords(messages));
             } catch (Exception e) {
-                log.error("{} ❌ DLT 메시지 처리 실패: {}", traceInfo, e.getMessage());
+                log.error("🚨 [DLT] EMAIL FAILED 일괄 조회 실패: {}", e.getMessage());
+            }
+
+            // 3️⃣ SMS 자동 발송
+            List<Notification> smsNotifications = sendSmsFallbacks(messages);
+            notificationsToSave.addAll(smsNotifications);
+
+            // 4️⃣ 일괄 저장 (다중 행 Bulk Upsert)
+            if (!notificationsToSave.isEmpty()) {
+                try {
+                    notificationBulkRepository.upsertAll(notificationsToSave);
+                } catch (RuntimeException e) {
+                    releaseSmsClaims(smsNotifications);
+                    throw e;
+                }
+                log.info("🚨 [DLT] {}개 Notification 저장 완료", notificationsToSave.size());
             }
-        }
-        
-        // 일괄 저장
-        if (!notificationsToSave.isEmpty()) {
-            notificationRepository.saveAll(notificationsToSave);
-            log.info("🚨 [DLT] {}개 Notification 저장 완료", notificationsToSave.size());
         }
         
         // 배치 커밋
@@ -73,140 +105,145 @@ public class DeadLetterConsumer {
     }
 
     /**
-     * 단건 DLT 메시지 처리
+     * DLT 메시지 파싱 (실패 시 null)
+     * - RetryTopicRouter: JSON 문자열 (헤더 없음)
+     * - DeadLetterPublishingRecoverer: 원본 value/헤더 그대로 (BINARY 코덱, AES-GCM 암호문 등)
+     *   → billing-event와 같은 billing-encoding 기준 디코딩
+     * - 이전 RetryService: 이중 직렬화된 JSON 문자열
      */
-    private void processSingleDltMessage(ConsumerRecord<String, String> record, 
-                                          String traceInfo, 
-                                          List<Notification> notificationsToSave) {
+    private BillingMessageDto parse(ConsumerRecord<String, byte[]> record) {
+        String traceInfo = String.format("[DLT-P%d-O%d]", record.partition(), record.offset());
         try {
-            String messageJson = record.value();
+            byte[] value = record.value();
 
             // 빈 메시지 체크
-            if (messageJson == null || messageJson.trim().isEmpty()) {
+            if (value == null || value.length == 0) {
                 log.warn("{} ⚠️ 빈 메시지 스킵", traceInfo);
-                return;
+                return null;
             }
 
-            // 이중 직렬화 처리
-            if (messageJson.startsWith("\"") && messageJson.endsWith("\"")) {
-                messageJson = objectMapper.readValue(messageJson, String.class);
+            // 이중 직렬화 처리 (헤더 있는 레코드는 암호문 첫 바이트가 '"'일 수 있으므로 제외)
+            if (value[0] == '"' && record.headers().lastHeader(BillingMessageHeaders.ENCODING) == null) {
+                String messageJson = objectMapper.readValue(new String(value, StandardCharsets.UTF_8), String.class);
+                return objectMapper.readValue(messageJson, BillingMessageDto.class);
             }
 
-            BillingMessageDto message = objectMapper.readValue(messageJson, BillingMessageDto.class);
-
-            log.info("{} 📱 EMAIL 3회 실패 → SMS 자동 Fallback 시작. billId={}", 
-                    traceInfo, message.getBillId());
-
-            // 1️⃣ 기존 EMAIL FAILED 레코드 업데이트
-            updateEmailFailedRecord(message, traceInfo);
-
-            // 2️⃣ SMS 자동 발송 (항상 성공 - 에러처리 X)
-            Notification smsNotification = sendSmsFallback(message, traceInfo);
-            if (smsNotification != null) {
-                notificationsToSave.add(smsNotification);
-            }
-
-            log.info("{} ✅ DLT 처리 완료. EMAIL FAILED 업데이트 + SMS 발송 완료. billId={}", 
-                    traceInfo, message.getBillId());
-
+            return recordDecoder.decode(record, traceInfo);
         } catch (Exception e) {
-            log.error("{} ❌ DLT 처리 실패: {}", traceInfo, e.getMessage());
+            log.error("{} ❌ DLT 메시지 파싱 실패: {}", traceInfo, e.getMessage());
+            return null;
         }
     }
 
     /**
-     * 1️⃣ 기존 EMAIL FAILED 레코드 업데이트
-     * - errorMessage를 "DLT → SMS Fallback으로 대체 발송"으로 변경
+     * EMAIL FAILED 레코드 일괄 생성
+     * - 기존 레코드가 있으면 ID 유지 + errorMessage만 DLT로 변경 (Upsert)
+     * - 없으면 최종 실패 레코드 신규 생성
+     * - retry_count는 최대값으로 맞춰 DB 재시도 대상에서 제외
      */
-    private void updateEmailFailedRecord(BillingMessageDto message, String traceInfo) {
-        try {
-            // billId로 기존 EMAIL FAILED 레코드 조회
-            Optional<Notification> existingOpt = notificationRepository
-                    .findByBillIdAndType(message.getBillId(), "EMAIL");
-            
-            if (existingOpt.isPresent()) {
-                Notification existing = existingOpt.get();
-                
-                // 업데이트된 레코드 생성 (불변 객체이므로 새로 빌드)
-                Notification updated = Notification.builder()
-                    .notificationId(existing.getNotificationId())
-                    .userId(existing.getUserId())
-                    .notificationType(existing.getNotificationType())
-                    .notificationStatus("FAILED")  // 상태 유지
-                    .billId(existing.getBillId())
-                    .recipient(existing.getRecipient())
-                    .content(existing.getContent())
-                    .retryCount(existing.getRetryCount())
-                    .scheduledAt(existing.getScheduledAt())
-                    .sentAt(existing.getSentAt())
-                    .errorMessage("🚨 DLT → SMS Fallback으로 대체 발송")  // ✅ 메시지 업데이트
-                    .createdAt(existing.getCreatedAt())
-                    .build();
-                
-                notificationRepository.save(updated);
-                log.info("{} 💾 EMAIL FAILED 레코드 업데이트 완료. notificationId={}", 
-                        traceInfo, existing.getNotificationId());
-            } else {
-                // 기존 레코드가 없으면 새로 생성
-                log.warn("{} ⚠️ 기존 EMAIL 레코드 없음. 새로 FAILED 레코드 생성", traceInfo);
-                saveEmailFailedRecord(message);
-            }
-        } catch (Exception e) {
-            log.error("{} ❌ EMAIL FAILED 업데이트 실패: {}", traceInfo, e.getMessage());
-            // 실패해도 SMS 발송은 계속 진행
+    private List<Notification> buildEmailFailedRecords(Map<Long, BillingMessageDto> messages) {
+        Map<Long, Notification> existingByBill = new HashMap<>(messages.size() * 2);
+        for (Notification existing : notificationRepository.findAllByBillIdInAndType(messages.keySet(), "EMAIL")) {
+            existingByBill.put(existing.getBillId(), existing);
         }
+
+        List<Notification> records = new ArrayList<>(messages.size());
+        for (BillingMessageDto message : messages.values()) {
+            Notification existing = existingByBill.get(message.getBillId());
+            records.add(existing != null ? toDltFailed(existing) : newEmailFailedRecord(message));
+        }
+
+        log.info("💾 [DLT] EMAIL FAILED 갱신 {}건 (기존 {}건, 신규 {}건)",
+                records.size(), existingByBill.size(), records.size() - existingByBill.size());
+        return records;
+    }
+
+    private Notification toDltFailed(Notification existing) {
+        return Notification.builder()
+            .notificationId(existing.getNotificationId())
+            .userId(existing.getUserId())
+            .notificationType(existing.getNotificationType())
+            .notificationStatus("FAILED")
+            .billId(existing.getBillId())
+            .recipient(existing.getRecipient())
+            .content(existing.getContent())
+            .retryCount(MAX_RETRY_COUNT)
+            .scheduledAt(existing.getScheduledAt())
+            .sentAt(existing.getSentAt())
+            .errorMessage(DLT_ERROR_MESSAGE)
+            .createdAt(existing.getCreatedAt())
+            .build();
     }
 
     /**
      * EMAIL FAILED 레코드 새로 생성 (기존 레코드가 없는 경우)
      */
-    private void saveEmailFailedRecord(BillingMessageDto message) {
+    private Notification newEmailFailedRecord(BillingMessageDto message) {
         String content = String.format(
             "[LG U+ 청구 알림 - EMAIL 최종 실패]\n청구 년월: %s\n총 청구 금액: %,d원",
             message.getBillYearMonth(),
             message.getTotalAmount() != null ? message.getTotalAmount() : 0
         );
 
-        Notification notification = Notification.builder()
+        return Notification.builder()
             .userId(message.getUserId())
             .notificationType("EMAIL")
             .notificationStatus("FAILED")
             .billId(message.getBillId())
             .recipient(message.getRecipientEmail())
             .content(content)
-            .retryCount(3)
-            .errorMessage("🚨 DLT → SMS Fallback으로 대체 발송")
+            .retryCount(MAX_RETRY_COUNT)
+            .errorMessage(DLT_ERROR_MESSAGE)
             .createdAt(LocalDateTime.now())
             .build();
-
-        notificationRepository.save(notification);
     }
 
     /**
-     * 2️⃣ SMS 자동 Fallback 발송
+     * SMS 자동 Fallback 일괄 발송
      * - 실패 처리 안함 (요구사항: SMS는 실패처리하지 않아도 됨)
      * - 개발자 개입 X (완전 자동화)
+     * - 중복 체크와 발송 완료 마킹을 Pipeline SET NX 한 번으로 처리
      */
-    private Notification sendSmsFallback(BillingMessageDto message, String traceInfo) {
-    	// 중복 체크 
-    	if (duplicateCheckHandler.isDuplicate(message.getBillId(), "SMS")) {
-            log.warn("{} ⚠️ SMS 이미 발송됨. 중복 스킵. billId={}", traceInfo, message.getBillId());
-            return null;
+    private List<Notification> sendSmsFallbacks(Map<Long, BillingMessageDto> messages) {
+        List<Long> billIds = new ArrayList<>(messages.keySet());
+        List<Boolean> claimed = duplicateCheckHandler.bulkClaimSent(billIds, "SMS");
+
+        List<Notification> smsNotifications = new ArrayList<>(billIds.size());
+        for (int i = 0; i < billIds.size(); i++) {
+            BillingMessageDto message = messages.get(billIds.get(i));
+            if (!claimed.get(i)) {
+                log.warn("⚠️ [DLT] SMS 이미 발송됨. 중복 스킵. billId={}", message.getBillId());
+                continue;
+            }
+
+            // SMS 발송 시뮬레이션 (Mocking - 항상 성공)
+            log.debug("📱 [SMS 발송] to: {}, billId: {}, amount: {}원",
+                maskPhone(message.getRecipientPhone()),
+                message.getBillId(),
+                message.getTotalAmount() != null ? String.format("%,d", message.getTotalAmount()) : "0"
+            );
+            smsNotifications.add(createSmsNotification(message));
         }
-    	
-        // SMS 발송 시뮬레이션 (Mocking - 항상 성공)
-        log.info("{} 📱 [SMS 발송] to: {}, billId: {}, amount: {}원", 
-            traceInfo,
-            maskPhone(message.getRecipientPhone()),
-            message.getBillId(),
-            message.getTotalAmount() != null ? String.format("%,d", message.getTotalAmount()) : "0"
-        );
 
-        // Redis에 SMS 발송 완료 마킹
-        duplicateCheckHandler.markAsSent(message.getBillId(), "SMS");
+        log.info("📱 [DLT] EMAIL 최종 실패 → SMS Fallback {}건 (중복 스킵 {}건)",
+                smsNotifications.size(), billIds.size() - smsNotifications.size());
+        return smsNotifications;
+    }
 
-        // 3️⃣ SMS SENT 레코드 생성 및 반환
-        return createSmsNotification(message);
+    /**
+     * 저장하지 못한 SMS의 발송 완료 선점 반납 (남겨두면 재전달 시 중복으로 스킵되어 기록이 영영 누락됨)
+     */
+    private void releaseSmsClaims(List<Notification> smsNotifications) {
+        if (smsNotifications.isEmpty()) {
+            return;
+        }
+        List<Long> billIds = smsNotifications.stream().map(Notification::getBillId).toList();
+        try {
+            duplicateCheckHandler.bulkReleaseSent(billIds, "SMS");
+            log.warn("↩️ [DLT] 저장 실패로 SMS 선점 {}건 반납", billIds.size());
+        } catch (Exception e) {
+            log.error("❌ [DLT] SMS 선점 반납 실패. billIds={}, error={}", billIds, e.getMessage());
+        }
     }
 
     /**
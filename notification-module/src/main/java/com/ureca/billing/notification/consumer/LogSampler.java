@@ -0,0 +1,48 @@
+package com.ureca.billing.notification.consumer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메시지 단위 고빈도 INFO 로그 샘플링
+ *
+ * - 이벤트 유형별로 N건 중 1건만 출력 (sample-rate ≤ 1이면 전부 출력)
+ * - 출력되는 줄에 "(1/N)"을 붙여 생략 비율을 알 수 있게 함
+ * - 오류/경고 로그는 샘플링하지 않음 (호출하는 쪽에서 INFO에만 사용)
+ */
+@Component
+public class LogSampler {
+
+    public enum Event {
+        SCHEDULED,
+        QUIET_TIME
+    }
+
+    private final Map<Event, Long> rates = new EnumMap<>(Event.class);
+    private final Map<Event, AtomicLong> counters = new EnumMap<>(Event.class);
+
+    public LogSampler(@Value("${notification.logging.sample-rate.scheduled:100}") long scheduledRate,
+                      @Value("${notification.logging.sample-rate.quiet-time:100}") long quietTimeRate) {
+        rates.put(Event.SCHEDULED, Math.max(1, scheduledRate));
+        rates.put(Event.QUIET_TIME, Math.max(1, quietTimeRate));
+        for (Event event : Event.values()) {
+            counters.put(event, new AtomicLong());
+        }
+    }
+
+    /**
+     * 이번 건을 출력할지 여부 (유형별 첫 건, 이후 N건마다 1건)
+     */
+    public boolean sample(Event event) {
+        long rate = rates.get(event);
+        return rate == 1 || counters.get(event).getAndIncrement() % rate == 0;
+    }
+
+    public long rateOf(Event event) {
+        return rates.get(event);
+    }
+}
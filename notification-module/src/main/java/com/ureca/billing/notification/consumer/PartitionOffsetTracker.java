@@ -0,0 +1,65 @@
+package com.ureca.billing.notification.consumer;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 파티션별 오프셋 진행 추적 (순서와 무관하게 완료, 연속 구간까지만 커밋)
+ *
+ * - dispatched: poll 순서(= 오프셋 순서)대로 처리 시작
+ * - completed : 완료는 순서 무관
+ * - committableOffset: 앞에서부터 연속으로 완료된 마지막 오프셋 + 1 (Kafka 커밋 값)
+ *   → 중간에 느린 메시지가 있으면 그 앞까지만 커밋 (재시작 시 그 메시지부터 재처리, at-least-once)
+ *
+ * poll 스레드 전용 (동기화 없음)
+ */
+class PartitionOffsetTracker {
+
+    private final ArrayDeque<Long> pending = new ArrayDeque<>();
+    private final Set<Long> completedOutOfOrder = new HashSet<>();
+
+    private long committableOffset = -1;
+    private long committedOffset = -1;
+
+    void dispatched(long offset) {
+        pending.addLast(offset);
+    }
+
+    void completed(long offset) {
+        if (!pending.isEmpty() && pending.peekFirst() == offset) {
+            committableOffset = pending.pollFirst() + 1;
+            // 앞이 비면서 이어지는 완료분까지 한 번에 전진
+            while (!pending.isEmpty() && completedOutOfOrder.remove(pending.peekFirst())) {
+                committableOffset = pending.pollFirst() + 1;
+            }
+        } else {
+            completedOutOfOrder.add(offset);
+        }
+    }
+
+    /**
+     * 처리 중(미완료) 건수
+     */
+    int inFlight() {
+        return pending.size() - completedOutOfOrder.size();
+    }
+
+    /**
+     * 커밋할 오프셋 (아직 없으면 -1)
+     */
+    long committableOffset() {
+        return committableOffset;
+    }
+
+    /**
+     * 마지막 커밋 이후 커밋할 진행분이 있는지
+     */
+    boolean hasUncommitted() {
+        return committableOffset > committedOffset;
+    }
+
+    void markCommitted(long offset) {
+        committedOffset = Math.max(committedOffset, offset);
+    }
+}
@@ -0,0 +1,343 @@
+package com.ureca.billing.notification.consumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.service.DownstreamHealthMonitor;
+import com.ureca.billing.notification.service.NotificationStatusWriter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * billing-event 파티션 단위 파이프라인 Consumer (notification.consumer.mode=partitioned)
+ *
+ * 배치 리스너는 poll 배치 전체가 끝나야 ACK/다음 poll을 하므로 느린 메시지 하나(1초 SMTP 등)가
+ * 파티션과 poll 루프 전체를 붙잡는다. 이 모드는 poll과 처리를 분리한다.
+ *
+ * 1. poll 스레드는 레코드를 파티션 순서대로 처리 풀에 넘기고 바로 다음 poll
+ * 2. 완료는 순서와 무관 → 완료 큐로 돌아오면 상태 일괄 저장 후 PartitionOffsetTracker에 반영
+ * 3. 파티션별로 앞에서부터 연속 완료된 오프셋까지만 주기적으로 커밋 (at-least-once 유지)
+ * 4. in-flight 상한: 파티션별/전체 한도를 넘으면 해당 파티션(또는 전체)을 pause, 내려가면 resume
+ *    한도는 DownstreamHealthMonitor의 수신 허용 비율만큼 축소 (CRITICAL이면 전체 pause)
+ * 5. 리밸런스로 파티션을 뺏기면 해당 파티션 in-flight를 revoke-timeout-ms까지 기다린 뒤 동기 커밋
+ *
+ * KafkaConsumer는 스레드 안전하지 않으므로 poll/commit/pause는 모두 poll 스레드에서만 호출
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionedBillingEventConsumer {
+
+    private static final String TOPIC = "billing-event";
+    private static final String GROUP_ID = "notification-group";
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final BillingEventConsumer billingEventConsumer;
+    private final NotificationStatusWriter notificationStatusWriter;
+    private final DownstreamHealthMonitor healthMonitor;
+
+    @Value("${notification.consumer.mode:batch}")
+    private String mode;
+
+    @Value("${notification.consumer.partitioned.consumers:4}")
+    private int consumers;
+
+    @Value("${notification.consumer.partitioned.max-in-flight:5000}")
+    private int maxInFlight;
+
+    @Value("${notification.consumer.partitioned.max-in-flight-per-partition:500}")
+    private int maxInFlightPerPartition;
+
+    @Value("${notification.consumer.partitioned.poll-timeout-ms:100}")
+    private long pollTimeoutMs;
+
+    @Value("${notification.consumer.partitioned.commit-interval-ms:500}")
+    private long commitIntervalMs;
+
+    @Value("${notification.consumer.partitioned.revoke-timeout-ms:10000}")
+    private long revokeTimeoutMs;
+
+    private final List<PollLoop> loops = new ArrayList<>();
+    private ExecutorService pollThreads;
+
+    @PostConstruct
+    public void start() {
+        if (!"partitioned".equalsIgnoreCase(mode)) {
+            return;
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        pollThreads = Executors.newFixedThreadPool(consumers, runnable -> {
+            Thread thread = new Thread(runnable, "billing-event-poll-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumers; i++) {
+            PollLoop loop = new PollLoop(consumerFactory.createConsumer(GROUP_ID, null, "-partitioned-" + i));
+            loops.add(loop);
+            pollThreads.execute(loop);
+        }
+        log.info("🚀 [Partitioned] billing-event 파이프라인 Consumer 시작. consumers={}, maxInFlight={}, perPartition={}",
+                consumers, maxInFlight, maxInFlightPerPartition);
+    }
+
+    @PreDestroy
+    public void stop() {
+        loops.forEach(PollLoop::stop);
+        if (pollThreads != null) {
+            pollThreads.shutdown();
+            try {
+                pollThreads.awaitTermination(revokeTimeoutMs + 5000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Consumer 1개 = poll 스레드 1개
+     */
+    private class PollLoop implements Runnable, ConsumerRebalanceListener {
+
+        private final Consumer<String, Object> consumer;
+        private final Map<TopicPartition, PartitionOffsetTracker> trackers = new HashMap<>();
+        private final Set<TopicPartition> paused = new HashSet<>();
+        private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+        private final List<Completion> unsaved = new ArrayList<>();
+
+        private volatile boolean running = true;
+        private int inFlight;
+        private long lastCommitAt;
+
+        PollLoop(Consumer<String, Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        void stop() {
+            running = false;
+            consumer.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                consumer.subscribe(List.of(TOPIC), this);
+                while (running) {
+                    ConsumerRecords<String, Object> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+                    for (ConsumerRecord<String, Object> record : records) {
+                        dispatch(record);
+                    }
+                    drainCompletions();
+                    commitIfDue(false);
+                    applyBackpressure();
+                }
+            } catch (WakeupException e) {
+                // stop() 호출
+            } catch (Exception e) {
+                log.error("❌ [Partitioned] poll 루프 비정상 종료. error={}", e.getMessage(), e);
+            } finally {
+                awaitInFlight(trackers.keySet());
+                commitIfDue(true);
+                consumer.close();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void dispatch(ConsumerRecord<String, Object> record) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            PartitionOffsetTracker tracker = trackers.computeIfAbsent(partition, p -> new PartitionOffsetTracker());
+            tracker.dispatched(record.offset());
+            inFlight++;
+
+            // value는 ByteArrayDeserializer로 받은 byte[]
+            ConsumerRecord<String, byte[]> bytesRecord = (ConsumerRecord<String, byte[]>) (ConsumerRecord<?, ?>) record;
+            try {
+                billingEventConsumer.processAsync(bytesRecord)
+                        .whenComplete((notification, error) ->
+                                completions.add(new Completion(partition, tracker, record.offset(), notification)));
+            } catch (Exception e) {
+                // 비동기 처리에 넘기기 전 실패 → 처리 실패와 같게 완료 처리 (오프셋/in-flight가 묶이지 않도록)
+                log.error("❌ [Partitioned] 처리 시작 실패. partition={}, offset={}, error={}",
+                        partition, record.offset(), e.getMessage(), e);
+                completions.add(new Completion(partition, tracker, record.offset(), null));
+            }
+        }
+
+        /**
+         * 완료분 상태 일괄 저장 → 저장된 것만 오프셋 완료 처리 (저장 실패 시 다음 루프에서 재시도)
+         */
+        private void drainCompletions() {
+            Completion completion;
+            while ((completion = completions.poll()) != null) {
+                unsaved.add(completion);
+            }
+            if (unsaved.isEmpty()) {
+                return;
+            }
+
+            List<Notification> notifications = new ArrayList<>(unsaved.size());
+            for (Completion c : unsaved) {
+                if (c.notification() != null) {
+                    notifications.add(c.notification());
+                }
+            }
+            try {
+                if (!notifications.isEmpty()) {
+                    notificationStatusWriter.write(notifications);
+                }
+            } catch (Exception e) {
+                log.error("❌ [Partitioned] 상태 저장 실패, 다음 루프에서 재시도. count={}, error={}",
+                        notifications.size(), e.getMessage());
+                return;
+            }
+
+            for (Completion c : unsaved) {
+                inFlight--;
+                // revoke 후 다시 배정받은 파티션이면 새 tracker → 이전 배정의 완료는 반영하지 않음
+                if (trackers.get(c.partition()) == c.tracker()) {
+                    c.tracker().completed(c.offset());
+                }
+            }
+            unsaved.clear();
+        }
+
+        private void commitIfDue(boolean sync) {
+            long now = System.currentTimeMillis();
+            if (!sync && now - lastCommitAt < commitIntervalMs) {
+                return;
+            }
+            lastCommitAt = now;
+
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            trackers.forEach((partition, tracker) -> {
+                if (tracker.hasUncommitted()) {
+                    offsets.put(partition, new OffsetAndMetadata(tracker.committableOffset()));
+                }
+            });
+            if (offsets.isEmpty()) {
+                return;
+            }
+
+            if (sync) {
+                consumer.commitSync(offsets);
+                offsets.forEach((partition, offset) -> markCommitted(partition, offset));
+            } else {
+                consumer.commitAsync(offsets, (committed, error) -> {
+                    if (error != null) {
+                        log.warn("⚠️ [Partitioned] 오프셋 커밋 실패 (다음 주기에 재시도). error={}", error.getMessage());
+                        return;
+                    }
+                    // commitAsync 콜백은 poll 스레드에서 실행
+                    committed.forEach(this::markCommitted);
+                });
+            }
+        }
+
+        private void markCommitted(TopicPartition partition, OffsetAndMetadata offset) {
+            PartitionOffsetTracker tracker = trackers.get(partition);
+            if (tracker != null) {
+                tracker.markCommitted(offset.offset());
+            }
+        }
+
+        /**
+         * in-flight 한도 초과 파티션은 pause, 한도 안으로 돌아오면 resume
+         */
+        private void applyBackpressure() {
+            double admission = healthMonitor.admissionFactor();
+            int partitionLimit = (int) (maxInFlightPerPartition * admission);
+            boolean globalFull = inFlight >= (int) (maxInFlight * admission);
+            List<TopicPartition> toPause = new ArrayList<>();
+            List<TopicPartition> toResume = new ArrayList<>();
+
+            trackers.forEach((partition, tracker) -> {
+                boolean full = globalFull || tracker.inFlight() >= partitionLimit;
+                if (full && !paused.contains(partition)) {
+                    toPause.add(partition);
+                } else if (!full && paused.contains(partition)) {
+                    toResume.add(partition);
+                }
+            });
+
+            if (!toPause.isEmpty()) {
+                consumer.pause(toPause);
+                paused.addAll(toPause);
+            }
+            if (!toResume.isEmpty()) {
+                consumer.resume(toResume);
+                toResume.forEach(paused::remove);
+            }
+        }
+
+        /**
+         * 지정 파티션의 in-flight가 끝날 때까지 대기 (revoke-timeout-ms 상한)
+         */
+        private void awaitInFlight(Collection<TopicPartition> partitions) {
+            long deadline = System.currentTimeMillis() + revokeTimeoutMs;
+            while (System.currentTimeMillis() < deadline) {
+                drainCompletions();
+                boolean busy = partitions.stream()
+                        .map(trackers::get)
+                        .anyMatch(tracker -> tracker != null && tracker.inFlight() > 0);
+                if (!busy) {
+                    return;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            log.warn("⚠️ [Partitioned] in-flight 대기 시간 초과, 미완료 메시지는 새 소유자가 재처리. partitions={}", partitions);
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            awaitInFlight(partitions);
+            commitIfDue(true);
+            partitions.forEach(partition -> {
+                trackers.remove(partition);
+                paused.remove(partition);
+            });
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            // 새 파티션은 첫 레코드 dispatch 시 tracker 생성
+        }
+    }
+
+    /**
+     * tracker: dispatch 시점의 배정(generation) 식별용
+     */
+    private record Completion(TopicPartition partition, PartitionOffsetTracker tracker, long offset,
+                              Notification notification) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.ureca.billing.notification.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * 레코드 추적 ID ([P{partition}-0{offset}]) 지연 생성
+ *
+ * - 로그 인자로 넘기면 해당 레벨이 실제로 출력될 때만 toString() → 문자열 생성
+ *   (레코드마다 String.format을 하던 비용 제거, DEBUG가 꺼진 정상 경로에서는 할당 없음)
+ * - 한 번 만든 문자열은 재사용 (발송 핸들러에 String으로 넘길 때 등)
+ * - 처리 스레드가 바뀌어도 같은 값이 만들어지므로 캐시 경합은 무해
+ */
+final class RecordTraceId {
+
+    private final int partition;
+    private final long offset;
+    private String text;
+
+    RecordTraceId(ConsumerRecord<?, ?> record) {
+        this.partition = record.partition();
+        this.offset = record.offset();
+    }
+
+    @Override
+    public String toString() {
+        String value = text;
+        if (value == null) {
+            value = "[P" + partition + "-0" + offset + "]";
+            text = value;
+        }
+        return value;
+    }
+}
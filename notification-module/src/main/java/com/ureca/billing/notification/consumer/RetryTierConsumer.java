@@ -0,0 +1,113 @@
+package com.ureca.billing.notification.consumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.service.RetryTopicRouter;
+import com.ureca.billing.notification.service.RetryTopicRouter.RetryTier;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 지연 재시도 토픽 Consumer
+ *
+ * - 단계별 토픽은 지연 시간이 고정이라 파티션 안에서 due-at 순서가 유지됨
+ * - 배치 앞에서부터 due-at이 지난 레코드만 billing-event로 재발행
+ * - 아직 이른 레코드를 만나면 그 앞까지만 커밋하고 nack(index, 남은 시간)
+ *   → 컨테이너가 남은 레코드를 다시 seek하고 consumer를 pause (스레드 sleep/DB 폴링 없음)
+ * - 단계마다 리스너를 분리 (1h 단계 대기가 1m 단계를 막지 않도록)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryTierConsumer {
+
+    private static final String GROUP_ID = "notification-retry-group";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${notification.retry.topic.max-pause-ms:30000}")
+    private long maxPauseMs;
+
+    @KafkaListener(topics = RetryTopicRouter.RETRY_1M_TOPIC, groupId = GROUP_ID,
+            containerFactory = "kafkaListenerContainerFactory")
+    public void consumeRetry1m(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        relay(records, ack, RetryTopicRouter.TIERS.get(0));
+    }
+
+    @KafkaListener(topics = RetryTopicRouter.RETRY_10M_TOPIC, groupId = GROUP_ID,
+            containerFactory = "kafkaListenerContainerFactory")
+    public void consumeRetry10m(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        relay(records, ack, RetryTopicRouter.TIERS.get(1));
+    }
+
+    @KafkaListener(topics = RetryTopicRouter.RETRY_1H_TOPIC, groupId = GROUP_ID,
+            containerFactory = "kafkaListenerContainerFactory")
+    public void consumeRetry1h(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        relay(records, ack, RetryTopicRouter.TIERS.get(2));
+    }
+
+    private void relay(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack, RetryTier tier) {
+        long now = System.currentTimeMillis();
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+        int notDueIndex = -1;
+        long waitMs = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            long dueAt = RetryTopicRouter.dueAtOf(record, tier.delay());
+            if (dueAt > now) {
+                notDueIndex = i;
+                waitMs = dueAt - now;
+                break;
+            }
+            sends.add(kafkaTemplate.send(toMainRecord(record)));
+        }
+
+        // 재발행 ACK 전에는 커밋하지 않음 (실패 시 에러 핸들러 → 배치 재처리)
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        if (notDueIndex < 0) {
+            ack.acknowledge();
+        } else {
+            ack.nack(notDueIndex, Duration.ofMillis(Math.min(waitMs, maxPauseMs)));
+        }
+
+        if (!sends.isEmpty()) {
+            log.info("🔁 [RETRY-TOPIC] {} → {} 재발행 {}건 (대기 {}건)", tier.topic(), RetryTopicRouter.MAIN_TOPIC,
+                    sends.size(), records.size() - sends.size());
+        }
+    }
+
+    /**
+     * 원본 value/헤더 유지 (billing-encoding, billing-retry-attempt), due-at과 컨테이너 헤더(kafka_*)는 제거
+     * - Recoverer를 거치며 단계 수 헤더가 여러 개 쌓일 수 있으므로 마지막 값 하나만 유지
+     */
+    private ProducerRecord<String, Object> toMainRecord(ConsumerRecord<String, byte[]> record) {
+        ProducerRecord<String, Object> main = new ProducerRecord<>(RetryTopicRouter.MAIN_TOPIC, record.key(), record.value());
+        for (Header header : record.headers()) {
+            String key = header.key();
+            if (!RetryTopicRouter.DUE_AT_HEADER.equals(key) && !RetryTopicRouter.ATTEMPT_HEADER.equals(key)
+                    && !key.startsWith("kafka_")) {
+                main.headers().add(header);
+            }
+        }
+        Header attempt = record.headers().lastHeader(RetryTopicRouter.ATTEMPT_HEADER);
+        if (attempt != null) {
+            main.headers().add(attempt);
+        }
+        return main;
+    }
+}
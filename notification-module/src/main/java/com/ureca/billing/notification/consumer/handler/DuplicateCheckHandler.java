@@ -5,10 +5,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.Getter;
 import lombok.Builder;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -336,6 +339,39 @@ public class DuplicateCheckHandler {
         markAsProcessing(billId, notificationType);
     }
 
+    /**
+     * 발송 완료 일괄 선점 (Pipeline SET NX EX)
+     * - 중복 체크 + 발송 완료 마킹을 한 번의 왕복으로 처리
+     *
+     * @return billIds와 같은 순서로, 새로 선점했으면 true (이미 발송된 메시지면 false)
+     */
+    public List<Boolean> bulkClaimSent(List<Long> billIds, String notificationType) {
+        Expiration ttl = Expiration.from(SENT_TTL_DAYS, TimeUnit.DAYS);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long billId : billIds) {
+                connection.stringCommands().set(
+                        buildSentKey(billId, notificationType).getBytes(StandardCharsets.UTF_8),
+                        "sent".getBytes(StandardCharsets.UTF_8),
+                        ttl,
+                        RedisStringCommands.SetOption.ifAbsent());
+            }
+            return null;
+        });
+        return results.stream().map(Boolean.TRUE::equals).toList();
+    }
+
+    /**
+     * bulkClaimSent로 선점한 발송 완료 키 일괄 반납 (선점 후 저장 실패 시)
+     */
+    public void bulkReleaseSent(List<Long> billIds, String notificationType) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long billId : billIds) {
+                connection.keyCommands().del(buildSentKey(billId, notificationType).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
     public void bulkMarkAsSent(List<Notification> notifications) {
         redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
             for (Notification n : notifications) {
@@ -1,5 +1,9 @@
 package com.ureca.billing.notification.controller;
 
+import com.ureca.billing.notification.handler.ChannelConcurrencyLimiter;
+import com.ureca.billing.notification.handler.ChannelRateLimiter;
+import com.ureca.billing.notification.mail.EmailDeliveryEngine;
+import com.ureca.billing.notification.mail.SmtpTransportPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +27,10 @@ public class HealthController {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final SmtpTransportPool smtpTransportPool;
+    private final EmailDeliveryEngine emailDeliveryEngine;
+    private final ChannelConcurrencyLimiter channelConcurrencyLimiter;
+    private final ChannelRateLimiter channelRateLimiter;
 
     @GetMapping
     public Map<String, Object> health() {
@@ -83,6 +91,27 @@ public class HealthController {
         return response;
     }
 
+    /**
+     * SMTP 연결 풀 상태 (연결별 발송 건수, msgs/sec)
+     */
+    @GetMapping("/smtp")
+    public Map<String, Object> checkSmtp() {
+        Map<String, Object> response = new HashMap<>(smtpTransportPool.getStats());
+        response.put("pendingEmails", emailDeliveryEngine.getPendingCount());
+        return response;
+    }
+
+    /**
+     * 채널별 발송 한도 상태 (동시 발송 수 + 속도 제한 lease/대기)
+     */
+    @GetMapping("/channels")
+    public Map<String, Object> checkChannels() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("concurrency", channelConcurrencyLimiter.getStats());
+        response.put("rateLimit", channelRateLimiter.getStats());
+        return response;
+    }
+
     @GetMapping("/all")
     public Map<String, Object> checkAll() {
         Map<String, Object> response = new HashMap<>();
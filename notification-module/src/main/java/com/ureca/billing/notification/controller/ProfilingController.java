@@ -0,0 +1,63 @@
+package com.ureca.billing.notification.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.ureca.billing.notification.profiling.StageProfiler;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * billing-event 처리 구간 프로파일링 Controller
+ *
+ * - 재시작 없이 프로파일링 on/off
+ * - 구간별 호출 수/누적 시간/분포(p50, p99, p99.9, max) 조회
+ */
+@Tag(name = "9. 처리 구간 프로파일링", description = "Consumer 처리 구간별 비용 측정 API")
+@RestController
+@RequestMapping("/api/profiling")
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilingController {
+
+    private final StageProfiler profiler;
+
+    @Operation(summary = "9-1. 구간별 측정 결과 조회",
+               description = "활성화(또는 초기화) 이후 구간별 호출 수, 누적 시간(ms), 분포(µs)")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshot() {
+        return ResponseEntity.ok(Map.of(
+            "enabled", profiler.isEnabled(),
+            "since", profiler.getSinceMillis(),
+            "stages", profiler.snapshot()
+        ));
+    }
+
+    @Operation(summary = "9-2. 프로파일링 활성화", description = "이전 측정 결과를 비우고 측정 시작")
+    @PostMapping("/enable")
+    public ResponseEntity<Map<String, Object>> enable() {
+        profiler.enable();
+        log.info("📊 [Profiling] 처리 구간 프로파일링 활성화");
+        return ResponseEntity.ok(Map.of("enabled", true));
+    }
+
+    @Operation(summary = "9-3. 프로파일링 비활성화", description = "측정 중지 (결과는 유지)")
+    @PostMapping("/disable")
+    public ResponseEntity<Map<String, Object>> disable() {
+        profiler.disable();
+        log.info("📊 [Profiling] 처리 구간 프로파일링 비활성화");
+        return ResponseEntity.ok(Map.of("enabled", false));
+    }
+
+    @Operation(summary = "9-4. 측정 결과 초기화")
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> reset() {
+        profiler.reset();
+        return ResponseEntity.ok(Map.of("reset", true));
+    }
+}
@@ -13,6 +13,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ureca.billing.core.dto.BillingMessageDto;
 import com.ureca.billing.notification.domain.dto.WaitingQueueStatus;
 import com.ureca.billing.notification.service.MessagePolicyService;
+import com.ureca.billing.notification.service.WaitingQueueDrainEngine;
+import com.ureca.billing.notification.service.WaitingQueueDrainEngine.DrainProgress;
+import com.ureca.billing.notification.service.WaitingQueueReleaseService;
+import com.ureca.billing.notification.service.WaitingQueueReleaseService.DrainResult;
 import com.ureca.billing.notification.service.WaitingQueueService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,6 +41,8 @@ import lombok.extern.slf4j.Slf4j;
 public class QueueMonitorController {
     
     private final WaitingQueueService queueService;
+    private final WaitingQueueReleaseService releaseService;
+    private final WaitingQueueDrainEngine drainEngine;
     private final MessagePolicyService policyService;
     private final ObjectMapper objectMapper;
     private final KafkaTemplate<String, String> kafkaTemplate;      
@@ -83,7 +89,8 @@ public class QueueMonitorController {
             "blockTimeMessage", isBlockTime 
                 ? "⏰ 현재 금지 시간 (22:00~08:00) - 메시지 발송 유보 중" 
                 : "✅ 정상 시간 - 대기열 메시지 발송 가능",
-            "nextProcessTime", isBlockTime ? "08:00" : "즉시 처리 가능"
+            "nextProcessTime", isBlockTime ? "08:00" : "즉시 처리 가능",
+            "payloadStore", queueService.getPayloadStats()
         ));
     }
     
@@ -110,26 +117,10 @@ public class QueueMonitorController {
          ));
      }
      
-     Set<String> messages = queueService.getReadyMessages(maxCount);
-     
-     if (messages == null || messages.isEmpty()) {
-         // Ready 메시지가 없으면 전체 조회 (강제 처리)
-         messages = redisTemplate.opsForZSet().range("queue:message:waiting", 0, maxCount - 1);
-     }
-     
-     int successCount = 0;
-     int failCount = 0;
-     
-     for (String messageJson : messages) {
-         try {
-             kafkaTemplate.send("billing-event", messageJson);
-             queueService.removeFromQueue(messageJson);
-             successCount++;
-         } catch (Exception e) {
-             failCount++;
-             log.error("❌ Failed to process message: {}", e.getMessage());
-         }
-     }
+     // 발송 시각과 관계없이 강제 처리 (shard 락은 스케줄러와 동일하게 적용)
+     DrainResult result = releaseService.drain(maxCount, true);
+     int successCount = result.getPublished();
+     int failCount = result.getFailed();
      
      return ResponseEntity.ok(Map.of(
          "success", true,
@@ -141,6 +132,42 @@ public class QueueMonitorController {
      ));
  }
     
+    // ========================================
+    // 연속 드레인 (08:00 일괄 해제)
+    // ========================================
+
+    @Operation(summary = "4-8. 드레인 진행 상황",
+               description = "연속 드레인 상태, 남은 건수, 현재 속도(건/초), Consumer Lag, 예상 완료 시간(초)")
+    @GetMapping("/drain/status")
+    public ResponseEntity<DrainProgress> getDrainStatus() {
+        return ResponseEntity.ok(drainEngine.getProgress());
+    }
+
+    @Operation(summary = "4-9. 연속 드레인 시작",
+               description = "대기열이 빌 때까지 목표 속도로 연속 재발행 (force=true면 발송 시각/금지시간 무시)")
+    @PostMapping("/drain/start")
+    public ResponseEntity<Map<String, Object>> startDrain(
+            @Parameter(description = "발송 시각/금지시간 무시 여부")
+            @RequestParam(defaultValue = "false") boolean force) {
+        boolean started = drainEngine.start(force);
+        return ResponseEntity.ok(Map.of(
+            "started", started,
+            "message", started ? "🚀 드레인을 시작했습니다." : "🔁 이미 드레인이 진행 중입니다.",
+            "progress", drainEngine.getProgress()
+        ));
+    }
+
+    @Operation(summary = "4-10. 연속 드레인 중단",
+               description = "진행 중인 배치 완료 후 드레인 중단")
+    @PostMapping("/drain/stop")
+    public ResponseEntity<Map<String, Object>> stopDrain() {
+        drainEngine.stop();
+        return ResponseEntity.ok(Map.of(
+            "message", "🛑 드레인 중단 요청됨",
+            "progress", drainEngine.getProgress()
+        ));
+    }
+
     // ========================================
     // 대기열 메시지 관리
     // ========================================
@@ -194,6 +221,7 @@ public class QueueMonitorController {
             "isBlockTime", policyService.isBlockTime(),
             "scheduledProcessTime", "매일 08:00 (금지 시간 해제 시)",
             "testScheduler", "매 1분마다 (개발 환경)",
+            "drain", drainEngine.getProgress(),
             "status", queueService.getQueueStatus()
         ));
     }
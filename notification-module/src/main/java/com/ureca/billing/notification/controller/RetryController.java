@@ -13,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.StreamSupport;
 
 /**
  * 재시도 및 DLT 관리 Controller
@@ -39,19 +38,13 @@ public class RetryController {
                description = "SENT/FAILED/PENDING/RETRY 상태별 개수 조회")
     @GetMapping("/status-summary")
     public ResponseEntity<Map<String, Object>> getStatusSummary() {
-        Iterable<Notification> allNotifications = notificationRepository.findAll();
-        
+        // 전체 행을 읽지 않고 상태별 COUNT
         Map<String, Long> summary = new HashMap<>();
-        summary.put("SENT", 0L);
-        summary.put("FAILED", 0L);
-        summary.put("RETRY", 0L);
-        summary.put("PENDING", 0L);
-        
         long total = 0;
-        for (Notification notification : allNotifications) {
-            String status = notification.getNotificationStatus();
-            summary.merge(status, 1L, Long::sum);
-            total++;
+        for (String status : List.of("SENT", "FAILED", "RETRY", "PENDING")) {
+            long count = notificationRepository.countByStatus(status);
+            summary.put(status, count);
+            total += count;
         }
         
         return ResponseEntity.ok(Map.of(
@@ -70,16 +63,12 @@ public class RetryController {
                description = "재시도 대상 FAILED 메시지 수")
     @GetMapping("/failed-count")
     public ResponseEntity<Map<String, Object>> getFailedCount() {
-        List<Notification> failedMessages = notificationRepository.findFailedMessagesForRetry();
-        
-        long retryableCount = failedMessages.stream()
-                .filter(n -> n.getRetryCount() < 3)
-                .count();
-        
-        long maxRetryReached = failedMessages.size() - retryableCount;
+        long totalFailed = notificationRepository.countByStatus("FAILED");
+        long retryableCount = notificationRepository.countFailedMessagesForRetry();
+        long maxRetryReached = totalFailed - retryableCount;
         
         return ResponseEntity.ok(Map.of(
-            "totalFailed", failedMessages.size(),
+            "totalFailed", totalFailed,
             "retryable", retryableCount,
             "maxRetryReached", maxRetryReached,
             "message", String.format("재시도 가능: %d건, 최대 재시도 도달: %d건", 
@@ -94,10 +83,7 @@ public class RetryController {
             @Parameter(description = "조회할 최대 개수")
             @RequestParam(defaultValue = "20") int limit) {
         
-        List<Notification> failedMessages = notificationRepository.findFailedMessagesForRetry()
-                .stream()
-                .limit(limit)
-                .toList();
+        List<Notification> failedMessages = notificationRepository.findFailedMessagesForRetry(limit);
         
         List<Map<String, Object>> messageList = failedMessages.stream()
                 .map(n -> Map.<String, Object>of(
@@ -128,8 +114,7 @@ public class RetryController {
             @RequestParam(defaultValue = "100") int maxCount) {
         
         // 재시도 전 상태 확인
-        List<Notification> beforeRetry = notificationRepository.findFailedMessagesForRetry();
-        int beforeCount = beforeRetry.size();
+        long beforeCount = notificationRepository.countFailedMessagesForRetry();
         
         // 재시도 실행
         int retryCount = retryService.retryFailedMessages(maxCount);
@@ -188,10 +173,7 @@ public class RetryController {
             @Parameter(description = "조회할 최대 개수")
             @RequestParam(defaultValue = "20") int limit) {
         
-        List<Notification> dltCandidates = notificationRepository.findMaxRetryFailedMessages()
-                .stream()
-                .limit(limit)
-                .toList();
+        List<Notification> dltCandidates = notificationRepository.findMaxRetryFailedMessages(limit);
         
         List<Map<String, Object>> messageList = dltCandidates.stream()
                 .map(n -> Map.<String, Object>of(
@@ -205,7 +187,7 @@ public class RetryController {
                 .toList();
         
         // 전체 개수 조회
-        int totalCount = notificationRepository.findMaxRetryFailedMessages().size();
+        long totalCount = notificationRepository.countMaxRetryFailedMessages();
         
         return ResponseEntity.ok(Map.of(
             "count", messageList.size(),
@@ -233,8 +215,7 @@ public class RetryController {
             @RequestParam(defaultValue = "100") int maxCount) {
         
         // 전송 전 상태 확인
-        List<Notification> beforeSend = notificationRepository.findMaxRetryFailedMessages();
-        int beforeCount = beforeSend.size();
+        long beforeCount = notificationRepository.countMaxRetryFailedMessages();
         
         if (beforeCount == 0) {
             return ResponseEntity.ok(Map.of(
@@ -266,7 +247,7 @@ public class RetryController {
                description = "SMS Fallback 대상 (retry_count >= 3) 개수")
     @GetMapping("/dlt-count")
     public ResponseEntity<Map<String, Object>> getDltCount() {
-        int count = notificationRepository.findMaxRetryFailedMessages().size();
+        long count = notificationRepository.countMaxRetryFailedMessages();
         
         return ResponseEntity.ok(Map.of(
             "dltCandidates", count,
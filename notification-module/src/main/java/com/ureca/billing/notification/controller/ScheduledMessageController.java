@@ -1,6 +1,7 @@
 package com.ureca.billing.notification.controller;
 
 import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.scheduler.wheel.ScheduledDeliveryWheel;
 import com.ureca.billing.notification.service.ScheduledQueueService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +31,7 @@ import java.util.Map;
 public class ScheduledMessageController {
     
     private final ScheduledQueueService scheduledQueueService;
+    private final ScheduledDeliveryWheel deliveryWheel;
     
     // ========================================
     // 예약 현황 조회
@@ -51,9 +53,11 @@ public class ScheduledMessageController {
                 "total", stats.get("ALL"),
                 "readyToSend", stats.get("READY")
             ),
+            "wheel", deliveryWheel.getStats(),
             "description", Map.of(
-                "total", "전체 예약 건수",
-                "readyToSend", "발송 시간 도래한 건수 (다음 스케줄러 실행 시 처리)"
+                "total", "전체 예약 건수 (타이밍 휠로 옮겨진 건 제외)",
+                "readyToSend", "발송 시간 도래한 건수 (다음 preload 시 처리)",
+                "wheel", "이 인스턴스의 타이밍 휠에 올라가 발송 대기 중인 예약"
             )
         ));
     }
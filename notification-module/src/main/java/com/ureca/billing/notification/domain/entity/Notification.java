@@ -1,6 +1,7 @@
 package com.ureca.billing.notification.domain.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 import lombok.*;
@@ -41,6 +42,13 @@ public class Notification {
     @Builder.Default
     private Integer retryCount = 0;
     
+    /**
+     * 다음 재시도 시각 (NotificationBulkRepository가 상태/retry_count로 계산해 기록, 조회 전용)
+     */
+    @Column("next_retry_at")
+    @ReadOnlyProperty
+    private LocalDateTime nextRetryAt;
+    
     @Column("scheduled_at")
     private LocalDateTime scheduledAt;
     
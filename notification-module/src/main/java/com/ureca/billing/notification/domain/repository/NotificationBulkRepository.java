@@ -0,0 +1,165 @@
+package com.ureca.billing.notification.domain.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.service.RetryBackoffPolicy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notification 대량 저장 전용 Repository
+ *
+ * CrudRepository.saveAll()은 엔티티마다 INSERT/UPDATE를 1건씩 실행하므로
+ * 500건 배치 = 500번 왕복이 발생한다. 이 Repository는 다중 VALUES INSERT로
+ * 청크당 1번의 왕복만 사용한다.
+ *
+ * 저장 전략:
+ * - 신규 (notificationId == null): INSERT ... VALUES (...),(...) ON DUPLICATE KEY UPDATE
+ *   → uk_notifications_bill_type(bill_id, notification_type) 충돌 시 상태만 갱신
+ * - 재시도 (notificationId != null): PK를 포함한 INSERT ... ON DUPLICATE KEY UPDATE (Upsert)
+ *
+ * 갱신 규칙:
+ * - retry_count는 GREATEST로 병합 (Consumer의 재시도 엔티티가 0으로 덮어쓰지 않도록)
+ * - created_at은 값이 없으면 기존 값 유지
+ * - next_retry_at은 병합된 상태/retry_count로 계산 (FAILED → 지수 백오프 + Jitter, RetryBackoffPolicy)
+ *   → INSERT 값 목록/ON DUPLICATE 모두 앞에서 설정된 컬럼 값을 참조
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NotificationBulkRepository {
+
+    // 청크당 최대 행 수 (행당 11개 파라미터 → 약 5,500개 바인딩)
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_COLUMNS = """
+        INSERT INTO notifications
+          (user_id, bill_id, notification_type, notification_status, recipient, content,
+           retry_count, scheduled_at, sent_at, error_message, created_at, next_retry_at)
+        VALUES
+        """;
+
+    private static final String UPSERT_COLUMNS = """
+        INSERT INTO notifications
+          (notification_id, user_id, bill_id, notification_type, notification_status, recipient, content,
+           retry_count, scheduled_at, sent_at, error_message, created_at, next_retry_at)
+        VALUES
+        """;
+
+    // 마지막 %s = next_retry_at 식 (같은 행의 notification_status, retry_count 참조)
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, %s)";
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, %s)";
+
+    private static final String ON_DUPLICATE = """
+        ON DUPLICATE KEY UPDATE
+          notification_status = VALUES(notification_status),
+          recipient = VALUES(recipient),
+          content = VALUES(content),
+          retry_count = GREATEST(retry_count, VALUES(retry_count)),
+          scheduled_at = VALUES(scheduled_at),
+          sent_at = VALUES(sent_at),
+          error_message = VALUES(error_message),
+          created_at = COALESCE(created_at, VALUES(created_at)),
+          next_retry_at = %s
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RetryBackoffPolicy backoffPolicy;
+
+    /**
+     * 신규/재시도 Notification을 청크 단위 다중 행 쿼리로 일괄 저장
+     *
+     * @return 저장 요청된 행 수
+     */
+    public int upsertAll(Collection<Notification> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return 0;
+        }
+
+        List<Notification> inserts = new ArrayList<>();
+        List<Notification> upserts = new ArrayList<>();
+
+        for (Notification n : notifications) {
+            if (n.getNotificationId() == null) {
+                inserts.add(n);
+            } else {
+                upserts.add(n);
+            }
+        }
+
+        for (List<Notification> chunk : partition(inserts)) {
+            jdbcTemplate.update(buildSql(INSERT_COLUMNS, INSERT_ROW, chunk.size()), toInsertParams(chunk));
+        }
+
+        for (List<Notification> chunk : partition(upserts)) {
+            jdbcTemplate.update(buildSql(UPSERT_COLUMNS, UPSERT_ROW, chunk.size()), toUpsertParams(chunk));
+        }
+
+        log.debug("💾 [Bulk] Notification 저장. insert={}, upsert={}", inserts.size(), upserts.size());
+        return inserts.size() + upserts.size();
+    }
+
+    // ========================================
+    // SQL / 파라미터 Helper
+    // ========================================
+
+    private String buildSql(String head, String row, int rows) {
+        // ON DUPLICATE의 notification_status/retry_count는 위에서 갱신(병합)된 값
+        String nextRetryAt = backoffPolicy.nextRetryAtSql("notification_status", "retry_count");
+        return head + String.join(",", Collections.nCopies(rows, row.formatted(nextRetryAt)))
+                + "\n" + ON_DUPLICATE.formatted(nextRetryAt);
+    }
+
+    private Object[] toInsertParams(List<Notification> chunk) {
+        List<Object> params = new ArrayList<>(chunk.size() * 11);
+        for (Notification n : chunk) {
+            addCommonParams(params, n);
+        }
+        return params.toArray();
+    }
+
+    private Object[] toUpsertParams(List<Notification> chunk) {
+        List<Object> params = new ArrayList<>(chunk.size() * 12);
+        for (Notification n : chunk) {
+            params.add(n.getNotificationId());
+            addCommonParams(params, n);
+        }
+        return params.toArray();
+    }
+
+    private void addCommonParams(List<Object> params, Notification n) {
+        params.add(n.getUserId());
+        params.add(n.getBillId());
+        params.add(n.getNotificationType());
+        params.add(n.getNotificationStatus());
+        params.add(n.getRecipient() != null ? n.getRecipient() : "");
+        params.add(n.getContent() != null ? n.getContent() : "");
+        params.add(n.getRetryCount() != null ? n.getRetryCount() : 0);
+        params.add(toTimestamp(n.getScheduledAt()));
+        params.add(toTimestamp(n.getSentAt()));
+        params.add(n.getErrorMessage());
+        params.add(toTimestamp(n.getCreatedAt() != null ? n.getCreatedAt() : LocalDateTime.now()));
+    }
+
+    private Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private List<List<Notification>> partition(List<Notification> source) {
+        List<List<Notification>> result = new ArrayList<>();
+        for (int i = 0; i < source.size(); i += CHUNK_SIZE) {
+            result.add(source.subList(i, Math.min(i + CHUNK_SIZE, source.size())));
+        }
+        return result;
+    }
+}
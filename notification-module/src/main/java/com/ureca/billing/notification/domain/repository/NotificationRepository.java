@@ -4,23 +4,79 @@ import com.ureca.billing.notification.domain.entity.Notification;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface NotificationRepository extends CrudRepository<Notification, Long> {
     
     /**
-     * FAILED 상태이면서 재시도 가능한 메시지 조회
-     * retry_count < 3 인 메시지만 조회
+     * 재시도 대상 점유 (retry_count 하나의 keyset 페이지)
+     * - next_retry_at 도래한 FAILED 메시지를 (next_retry_at, notification_id) 순으로 :limit건
+     *   → 오래 밀린 메시지부터, 방금 실패한 메시지는 백오프 시각까지 제외
+     * - FOR UPDATE SKIP LOCKED: 여러 인스턴스가 동시에 실행해도 다른 트랜잭션이 잡은 행은 건너뜀
+     *   (호출 트랜잭션 안에서 RETRY로 바꾼 뒤 커밋하면 점유 해제)
+     * - retry_count를 등호로 고정해야 idx_notifications_retry (notification_status, retry_count, next_retry_at)
+     *   순서가 곧 정렬 순서 → filesort 없이 :limit건만 읽고 잠금
+     *   (retry_count < 3 범위 조건이면 대상 전체를 읽어 정렬하고, 읽은 행을 모두 잠금)
+     */
+    @Query("""
+        SELECT * FROM notifications
+        WHERE notification_status = 'FAILED'
+        AND retry_count = :retryCount
+        AND next_retry_at <= NOW()
+        AND (next_retry_at > :afterRetryAt
+             OR (next_retry_at = :afterRetryAt AND notification_id > :afterId))
+        ORDER BY next_retry_at ASC, notification_id ASC
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """)
+    List<Notification> claimFailedMessagesForRetry(@Param("retryCount") int retryCount,
+                                                   @Param("afterRetryAt") LocalDateTime afterRetryAt,
+                                                   @Param("afterId") long afterId,
+                                                   @Param("limit") int limit);
+
+    /**
+     * 가장 빠른 다음 재시도 시각 (없으면 null)
+     * - retry_count별 MIN은 idx_notifications_retry에서 인덱스 한 번 탐색으로 끝남
+     */
+    @Query("""
+        SELECT MIN(next_at) FROM (
+            SELECT MIN(next_retry_at) AS next_at FROM notifications
+            WHERE notification_status = 'FAILED' AND retry_count = 0
+            UNION ALL
+            SELECT MIN(next_retry_at) FROM notifications
+            WHERE notification_status = 'FAILED' AND retry_count = 1
+            UNION ALL
+            SELECT MIN(next_retry_at) FROM notifications
+            WHERE notification_status = 'FAILED' AND retry_count = 2
+        ) t
+    """)
+    LocalDateTime findNextRetryAt();
+
+    /**
+     * FAILED 상태이면서 재시도 가능한 메시지 조회 (조회용, 점유 없음)
      */
     @Query("""
         SELECT * FROM notifications
         WHERE notification_status = 'FAILED'
         AND retry_count < 3
-        ORDER BY created_at ASC
+        ORDER BY notification_id ASC
+        LIMIT :limit
     """)
-    List<Notification> findFailedMessagesForRetry();
-    
+    List<Notification> findFailedMessagesForRetry(@Param("limit") int limit);
+
+    /**
+     * 재시도 가능한 FAILED 메시지 개수
+     */
+    @Query("""
+        SELECT COUNT(*) FROM notifications
+        WHERE notification_status = 'FAILED'
+        AND retry_count < 3
+    """)
+    long countFailedMessagesForRetry();
+
     /**
      * ✅ 최대 재시도 횟수 도달한 FAILED 메시지 조회 (DLT 전송 대상)
      * retry_count >= 3 이고 아직 DLT로 안 보낸 것들
@@ -31,9 +87,37 @@ public interface NotificationRepository extends CrudRepository<Notification, Lon
         AND retry_count >= 3
         AND notification_type = 'EMAIL'
         AND (error_message IS NULL OR error_message NOT LIKE '%DLT%')
-        ORDER BY created_at ASC
+        ORDER BY notification_id ASC
+        LIMIT :limit
     """)
-    List<Notification> findMaxRetryFailedMessages();
+    List<Notification> findMaxRetryFailedMessages(@Param("limit") int limit);
+
+    /**
+     * DLT 전송 대상 점유 (findMaxRetryFailedMessages + FOR UPDATE SKIP LOCKED)
+     */
+    @Query("""
+        SELECT * FROM notifications
+        WHERE notification_status = 'FAILED'
+        AND retry_count >= 3
+        AND notification_type = 'EMAIL'
+        AND (error_message IS NULL OR error_message NOT LIKE '%DLT%')
+        ORDER BY notification_id ASC
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """)
+    List<Notification> claimMaxRetryFailedMessages(@Param("limit") int limit);
+
+    /**
+     * DLT 전송 대상 개수
+     */
+    @Query("""
+        SELECT COUNT(*) FROM notifications
+        WHERE notification_status = 'FAILED'
+        AND retry_count >= 3
+        AND notification_type = 'EMAIL'
+        AND (error_message IS NULL OR error_message NOT LIKE '%DLT%')
+    """)
+    long countMaxRetryFailedMessages();
     
     /**
      * 특정 userId와 notification_type으로 최신 Notification 조회
@@ -68,6 +152,12 @@ public interface NotificationRepository extends CrudRepository<Notification, Lon
     @Query("SELECT * FROM notifications WHERE bill_id = :billId AND notification_type = :type ORDER BY created_at DESC LIMIT 1")
     Optional<Notification> findByBillIdAndType(@Param("billId") Long billId, @Param("type") String type);
     
+    /**
+     * 여러 billId의 채널별 Notification 일괄 조회 (DLT 배치용, uk_notifications_bill_type으로 bill당 1건)
+     */
+    @Query("SELECT * FROM notifications WHERE notification_type = :type AND bill_id IN (:billIds)")
+    List<Notification> findAllByBillIdInAndType(@Param("billIds") Collection<Long> billIds, @Param("type") String type);
+    
     /**
      * ✅ billId와 notificationType으로 전체 조회 (테스트 결과 조회용)
      */
@@ -0,0 +1,144 @@
+package com.ureca.billing.notification.handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 채널별 동시 발송 수 제한기 (Non-Blocking)
+ *
+ * - 채널(EMAIL/SMS/PUSH)마다 동시에 진행 중인 발송 수를 maxInFlight로 제한
+ * - 한도 초과 시 호출 스레드를 막지 않고 대기열에 넣었다가, 앞선 발송이 끝나면 이어서 시작
+ * - 반환된 CompletableFuture는 실제 발송 완료 시점에 완료됨
+ */
+@Slf4j
+@Component
+public class ChannelConcurrencyLimiter {
+
+    private static final ThreadLocal<Boolean> DRAINING = ThreadLocal.withInitial(() -> false);
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    @Value("${notification.send.max-in-flight.email:2000}")
+    private int emailMaxInFlight;
+
+    @Value("${notification.send.max-in-flight.sms:1000}")
+    private int smsMaxInFlight;
+
+    @Value("${notification.send.max-in-flight.push:2000}")
+    private int pushMaxInFlight;
+
+    /**
+     * 채널 한도 내에서 비동기 발송 작업 실행
+     *
+     * @param channel 발송 채널
+     * @param task 발송을 시작하고 완료 Future를 반환하는 작업
+     */
+    public <T> CompletableFuture<T> submit(String channel, Supplier<CompletableFuture<T>> task) {
+        Lane lane = lanes.computeIfAbsent(channel, this::createLane);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            CompletableFuture<T> sending;
+            try {
+                sending = task.get();
+            } catch (Throwable t) {
+                sending = CompletableFuture.failedFuture(t);
+            }
+            sending.whenComplete((value, error) -> {
+                lane.inFlight.decrementAndGet();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+                drain(lane);
+            });
+        };
+
+        if (lane.tryAcquire()) {
+            start.run();
+        } else {
+            lane.pending.add(start);
+            // 큐에 넣는 사이에 슬롯이 비었을 수 있으므로 한 번 더 확인
+            drain(lane);
+        }
+        return result;
+    }
+
+    /**
+     * 채널별 진행 중/대기 중 발송 수 (모니터링용)
+     */
+    public Map<String, Map<String, Integer>> getStats() {
+        Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+        lanes.forEach((channel, lane) -> stats.put(channel, Map.of(
+                "inFlight", lane.inFlight.get(),
+                "queued", lane.pending.size(),
+                "maxInFlight", lane.maxInFlight
+        )));
+        return stats;
+    }
+
+    private void drain(Lane lane) {
+        // 동기 완료된 발송이 재귀적으로 drain을 호출해 스택이 깊어지는 것을 방지
+        if (DRAINING.get()) {
+            return;
+        }
+        DRAINING.set(true);
+        try {
+            while (!lane.pending.isEmpty() && lane.tryAcquire()) {
+                Runnable next = lane.pending.poll();
+                if (next == null) {
+                    lane.inFlight.decrementAndGet();
+                    break;
+                }
+                next.run();
+            }
+        } finally {
+            DRAINING.set(false);
+        }
+    }
+
+    private Lane createLane(String channel) {
+        int max = switch (channel) {
+            case "EMAIL" -> emailMaxInFlight;
+            case "SMS" -> smsMaxInFlight;
+            case "PUSH" -> pushMaxInFlight;
+            default -> smsMaxInFlight;
+        };
+        log.info("🚦 [Limiter] 채널 동시 발송 한도 설정. channel={}, maxInFlight={}", channel, max);
+        return new Lane(max);
+    }
+
+    private static class Lane {
+        private final int maxInFlight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+        private Lane(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= maxInFlight) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
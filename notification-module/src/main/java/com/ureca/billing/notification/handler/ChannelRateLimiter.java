@@ -0,0 +1,273 @@
+package com.ureca.billing.notification.handler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 채널별 발송 속도 제한기 (분산 Token Bucket + 로컬 Lease)
+ *
+ * - 채널(EMAIL/SMS/PUSH)마다 Redis에 Token Bucket 하나 (모든 인스턴스가 공유)
+ * - 발송마다 Redis를 호출하지 않도록 토큰을 lease-size 단위로 미리 받아 로컬에서 소비
+ * - 받은 토큰은 lease-ttl 이후 폐기 → 한 인스턴스가 오래 쥐고 있다가 몰아서 쓰지 못함
+ * - 토큰이 없으면 실패 대신 대기: 반환된 Future가 토큰 확보 시점에 완료됨 (재시도 폭주 방지)
+ * - Redis 장애 시 로컬 단독 속도 제한으로 대체
+ */
+@Slf4j
+@Component
+public class ChannelRateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:bucket:";
+
+    /**
+     * KEYS[1] = bucket key
+     * ARGV = [ratePerSec, capacity, requested]
+     * return = [granted, waitMs]
+     */
+    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local rate = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+
+            local waitMs = 0
+            if granted == 0 then
+                waitMs = math.ceil((1 - tokens) * 1000 / rate)
+            end
+            return {granted, waitMs}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${notification.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.rate-limit.email.rate-per-sec:500}")
+    private int emailRatePerSec;
+
+    @Value("${notification.rate-limit.sms.rate-per-sec:200}")
+    private int smsRatePerSec;
+
+    @Value("${notification.rate-limit.push.rate-per-sec:1000}")
+    private int pushRatePerSec;
+
+    @Value("${notification.rate-limit.burst-seconds:1}")
+    private int burstSeconds;
+
+    @Value("${notification.rate-limit.lease-size:20}")
+    private int leaseSize;
+
+    @Value("${notification.rate-limit.lease-ttl-ms:1000}")
+    private long leaseTtlMs;
+
+    public ChannelRateLimiter(StringRedisTemplate redisTemplate,
+                              @Qualifier("notificationDelayScheduler") ScheduledExecutorService scheduler) {
+        this.redisTemplate = redisTemplate;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 발송 토큰 1개 확보
+     * - 로컬 lease에 토큰이 있으면 즉시 완료 (Redis 호출 없음)
+     * - 없으면 대기열에 넣고 비동기로 lease 갱신 → 확보되는 순서대로 완료
+     */
+    public CompletableFuture<Void> acquireAsync(String channel) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(channel, this::createBucket);
+        if (bucket.waiters.isEmpty() && bucket.tryTakeLocal()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        bucket.waiters.add(waiter);
+        triggerRefill(bucket);
+        return waiter;
+    }
+
+    /**
+     * 채널별 로컬 lease / 대기 현황 (모니터링용)
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        buckets.forEach((channel, bucket) -> {
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("ratePerSec", bucket.ratePerSec);
+            stat.put("localTokens", bucket.localTokens.get());
+            stat.put("waiting", bucket.waiters.size());
+            stat.put("redisLeases", bucket.redisLeases.get());
+            stat.put("fallbackLeases", bucket.fallbackLeases.get());
+            stats.put(channel, stat);
+        });
+        return stats;
+    }
+
+    private void triggerRefill(Bucket bucket) {
+        if (bucket.refilling.compareAndSet(false, true)) {
+            scheduler.execute(() -> refill(bucket));
+        }
+    }
+
+    /**
+     * lease 갱신 + 대기자 처리 (채널당 한 번에 하나만 실행)
+     */
+    private void refill(Bucket bucket) {
+        try {
+            serveWaiters(bucket);
+            if (!bucket.waiters.isEmpty()) {
+                int requested = Math.max(leaseSize, Math.min(bucket.waiters.size(), bucket.capacity));
+                long[] lease = lease(bucket, requested);
+                if (lease[0] > 0) {
+                    bucket.grant((int) lease[0], System.currentTimeMillis() + leaseTtlMs);
+                    serveWaiters(bucket);
+                }
+
+                if (!bucket.waiters.isEmpty()) {
+                    // 버킷이 비었음 → 다음 토큰 생성 시점에 다시 시도 (refilling 유지)
+                    scheduler.schedule(() -> refill(bucket), Math.max(1L, lease[1]), TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ [RateLimit] lease 갱신 실패. channel={}, error={}", bucket.channel, e.getMessage());
+            scheduler.schedule(() -> refill(bucket), 100, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        bucket.refilling.set(false);
+        // 플래그 해제 직전에 들어온 대기자 재확인
+        if (!bucket.waiters.isEmpty()) {
+            triggerRefill(bucket);
+        }
+    }
+
+    private void serveWaiters(Bucket bucket) {
+        CompletableFuture<Void> waiter;
+        while ((waiter = bucket.waiters.peek()) != null && bucket.tryTakeLocal()) {
+            bucket.waiters.poll();
+            // 후속 발송 처리가 스케줄러 스레드를 점유하지 않도록 비동기 완료
+            waiter.completeAsync(() -> null);
+        }
+    }
+
+    /**
+     * Redis Token Bucket에서 토큰 lease
+     *
+     * @return [받은 토큰 수, 토큰이 없을 때 대기 ms]
+     */
+    @SuppressWarnings("unchecked")
+    private long[] lease(Bucket bucket, int requested) {
+        try {
+            List<Long> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+                    List.of(KEY_PREFIX + bucket.channel),
+                    String.valueOf(bucket.ratePerSec),
+                    String.valueOf(bucket.capacity),
+                    String.valueOf(requested));
+            bucket.redisLeases.incrementAndGet();
+            return new long[]{result.get(0), result.get(1)};
+        } catch (Exception e) {
+            // Redis 장애: 이 인스턴스 단독으로 채널 속도만큼만 허용
+            long now = System.currentTimeMillis();
+            long notBefore = bucket.fallbackNotBefore.get();
+            if (now < notBefore) {
+                return new long[]{0, notBefore - now};
+            }
+            bucket.fallbackNotBefore.set(now + (long) Math.ceil(requested * 1000.0 / bucket.ratePerSec));
+            bucket.fallbackLeases.incrementAndGet();
+            log.warn("⚠️ [RateLimit] Redis 사용 불가 → 로컬 속도 제한으로 대체. channel={}, error={}",
+                    bucket.channel, e.getMessage());
+            return new long[]{requested, 0};
+        }
+    }
+
+    private Bucket createBucket(String channel) {
+        int rate = switch (channel) {
+            case "EMAIL" -> emailRatePerSec;
+            case "SMS" -> smsRatePerSec;
+            case "PUSH" -> pushRatePerSec;
+            default -> smsRatePerSec;
+        };
+        int capacity = Math.max(leaseSize, rate * burstSeconds);
+        log.info("🪣 [RateLimit] 채널 속도 제한 설정. channel={}, ratePerSec={}, capacity={}, leaseSize={}",
+                channel, rate, capacity, leaseSize);
+        return new Bucket(channel, rate, capacity);
+    }
+
+    private static class Bucket {
+        private final String channel;
+        private final int ratePerSec;
+        private final int capacity;
+        private final AtomicInteger localTokens = new AtomicInteger();
+        private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final AtomicLong fallbackNotBefore = new AtomicLong();
+        private final AtomicLong redisLeases = new AtomicLong();
+        private final AtomicLong fallbackLeases = new AtomicLong();
+        private volatile long leaseExpiresAt;
+
+        private Bucket(String channel, int ratePerSec, int capacity) {
+            this.channel = channel;
+            this.ratePerSec = ratePerSec;
+            this.capacity = capacity;
+        }
+
+        private void grant(int tokens, long expiresAt) {
+            leaseExpiresAt = expiresAt;
+            localTokens.addAndGet(tokens);
+        }
+
+        private boolean tryTakeLocal() {
+            if (System.currentTimeMillis() > leaseExpiresAt) {
+                // 만료된 lease는 폐기 (다른 인스턴스 몫을 오래 점유하지 않음)
+                localTokens.set(0);
+                return false;
+            }
+            while (true) {
+                int current = localTokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (localTokens.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
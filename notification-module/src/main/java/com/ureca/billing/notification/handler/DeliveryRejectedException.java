@@ -0,0 +1,31 @@
+package com.ureca.billing.notification.handler;
+
+/**
+ * 발송 건 자체의 실패 (채널 장애 아님)
+ *
+ * - 수신 거부, 시뮬레이션 실패율 등 메시지 단위로 실패한 경우
+ * - 재시도/DLT 대상인 점은 다른 발송 실패와 같음
+ * - 채널은 정상 응답했으므로 DownstreamHealthMonitor 실패율에는 포함하지 않음
+ *   (연결 실패, 타임아웃 등 전송/인프라 예외만 채널 실패로 집계)
+ */
+public class DeliveryRejectedException extends RuntimeException {
+
+    public DeliveryRejectedException(String message) {
+        super(message);
+    }
+
+    /**
+     * 예외 체인(CompletionException, "Email send failed" 래핑 등) 안에 발송 건 실패가 있는지 확인
+     */
+    public static boolean isCause(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof DeliveryRejectedException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Email Notification Handler
@@ -27,6 +29,8 @@ import java.time.LocalDateTime;
 public class EmailNotificationHandler implements NotificationHandler {
 
     private final EmailService emailService;
+    private final ChannelConcurrencyLimiter concurrencyLimiter;
+    private final ChannelRateLimiter rateLimiter;
 
     /**
      * 기본 핸들러 (첫 시도, deliveryAttempt = 1)
@@ -63,6 +67,33 @@ public class EmailNotificationHandler implements NotificationHandler {
         }
     }
 
+    /**
+     * 비동기 발송
+     * - 채널 동시 발송 한도 내에서 시작, 지연 동안 스레드를 점유하지 않음
+     * - 채널 속도 한도 초과 시 실패하지 않고 토큰 확보까지 대기
+     * - 실패 시 동기 버전과 동일하게 "Email send failed" 예외로 완료
+     */
+    @Override
+    public CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt) {
+        return handleAsync(message, traceId, deliveryAttempt, () -> { });
+    }
+
+    @Override
+    public CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt,
+                                               Runnable onSendStart) {
+        return concurrencyLimiter.submit(getType(), () -> rateLimiter.acquireAsync(getType())
+                        .thenCompose(ignored -> {
+                            onSendStart.run();
+                            return emailService.sendEmailAsync(message, deliveryAttempt);
+                        }))
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    log.error("{} EMAIL 발송 실패 - attempt={}, error={}", traceId, deliveryAttempt, cause.getMessage());
+                    throw new CompletionException(new RuntimeException("Email send failed", cause));
+                });
+    }
+
     @Override
     public String getType() {
         return "EMAIL";
@@ -1,5 +1,7 @@
 package com.ureca.billing.notification.handler;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.ureca.billing.core.dto.BillingMessageDto;
 
 /**
@@ -29,6 +31,41 @@ public interface NotificationHandler {
         // 기본 구현: 기존 메서드 호출 (SMS, PUSH 등은 deliveryAttempt 무시)
         handle(message, traceId);
     }
+
+    /**
+     * 알림 비동기 처리
+     * - 반환된 Future는 실제 발송 완료(또는 실패) 시점에 완료됨
+     * - 호출 스레드는 발송 결과를 기다리지 않음
+     *
+     * @param message 청구 메시지
+     * @param traceId 추적 ID
+     * @param deliveryAttempt 시도 횟수 (1=첫시도, 2이상=재시도)
+     */
+    default CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt) {
+        // 기본 구현: 동기 처리 결과를 완료된 Future로 감싸서 반환
+        try {
+            handle(message, traceId, deliveryAttempt);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 알림 비동기 처리 (발송 시작 통지 포함)
+     * - onSendStart는 채널 한도(동시 발송 수/속도) 대기가 끝나 실제 발송을 시작하는 시점에 호출
+     * - 한도 대기 시간을 채널 지연에서 빼는 데 사용 (한도에서 실패하면 호출되지 않음)
+     *
+     * @param message 청구 메시지
+     * @param traceId 추적 ID
+     * @param deliveryAttempt 시도 횟수 (1=첫시도, 2이상=재시도)
+     * @param onSendStart 발송 시작 통지
+     */
+    default CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt,
+                                                Runnable onSendStart) {
+        onSendStart.run();
+        return handleAsync(message, traceId, deliveryAttempt);
+    }
     
     String getType();
 }
\ No newline at end of file
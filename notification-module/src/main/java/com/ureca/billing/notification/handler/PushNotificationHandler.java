@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Push Notification Handler
@@ -23,6 +24,8 @@ public class PushNotificationHandler implements NotificationHandler {
     
     private final DuplicateCheckHandler duplicateCheckHandler;
     private final NotificationRepository notificationRepository;
+    private final ChannelConcurrencyLimiter concurrencyLimiter;
+    private final ChannelRateLimiter rateLimiter;
     
     @Override
     @Transactional
@@ -39,6 +42,25 @@ public class PushNotificationHandler implements NotificationHandler {
         sendPush(message, traceId);
     }
     
+    /**
+     * 비동기 발송 (채널 동시 발송 한도 + 속도 한도 적용, 한도 초과 시 대기)
+     * - Mock 발송이라 즉시 완료되지만, 실제 게이트웨이 연동 시 이 지점만 비동기 호출로 교체
+     */
+    @Override
+    public CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt) {
+        return handleAsync(message, traceId, deliveryAttempt, () -> { });
+    }
+
+    @Override
+    public CompletableFuture<Void> handleAsync(BillingMessageDto message, String traceId, int deliveryAttempt,
+                                               Runnable onSendStart) {
+        return concurrencyLimiter.submit(getType(), () -> rateLimiter.acquireAsync(getType())
+                .thenCompose(ignored -> {
+                    onSendStart.run();
+                    return NotificationHandler.super.handleAsync(message, traceId, deliveryAttempt);
+                }));
+    }
+    
     @Override
     public String getType() {
         return "PUSH";
@@ -0,0 +1,381 @@
+package com.ureca.billing.notification.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notification 상태 Write-Behind Journal (Append-Only, Memory-Mapped)
+ *
+ * Consumer는 처리 결과를 이 Journal에 기록(+force)한 뒤 바로 Kafka ACK를 하고,
+ * NotificationWriteBehindFlusher가 백그라운드에서 대량으로 NOTIFICATIONS에 반영한다.
+ *
+ * 파일 구조:
+ * - segment-{seq}.log : 고정 크기 mmap 세그먼트, 레코드 = [length:4][crc32:4][body]
+ *                       length == 0 이면 세그먼트의 데이터 끝
+ * - checkpoint        : DB 반영이 끝난 위치 [segmentSeq:8][position:8]
+ * - quarantine/       : CRC/길이가 깨진 레코드가 있던 세그먼트 사본 (segment-{seq}.log.{pos}, 수동 확인용)
+ *
+ * 재시작 시 checkpoint 이후의 레코드가 다시 읽혀 DB로 재반영된다 (Upsert라 중복 반영 무해).
+ * 깨진 레코드를 만나면 세그먼트를 격리 복사하고, length 범위와 CRC가 모두 맞는 다음 레코드까지 앞으로 탐색해
+ * 깨진 레코드만 버리고 이어서 읽는다 (Flusher가 한 위치에서 멈추지 않고, 같은 세그먼트의 정상 레코드도 반영).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.write-behind.enabled", havingValue = "true")
+public class NotificationJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String QUARANTINE_DIR = "quarantine";
+    private static final int HEADER_SIZE = 8;
+
+    @Value("${notification.write-behind.journal-dir:./data/notification-journal}")
+    private String journalDir;
+
+    @Value("${notification.write-behind.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${notification.write-behind.fsync:true}")
+    private boolean fsync;
+
+    private Path dir;
+    private int segmentSize;
+
+    // Writer 상태 (append는 synchronized)
+    private MappedByteBuffer writeBuffer;
+    private volatile long writeSeq;
+    private volatile int writePos;
+
+    // Reader 상태 (Flusher 단일 스레드에서만 사용)
+    private MappedByteBuffer readBuffer;
+    private long readSeq;
+    private int readPos;
+
+    private final AtomicLong corruptRecords = new AtomicLong();
+
+    @PostConstruct
+    public void open() throws IOException {
+        this.dir = Paths.get(journalDir);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        Files.createDirectories(dir);
+
+        TreeSet<Long> segments = listSegments();
+        long[] checkpoint = readCheckpoint();
+
+        // 1. Writer 복구: 마지막 세그먼트의 데이터 끝 위치 탐색
+        if (segments.isEmpty()) {
+            writeSeq = checkpoint != null ? checkpoint[0] : 0L;
+            writeBuffer = mapSegment(writeSeq);
+            writePos = 0;
+        } else {
+            writeSeq = segments.last();
+            writeBuffer = mapSegment(writeSeq);
+            writePos = scanEnd(writeBuffer);
+        }
+
+        // 2. Reader 복구: checkpoint 위치부터 (없으면 가장 오래된 세그먼트 처음부터)
+        if (checkpoint != null) {
+            readSeq = checkpoint[0];
+            readPos = (int) checkpoint[1];
+        } else {
+            readSeq = segments.isEmpty() ? writeSeq : segments.first();
+            readPos = 0;
+        }
+        readBuffer = mapSegment(readSeq);
+
+        log.info("📒 [Journal] 오픈 완료. dir={}, writeSeq={}, writePos={}, readSeq={}, readPos={}",
+                dir.toAbsolutePath(), writeSeq, writePos, readSeq, readPos);
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            if (writeBuffer != null) {
+                writeBuffer.force();
+            }
+        }
+    }
+
+    // ========================================
+    // 1. Append (Consumer 스레드)
+    // ========================================
+
+    /**
+     * Notification 목록을 Journal에 추가하고 디스크에 강제 기록
+     * - 이 메서드가 반환된 뒤에 Kafka ACK를 해야 유실이 없다
+     */
+    public synchronized void append(Collection<Notification> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return;
+        }
+
+        try {
+            CRC32 crc = new CRC32();
+            for (Notification notification : notifications) {
+                byte[] body = NotificationJournalCodec.encode(notification);
+                if (body.length + HEADER_SIZE * 2 > segmentSize) {
+                    throw new IllegalStateException("Journal record too large: " + body.length + " bytes");
+                }
+
+                // 현재 세그먼트에 공간이 없으면 다음 세그먼트로 롤링 (끝 표시용 헤더 공간 확보)
+                if (writePos + HEADER_SIZE + body.length + HEADER_SIZE > segmentSize) {
+                    rollSegment();
+                }
+
+                crc.reset();
+                crc.update(body);
+
+                writeBuffer.position(writePos + HEADER_SIZE);
+                writeBuffer.put(body);
+                writeBuffer.putInt(writePos + 4, (int) crc.getValue());
+                // length는 마지막에 기록 → Reader는 완성된 레코드만 본다
+                writeBuffer.putInt(writePos, body.length);
+                writePos += HEADER_SIZE + body.length;
+            }
+
+            if (fsync) {
+                writeBuffer.force();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Journal append failed", e);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        writeBuffer.force();
+        long nextSeq = writeSeq + 1;
+        writeBuffer = mapSegment(nextSeq);
+        writePos = 0;
+        writeSeq = nextSeq;
+        log.debug("📒 [Journal] 세그먼트 롤링. seq={}", nextSeq);
+    }
+
+    // ========================================
+    // 2. Read / Commit (Flusher 스레드)
+    // ========================================
+
+    /**
+     * checkpoint 이후의 레코드를 최대 maxRecords개 읽기 (읽기 위치는 commit 전까지 확정되지 않음)
+     */
+    public JournalBatch read(int maxRecords) {
+        List<Notification> entries = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        long seq = readSeq;
+        int pos = readPos;
+        MappedByteBuffer buffer = readBuffer;
+
+        try {
+            while (entries.size() < maxRecords) {
+                long currentWriteSeq = writeSeq;
+                int limit = seq == currentWriteSeq ? writePos : segmentSize;
+
+                int length = pos + HEADER_SIZE <= limit ? buffer.getInt(pos) : 0;
+                // 쓰는 중인 세그먼트는 writePos까지 완성된 레코드만 있으므로 length 0은 끝 표시가 아님
+                boolean endOfData = pos + HEADER_SIZE > limit || seq < currentWriteSeq;
+                if (length <= 0 && endOfData) {
+                    if (seq < currentWriteSeq) {
+                        // 세그먼트 끝 → 다음 세그먼트
+                        seq++;
+                        pos = 0;
+                        buffer = mapSegment(seq);
+                        continue;
+                    }
+                    break;
+                }
+
+                if (!isValidRecord(buffer, pos, limit, crc)) {
+                    int next = resync(buffer, pos + 1, limit, crc);
+                    quarantine(seq, pos, next, length <= 0 || length > limit - pos - HEADER_SIZE
+                            ? "길이 " + length + " 범위 초과" : "CRC 불일치");
+                    pos = next;
+                    continue;
+                }
+
+                ByteBuffer body = buffer.duplicate();
+                body.position(pos + HEADER_SIZE).limit(pos + HEADER_SIZE + length);
+                entries.add(NotificationJournalCodec.decode(body.slice()));
+                pos += HEADER_SIZE + length;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Journal read failed", e);
+        }
+
+        return new JournalBatch(entries, seq, pos, buffer);
+    }
+
+    /**
+     * 깨진 레코드 뒤에서 length 범위와 CRC가 모두 맞는 첫 위치 탐색 (없으면 limit → 세그먼트/데이터 끝)
+     */
+    private int resync(MappedByteBuffer buffer, int from, int limit, CRC32 crc) {
+        for (int pos = from; pos + HEADER_SIZE <= limit; pos++) {
+            if (isValidRecord(buffer, pos, limit, crc)) {
+                return pos;
+            }
+        }
+        return limit;
+    }
+
+    private boolean isValidRecord(MappedByteBuffer buffer, int pos, int limit, CRC32 crc) {
+        int length = buffer.getInt(pos);
+        if (length <= 0 || length > limit - pos - HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.position(pos + HEADER_SIZE).limit(pos + HEADER_SIZE + length);
+        crc.reset();
+        crc.update(body);
+        return (int) crc.getValue() == buffer.getInt(pos + 4);
+    }
+
+    /**
+     * 깨진 레코드가 있던 세그먼트를 quarantine/에 복사 (같은 위치는 한 번만, commit 전 재시도로 다시 읽혀도 중복 집계 없음)
+     */
+    private void quarantine(long seq, int pos, int next, String cause) throws IOException {
+        Path target = dir.resolve(QUARANTINE_DIR).resolve(segmentPath(seq).getFileName() + "." + pos);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.copy(segmentPath(seq), target);
+        corruptRecords.incrementAndGet();
+        log.error("❌ [Journal] {}. seq={}, pos={} → 세그먼트를 {}로 격리하고 {}bytes 건너뛰어 pos={}부터 계속 반영",
+                cause, seq, pos, target, next - pos, next);
+    }
+
+    /**
+     * DB 반영이 끝난 배치까지 checkpoint 이동 + 지난 세그먼트 삭제
+     */
+    public void commit(JournalBatch batch) {
+        try {
+            writeCheckpoint(batch.getSegmentSeq(), batch.getPosition());
+
+            long previousSeq = readSeq;
+            readSeq = batch.getSegmentSeq();
+            readPos = batch.getPosition();
+            readBuffer = batch.getBuffer();
+
+            for (long seq = previousSeq; seq < readSeq; seq++) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Journal commit failed", e);
+        }
+    }
+
+    /**
+     * 건너뛴 깨진 레코드 수 (billing.journal.corrupt 게이지, 0이 아니면 quarantine/ 확인 필요)
+     */
+    public long getCorruptRecords() {
+        return corruptRecords.get();
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 대략적인 바이트 수 (모니터링용)
+     */
+    public long getBacklogBytes() {
+        return (writeSeq - readSeq) * (long) segmentSize + writePos - readPos;
+    }
+
+    // ========================================
+    // 파일 Helper
+    // ========================================
+
+    private MappedByteBuffer mapSegment(long seq) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 매핑은 채널을 닫아도 유지됨
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private int scanEnd(MappedByteBuffer buffer) {
+        int pos = 0;
+        CRC32 crc = new CRC32();
+        // 기록 도중 중단된 레코드(길이/CRC 불일치)를 만나면 여기서부터 덮어씀
+        while (pos + HEADER_SIZE <= segmentSize && isValidRecord(buffer, pos, segmentSize, crc)) {
+            pos += HEADER_SIZE + buffer.getInt(pos);
+        }
+        return pos;
+    }
+
+    private TreeSet<Long> listSegments() throws IOException {
+        TreeSet<Long> result = new TreeSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> result.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        return result;
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path path = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+        return new long[]{buf.getLong(), buf.getLong()};
+    }
+
+    private void writeCheckpoint(long seq, int position) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(16);
+        buf.putLong(seq).putLong(position).flip();
+
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buf);
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Journal에서 읽은 배치 + commit 시 이동할 위치
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class JournalBatch {
+        private final List<Notification> entries;
+        private final long segmentSeq;
+        private final int position;
+        private final MappedByteBuffer buffer;
+
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ureca.billing.notification.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+
+/**
+ * Journal 레코드 바이너리 인코더/디코더
+ *
+ * 레코드 본문 구조 (version 1):
+ * [version:1][notificationId][userId][billId][type][status][recipient][content]
+ * [retryCount][scheduledAt][sentAt][errorMessage][createdAt]
+ *
+ * - Long: [present:1][value:8]
+ * - String: [length:4 (-1 = null)][UTF-8 bytes]
+ * - LocalDateTime: [present:1][epochSecond:8][nano:4] (UTC 기준 LocalDateTime 변환)
+ */
+final class NotificationJournalCodec {
+
+    private static final byte VERSION = 1;
+
+    private NotificationJournalCodec() {
+    }
+
+    static byte[] encode(Notification n) {
+        byte[] type = utf8(n.getNotificationType());
+        byte[] status = utf8(n.getNotificationStatus());
+        byte[] recipient = utf8(n.getRecipient());
+        byte[] content = utf8(n.getContent());
+        byte[] error = utf8(n.getErrorMessage());
+
+        int size = 1
+                + 9 * 3
+                + stringSize(type) + stringSize(status) + stringSize(recipient) + stringSize(content)
+                + 4
+                + 13 * 2
+                + stringSize(error)
+                + 13;
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put(VERSION);
+        putLong(buf, n.getNotificationId());
+        putLong(buf, n.getUserId());
+        putLong(buf, n.getBillId());
+        putString(buf, type);
+        putString(buf, status);
+        putString(buf, recipient);
+        putString(buf, content);
+        buf.putInt(n.getRetryCount() != null ? n.getRetryCount() : 0);
+        putTime(buf, n.getScheduledAt());
+        putTime(buf, n.getSentAt());
+        putString(buf, error);
+        putTime(buf, n.getCreatedAt());
+        return buf.array();
+    }
+
+    static Notification decode(ByteBuffer buf) {
+        byte version = buf.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported journal record version: " + version);
+        }
+
+        return Notification.builder()
+                .notificationId(getLong(buf))
+                .userId(getLong(buf))
+                .billId(getLong(buf))
+                .notificationType(getString(buf))
+                .notificationStatus(getString(buf))
+                .recipient(getString(buf))
+                .content(getString(buf))
+                .retryCount(buf.getInt())
+                .scheduledAt(getTime(buf))
+                .sentAt(getTime(buf))
+                .errorMessage(getString(buf))
+                .createdAt(getTime(buf))
+                .build();
+    }
+
+    // ========================================
+    // 필드 Helper
+    // ========================================
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putLong(ByteBuffer buf, Long value) {
+        buf.put((byte) (value != null ? 1 : 0));
+        buf.putLong(value != null ? value : 0L);
+    }
+
+    private static Long getLong(ByteBuffer buf) {
+        boolean present = buf.get() == 1;
+        long value = buf.getLong();
+        return present ? value : null;
+    }
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+            return;
+        }
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(ByteBuffer buf, LocalDateTime time) {
+        buf.put((byte) (time != null ? 1 : 0));
+        buf.putLong(time != null ? time.toEpochSecond(ZoneOffset.UTC) : 0L);
+        buf.putInt(time != null ? time.getNano() : 0);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buf) {
+        boolean present = buf.get() == 1;
+        long epochSecond = buf.getLong();
+        int nano = buf.getInt();
+        return present ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ureca.billing.notification.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
+import com.ureca.billing.notification.journal.NotificationJournal.JournalBatch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal → NOTIFICATIONS 백그라운드 반영기
+ *
+ * - 주기적으로 Journal의 미반영 레코드를 대량 배치로 읽어 Bulk Upsert
+ * - 반영 성공 시에만 checkpoint 이동 (실패 시 다음 주기에 같은 위치부터 재시도)
+ * - 애플리케이션 재시작 직후 첫 주기가 곧 Journal 재생(Replay)이 된다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notification.write-behind.enabled", havingValue = "true")
+public class NotificationWriteBehindFlusher {
+
+    private final NotificationJournal journal;
+    private final NotificationBulkRepository notificationBulkRepository;
+
+    @Value("${notification.write-behind.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @Scheduled(fixedDelayString = "${notification.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        try {
+            int flushed = drain();
+            if (flushed > 0) {
+                log.info("📒 [Write-Behind] {}개 Notification DB 반영 완료. backlog={}bytes",
+                        flushed, journal.getBacklogBytes());
+            }
+        } catch (Exception e) {
+            log.error("❌ [Write-Behind] DB 반영 실패. 다음 주기에 재시도: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            int flushed = drain();
+            log.info("🛑 [Write-Behind] 종료 전 {}개 반영 완료", flushed);
+        } catch (Exception e) {
+            log.warn("⚠️ [Write-Behind] 종료 전 반영 실패. 재시작 시 Journal에서 재생됩니다: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 밀린 레코드가 없어질 때까지 배치 단위로 반영
+     */
+    private synchronized int drain() {
+        int total = 0;
+        while (true) {
+            JournalBatch batch = journal.read(maxBatchSize);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            notificationBulkRepository.upsertAll(batch.getEntries());
+            journal.commit(batch);
+            total += batch.getEntries().size();
+        }
+    }
+}
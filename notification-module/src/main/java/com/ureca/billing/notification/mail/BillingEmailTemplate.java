@@ -0,0 +1,181 @@
+package com.ureca.billing.notification.mail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+
+/**
+ * 청구서 이메일 템플릿 (사전 컴파일)
+ *
+ * - 기동 시 한 번만 템플릿을 {{placeholder}} 기준으로 고정 문자열 조각 + 값 슬롯으로 분해
+ * - 렌더링은 고정 조각과 값을 StringBuilder에 이어붙이기만 함 (String.format 파싱 비용 없음)
+ * - 금액 포맷은 NumberFormat(Thread-Unsafe) 대신 직접 천 단위 구분 처리
+ */
+@Component
+public class BillingEmailTemplate {
+
+    private static final String SUBJECT_PREFIX = "[LG U+] ";
+    private static final String SUBJECT_SUFFIX = " 청구서 도착";
+
+    private static final String HTML_TEMPLATE = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <style>
+                    body { font-family: 'Malgun Gothic', sans-serif; line-height: 1.6; color: #333; }
+                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                    .header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); 
+                              color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .content { background: #f9f9f9; padding: 30px; border: 1px solid #ddd; }
+                    .amount { font-size: 32px; font-weight: bold; color: #e91e63; margin: 20px 0; }
+                    .detail { background: white; padding: 15px; margin: 10px 0; border-radius: 5px; }
+                    .detail-row { display: flex; justify-content: space-between; padding: 8px 0; border-bottom: 1px solid #eee; }
+                    .label { color: #666; }
+                    .value { font-weight: bold; }
+                    .footer { text-align: center; padding: 20px; color: #999; font-size: 12px; }
+                    .button { display: inline-block; background: #667eea; color: white; 
+                              padding: 12px 30px; text-decoration: none; border-radius: 5px; margin-top: 20px; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>📱 LG U+ 청구서</h1>
+                        <p>{{billYearMonth}} 요금 안내</p>
+                    </div>
+                    
+                    <div class="content">
+                        <h2>청구 금액</h2>
+                        <div class="amount">{{totalAmount}}원</div>
+                        
+                        <div class="detail">
+                            <div class="detail-row">
+                                <span class="label">요금제</span>
+                                <span class="value">{{planName}}</span>
+                            </div>
+                            <div class="detail-row">
+                                <span class="label">월정액</span>
+                                <span class="value">{{planFee}}원</span>
+                            </div>
+                            <div class="detail-row">
+                                <span class="label">부가서비스</span>
+                                <span class="value">{{addonFee}}원</span>
+                            </div>
+                            <div class="detail-row">
+                                <span class="label">소액결제</span>
+                                <span class="value">{{microPaymentFee}}원</span>
+                            </div>
+                        </div>
+                        
+                        <div style="margin-top: 20px; padding: 15px; background: #fff3cd; border-left: 4px solid #ffc107; border-radius: 5px;">
+                            <strong>📅 납부 기한:</strong> {{dueDate}}
+                        </div>
+                        
+                        <div style="text-align: center;">
+                            <a href="#" class="button">상세내역 확인</a>
+                        </div>
+                    </div>
+                    
+                    <div class="footer">
+                        <p>본 메일은 발신 전용입니다.</p>
+                        <p>© 2025 LG U+. All rights reserved.</p>
+                        <p style="color: #ccc; font-size: 10px;">BillID: {{billId}} | UserID: {{userId}}</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    /** 플레이스홀더 이름 → 값 추출기 */
+    private static final Map<String, Function<BillingMessageDto, String>> RESOLVERS = new HashMap<>();
+
+    static {
+        RESOLVERS.put("billYearMonth", m -> String.valueOf(m.getBillYearMonth()));
+        RESOLVERS.put("totalAmount", m -> formatAmount(m.getTotalAmount()));
+        RESOLVERS.put("planName", m -> m.getPlanName() != null ? m.getPlanName() : "5G 프리미어");
+        RESOLVERS.put("planFee", m -> formatAmount(m.getPlanFee()));
+        RESOLVERS.put("addonFee", m -> formatAmount(m.getAddonFee()));
+        RESOLVERS.put("microPaymentFee", m -> formatAmount(m.getMicroPaymentFee()));
+        RESOLVERS.put("dueDate", m -> m.getDueDate() != null ? m.getDueDate() : "미정");
+        RESOLVERS.put("billId", m -> String.valueOf(m.getBillId()));
+        RESOLVERS.put("userId", m -> String.valueOf(m.getUserId()));
+    }
+
+    private final String[] fragments;
+    private final List<Function<BillingMessageDto, String>> slots;
+    private final int staticLength;
+
+    public BillingEmailTemplate() {
+        List<String> parsedFragments = new ArrayList<>();
+        List<Function<BillingMessageDto, String>> parsedSlots = new ArrayList<>();
+
+        int cursor = 0;
+        while (true) {
+            int open = HTML_TEMPLATE.indexOf("{{", cursor);
+            if (open < 0) {
+                parsedFragments.add(HTML_TEMPLATE.substring(cursor));
+                break;
+            }
+            int close = HTML_TEMPLATE.indexOf("}}", open);
+            String name = HTML_TEMPLATE.substring(open + 2, close);
+            Function<BillingMessageDto, String> resolver = RESOLVERS.get(name);
+            if (resolver == null) {
+                throw new IllegalStateException("Unknown email template placeholder: " + name);
+            }
+            parsedFragments.add(HTML_TEMPLATE.substring(cursor, open));
+            parsedSlots.add(resolver);
+            cursor = close + 2;
+        }
+
+        this.fragments = parsedFragments.toArray(new String[0]);
+        this.slots = List.copyOf(parsedSlots);
+        this.staticLength = parsedFragments.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * 이메일 제목
+     */
+    public String renderSubject(BillingMessageDto message) {
+        return SUBJECT_PREFIX + message.getBillYearMonth() + SUBJECT_SUFFIX;
+    }
+
+    /**
+     * 이메일 본문 (HTML)
+     */
+    public String renderBody(BillingMessageDto message) {
+        // 값 길이를 감안해 여유 있게 한 번에 할당 (재할당 방지)
+        StringBuilder html = new StringBuilder(staticLength + 256);
+        for (int i = 0; i < slots.size(); i++) {
+            html.append(fragments[i]).append(slots.get(i).apply(message));
+        }
+        return html.append(fragments[fragments.length - 1]).toString();
+    }
+
+    /**
+     * 천 단위 구분 금액 (예: 1234567 → "1,234,567")
+     */
+    static String formatAmount(Long amount) {
+        long value = amount != null ? amount : 0L;
+        String digits = Long.toString(Math.abs(value));
+        int length = digits.length();
+
+        StringBuilder formatted = new StringBuilder(length + length / 3 + 1);
+        if (value < 0) {
+            formatted.append('-');
+        }
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && (length - i) % 3 == 0) {
+                formatted.append(',');
+            }
+            formatted.append(digits.charAt(i));
+        }
+        return formatted.toString();
+    }
+}
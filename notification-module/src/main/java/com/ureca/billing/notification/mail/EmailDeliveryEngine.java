@@ -0,0 +1,225 @@
+package com.ureca.billing.notification.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.security.crypto.CryptoKeyProvider;
+import com.ureca.billing.core.security.crypto.PiiFieldCipher;
+import com.ureca.billing.notification.mail.SmtpTransportPool.PooledTransport;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이메일 발송 엔진 (배치 + 커넥션 재사용)
+ *
+ * 1. submit()은 발송 요청을 큐에 넣고 즉시 Future 반환
+ * 2. 워커(최대 = 풀 연결 수)가 큐에서 batch-size만큼 꺼내 하나의 SMTP 연결로 연속 발송
+ * 3. 연결 오류 시 남은 메시지는 큐에 되돌려 다른(새) 연결로 발송
+ *
+ * JavaMailSenderImpl이 아닌 경우(풀링 불가) 배치 단위 mailSender.send(MimeMessage...)로 대체
+ */
+@Slf4j
+@Component
+public class EmailDeliveryEngine {
+
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final BillingEmailTemplate template;
+    private final ExecutorService mailExecutor;
+    private final CryptoKeyProvider keyProvider;
+
+    private final Queue<PendingEmail> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    @Value("${notification.email.test-recipient:quokka3306@gmail.com}")
+    private String testRecipient;
+
+    /**
+     * false: 테스트용 개발자 이메일로 발송, true: 메시지의 recipientEmail(암호문)을 발송 시점에 복호화해 발송
+     */
+    @Value("${notification.email.real-recipient-enabled:false}")
+    private boolean realRecipientEnabled;
+
+    @Value("${notification.email.pool.batch-size:50}")
+    private int batchSize;
+
+    public EmailDeliveryEngine(JavaMailSender mailSender,
+                               SmtpTransportPool transportPool,
+                               BillingEmailTemplate template,
+                               @Qualifier("mailExecutor") ExecutorService mailExecutor,
+                               CryptoKeyProvider keyProvider) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.template = template;
+        this.mailExecutor = mailExecutor;
+        this.keyProvider = keyProvider;
+    }
+
+    /**
+     * 발송 요청 (실제 SMTP 전송 완료 시 Future 완료)
+     */
+    public CompletableFuture<Void> submit(BillingMessageDto message) {
+        PendingEmail email = new PendingEmail(message, new CompletableFuture<>());
+        pending.add(email);
+        ensureWorker();
+        return email.future();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 워커가 부족하면 하나 더 기동 (최대 풀 연결 수)
+     */
+    private void ensureWorker() {
+        while (!pending.isEmpty()) {
+            int current = activeWorkers.get();
+            if (current >= transportPool.getMaxConnections()) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(current, current + 1)) {
+                try {
+                    mailExecutor.execute(this::drainLoop);
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                    failPending(e);
+                }
+                return;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            List<PendingEmail> batch;
+            while (!(batch = pollBatch()).isEmpty()) {
+                if (transportPool.isPoolingSupported()) {
+                    deliverPooled(batch);
+                } else {
+                    deliverWithSender(batch);
+                }
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+        // 종료 직전 들어온 요청이 워커 없이 남지 않도록 재확인
+        ensureWorker();
+    }
+
+    private List<PendingEmail> pollBatch() {
+        List<PendingEmail> batch = new ArrayList<>(batchSize);
+        PendingEmail email;
+        while (batch.size() < batchSize && (email = pending.poll()) != null) {
+            batch.add(email);
+        }
+        return batch;
+    }
+
+    /**
+     * 하나의 연결로 배치 전체 발송
+     */
+    private void deliverPooled(List<PendingEmail> batch) {
+        PooledTransport transport;
+        try {
+            transport = transportPool.borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(email -> email.future().completeExceptionally(e));
+            return;
+        } catch (Exception e) {
+            log.warn("⚠️ [SMTP] 연결 실패. {}건 발송 실패 처리: {}", batch.size(), e.getMessage());
+            batch.forEach(email -> email.future().completeExceptionally(e));
+            return;
+        }
+
+        boolean broken = false;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEmail email = batch.get(i);
+            try {
+                transport.send(createMimeMessage(email.message()));
+                email.future().complete(null);
+            } catch (Exception e) {
+                email.future().completeExceptionally(e);
+                if (!transport.isConnected()) {
+                    // 연결이 끊겼으면 남은 메시지는 큐로 되돌려 새 연결로 발송
+                    broken = true;
+                    pending.addAll(batch.subList(i + 1, batch.size()));
+                    break;
+                }
+            }
+        }
+        transportPool.release(transport, broken);
+    }
+
+    private void deliverWithSender(List<PendingEmail> batch) {
+        List<PendingEmail> built = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (PendingEmail email : batch) {
+            try {
+                messages.add(createMimeMessage(email.message()));
+                built.add(email);
+            } catch (Exception e) {
+                email.future().completeExceptionally(e);
+            }
+        }
+
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            built.forEach(email -> email.future().complete(null));
+        } catch (Exception e) {
+            built.forEach(email -> email.future().completeExceptionally(e));
+        }
+    }
+
+    private MimeMessage createMimeMessage(BillingMessageDto message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setTo(resolveRecipient(message));
+        helper.setSubject(template.renderSubject(message));
+        helper.setText(template.renderBody(message), true);
+        return mimeMessage;
+    }
+
+    /**
+     * 수신자 결정 (PII 복호화는 실제 MimeMessage를 만드는 이 시점에만 수행)
+     * - 복호화 실패는 해당 메시지 발송 실패로 전파 (암호문 주소로 발송하지 않음)
+     */
+    private String resolveRecipient(BillingMessageDto message) {
+        if (!realRecipientEnabled || message.getRecipientEmail() == null) {
+            return testRecipient;
+        }
+        try {
+            return PiiFieldCipher.decrypt(message.getRecipientEmail(), keyProvider.getCurrentKey());
+        } catch (IllegalStateException e) {
+            log.error("🔓 [SMTP] 수신자 복호화 실패. billId={}, error={}", message.getBillId(), e.getMessage());
+            throw e;
+        }
+    }
+
+    private void failPending(Exception cause) {
+        PendingEmail email;
+        while ((email = pending.poll()) != null) {
+            email.future().completeExceptionally(cause);
+        }
+    }
+
+    private record PendingEmail(BillingMessageDto message, CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,241 @@
+package com.ureca.billing.notification.mail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SMTP Transport 커넥션 풀
+ *
+ * - JavaMailSender.send()는 호출마다 SMTP 세션(연결 + EHLO + STARTTLS + AUTH)을 새로 맺음
+ * - 연결된 Transport를 재사용해 세션 수립 비용을 메시지 수백 건에 나눠 부담
+ * - 연결당 최대 메시지 수 / 유휴 시간 초과 시 교체 (서버측 세션 제한 대응)
+ * - 연결별 발송 건수, 사용 시간 기반 msgs/sec 통계 제공
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${notification.email.pool.max-connections:4}")
+    private int maxConnections;
+
+    @Value("${notification.email.pool.max-messages-per-connection:500}")
+    private int maxMessagesPerConnection;
+
+    @Value("${notification.email.pool.max-idle-ms:30000}")
+    private long maxIdleMs;
+
+    private final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+    private final Map<Integer, PooledTransport> active = new ConcurrentHashMap<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger connectionSequence = new AtomicInteger();
+
+    // 교체(종료)된 연결의 누적 통계
+    private final AtomicLong retiredMessages = new AtomicLong();
+    private final AtomicLong retiredBusyNanos = new AtomicLong();
+    private final AtomicInteger retiredConnections = new AtomicInteger();
+
+    /**
+     * Transport 풀링 가능 여부 (JavaMailSenderImpl일 때만 세션/접속 정보 접근 가능)
+     */
+    public boolean isPoolingSupported() {
+        return mailSender instanceof JavaMailSenderImpl;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * 연결된 Transport 대여
+     * - 유휴 연결 재사용 → 없으면 한도 내에서 새로 연결 → 한도 초과 시 반납 대기
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        while (true) {
+            PooledTransport pooled = idle.poll();
+            if (pooled != null) {
+                if (pooled.isReusable()) {
+                    return pooled;
+                }
+                retire(pooled);
+                continue;
+            }
+
+            int current = opened.get();
+            if (current < maxConnections) {
+                if (opened.compareAndSet(current, current + 1)) {
+                    try {
+                        return connect();
+                    } catch (MessagingException | RuntimeException e) {
+                        opened.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+
+            pooled = idle.poll(maxIdleMs, TimeUnit.MILLISECONDS);
+            if (pooled != null) {
+                if (pooled.isReusable()) {
+                    return pooled;
+                }
+                retire(pooled);
+            }
+        }
+    }
+
+    /**
+     * Transport 반납
+     *
+     * @param broken 발송 중 연결 오류 발생 여부 (true면 재사용하지 않고 종료)
+     */
+    public void release(PooledTransport pooled, boolean broken) {
+        pooled.lastUsedAt = System.currentTimeMillis();
+        if (broken || !pooled.isReusable()) {
+            retire(pooled);
+            return;
+        }
+        idle.add(pooled);
+    }
+
+    /**
+     * 연결별 통계 (활성 연결 + 종료된 연결 누적)
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> connections = new ArrayList<>();
+        active.values().forEach(pooled -> {
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("connectionId", pooled.id);
+            stat.put("messagesSent", pooled.messagesSent);
+            stat.put("busyMs", TimeUnit.NANOSECONDS.toMillis(pooled.busyNanos));
+            stat.put("messagesPerSec", messagesPerSec(pooled.messagesSent, pooled.busyNanos));
+            connections.add(stat);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolingSupported", isPoolingSupported());
+        stats.put("maxConnections", maxConnections);
+        stats.put("openConnections", opened.get());
+        stats.put("idleConnections", idle.size());
+        stats.put("connections", connections);
+        stats.put("retiredConnections", retiredConnections.get());
+        stats.put("retiredMessagesSent", retiredMessages.get());
+        stats.put("retiredMessagesPerSec", messagesPerSec(retiredMessages.get(), retiredBusyNanos.get()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            retire(pooled);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        Transport transport = sender.getSession().getTransport(
+                sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if (username == null || username.isBlank()) {
+            username = null;
+            password = null;
+        }
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+
+        PooledTransport pooled = new PooledTransport(connectionSequence.incrementAndGet(), transport);
+        active.put(pooled.id, pooled);
+        log.info("📮 [SMTP Pool] 연결 생성. connectionId={}, open={}/{}", pooled.id, opened.get(), maxConnections);
+        return pooled;
+    }
+
+    private void retire(PooledTransport pooled) {
+        if (active.remove(pooled.id) == null) {
+            return;
+        }
+        opened.decrementAndGet();
+        retiredConnections.incrementAndGet();
+        retiredMessages.addAndGet(pooled.messagesSent);
+        retiredBusyNanos.addAndGet(pooled.busyNanos);
+
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("SMTP 연결 종료 중 오류 무시: {}", e.getMessage());
+        }
+        log.info("📪 [SMTP Pool] 연결 종료. connectionId={}, sent={}, {} msgs/sec",
+                pooled.id, pooled.messagesSent, messagesPerSec(pooled.messagesSent, pooled.busyNanos));
+    }
+
+    private static double messagesPerSec(long messages, long busyNanos) {
+        if (busyNanos <= 0) {
+            return 0.0;
+        }
+        return Math.round(messages * 1_000_000_000.0 / busyNanos * 10) / 10.0;
+    }
+
+    /**
+     * 풀에서 대여된 SMTP 연결 (한 번에 하나의 워커만 사용)
+     */
+    public class PooledTransport {
+        private final int id;
+        private final Transport transport;
+        private final long connectedAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = connectedAt;
+        private volatile long messagesSent;
+        private volatile long busyNanos;
+
+        private PooledTransport(int id, Transport transport) {
+            this.id = id;
+            this.transport = transport;
+        }
+
+        /**
+         * 열린 세션으로 메시지 발송 (세션 재수립 없음)
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            long start = System.nanoTime();
+            try {
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                messagesSent++;
+            } finally {
+                busyNanos += System.nanoTime() - start;
+            }
+        }
+
+        public boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        private boolean isReusable() {
+            return messagesSent < maxMessagesPerConnection
+                    && System.currentTimeMillis() - lastUsedAt < maxIdleMs
+                    && transport.isConnected();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ureca.billing.notification.profiling;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * billing-event 처리 구간별 경량 프로파일러
+ *
+ * - 구간마다 LongAdder(호출 수/누적 시간) + HdrHistogram Recorder(분포) 기록
+ *   LongAdder는 스레드별 셀로 분산, Recorder는 wait-free 기록이라 처리 스레드 간 경합 없음
+ * - 런타임 on/off (/api/profiling/enable) → 꺼져 있으면 start()가 0을 반환하고 stop()은 즉시 반환
+ *   (비용: volatile 읽기 1회)
+ * - Micrometer Timer(PipelineMetrics)는 장기 추이, 이 프로파일러는 튜닝 전후 구간 비용 비교용
+ *
+ * 사용: long t = profiler.start(); ... profiler.stop(Stage.DEDUP, t);
+ */
+@Component
+public class StageProfiler {
+
+    public enum Stage {
+        DECRYPT,
+        PARSE,
+        DEDUP,
+        PREF_LOOKUP,
+        SEND,
+        ENTITY_BUILD
+    }
+
+    /** 1µs ~ 1시간, 유효숫자 2자리 */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<Stage, StageRecorder> recorders = new EnumMap<>(Stage.class);
+
+    private volatile boolean enabled;
+    private volatile long enabledAt;
+
+    public StageProfiler(@Value("${notification.profiling.enabled:false}") boolean enabled) {
+        for (Stage stage : Stage.values()) {
+            recorders.put(stage, new StageRecorder());
+        }
+        this.enabled = enabled;
+        this.enabledAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return 시작 시각(ns), 꺼져 있으면 0
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void stop(Stage stage, long startNanos) {
+        if (startNanos == 0L) {
+            return;
+        }
+        recorders.get(stage).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 구간 기록 후 다음 구간 시작 시각 반환 (연속 구간 측정용)
+     */
+    public long lap(Stage stage, long startNanos) {
+        if (startNanos == 0L) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        recorders.get(stage).record(now - startNanos);
+        return now;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 켤 때마다 이전 기록을 비우고 새로 집계
+     */
+    public synchronized void enable() {
+        if (!enabled) {
+            reset();
+            enabled = true;
+        }
+    }
+
+    public synchronized void disable() {
+        enabled = false;
+    }
+
+    public synchronized void reset() {
+        recorders.values().forEach(StageRecorder::reset);
+        enabledAt = System.currentTimeMillis();
+    }
+
+    public synchronized List<StageSnapshot> snapshot() {
+        List<StageSnapshot> result = new ArrayList<>(recorders.size());
+        recorders.forEach((stage, recorder) -> result.add(recorder.snapshot(stage)));
+        return result;
+    }
+
+    public long getSinceMillis() {
+        return enabledAt;
+    }
+
+    private static final class StageRecorder {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        /** 지금까지의 누적 분포 (snapshot 시 Recorder 구간 분포를 합침) */
+        private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            recorder.recordValue(Math.min(Math.max(1, elapsedNanos), HIGHEST_TRACKABLE_NANOS));
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            recorder.reset();
+            accumulated.reset();
+        }
+
+        StageSnapshot snapshot(Stage stage) {
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.add(interval);
+
+            long calls = count.sum();
+            return StageSnapshot.builder()
+                    .stage(stage.name())
+                    .count(calls)
+                    .totalMs(TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()))
+                    .meanUs(calls == 0 ? 0 : totalNanos.sum() / calls / 1000)
+                    .p50Us(accumulated.getValueAtPercentile(50) / 1000)
+                    .p99Us(accumulated.getValueAtPercentile(99) / 1000)
+                    .p999Us(accumulated.getValueAtPercentile(99.9) / 1000)
+                    .maxUs(accumulated.getMaxValue() / 1000)
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class StageSnapshot {
+        private final String stage;
+        private final long count;
+        private final long totalMs;
+        private final long meanUs;
+        private final long p50Us;
+        private final long p99Us;
+        private final long p999Us;
+        private final long maxUs;
+    }
+}
@@ -1,41 +1,96 @@
 package com.ureca.billing.notification.scheduler;
 
 import com.ureca.billing.notification.service.RetryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시도 스케줄러 (next_retry_at 기반 자기 예약)
+ *
+ * - 고정 cron 대신, 처리 후 가장 빠른 next_retry_at까지 대기했다가 정확히 그 시각에 깨어남
+ * - 한 배치를 가득 채웠으면(밀린 재시도 있음) 대기 없이 바로 다음 배치
+ * - 대기는 max-idle-ms로 상한 (다른 인스턴스/새 실패로 더 이른 재시도가 생겨도 그 안에 반영)
+ * - 여러 인스턴스가 동시에 돌아도 RetryService의 SKIP LOCKED 점유로 중복 없음
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RetryScheduler {
     
     private final RetryService retryService;
-    
-    /**
-     * 매 5분마다 FAILED 메시지 재시도
-     */
-    @Scheduled(cron = "0 */5 * * * *")  // 매 5분마다
-    public void retryFailedMessages() {
-        log.info("🔄 [RETRY SCHEDULER] Starting retry process...");
-        
-        int retryCount = retryService.retryFailedMessages(100);  // 최대 100개
-        
-        log.info("🎯 [RETRY SCHEDULER] Completed. retried={}", retryCount);
+
+    @Value("${notification.retry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.retry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.retry.min-delay-ms:1000}")
+    private long minDelayMs;
+
+    @Value("${notification.retry.max-idle-ms:30000}")
+    private long maxIdleMs;
+
+    private final ScheduledExecutorService retryThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("⏸️ [RETRY SCHEDULER] disabled");
+            return;
+        }
+        scheduleNext(maxIdleMs);
     }
-    
+
+    @PreDestroy
+    public void shutdown() {
+        retryThread.shutdownNow();
+    }
+
     /**
-     * 테스트용: 매 1분마다 실행
+     * 도래한 재시도를 배치로 처리하고 다음 실행 시각 예약
      */
-    @Scheduled(cron = "0 * * * * *")  // 매 1분
-    public void retryFailedMessagesEveryMinute() {
-        log.info("🧪 [TEST RETRY SCHEDULER] Running test retry scheduler...");
-        
-        int retryCount = retryService.retryFailedMessages(10);  // 최대 10개
-        
-        if (retryCount > 0) {
-            log.info("🎯 [TEST RETRY SCHEDULER] Retried {} messages", retryCount);
+    void runCycle() {
+        long delayMs;
+        try {
+            int retried = retryService.retryFailedMessages(batchSize);
+            if (retried > 0) {
+                log.info("🎯 [RETRY SCHEDULER] retried={}", retried);
+            }
+            delayMs = retried >= batchSize ? 0 : untilNextRetry();
+        } catch (Exception e) {
+            log.error("❌ [RETRY SCHEDULER] 재시도 처리 실패. error={}", e.getMessage());
+            delayMs = maxIdleMs;
+        }
+        scheduleNext(delayMs);
+    }
+
+    private long untilNextRetry() {
+        LocalDateTime next = retryService.nextRetryAt();
+        if (next == null) {
+            return maxIdleMs;
+        }
+        long delayMs = Duration.between(LocalDateTime.now(), next).toMillis();
+        return Math.min(maxIdleMs, Math.max(minDelayMs, delayMs));
+    }
+
+    private void scheduleNext(long delayMs) {
+        if (!retryThread.isShutdown()) {
+            retryThread.schedule(this::runCycle, delayMs, TimeUnit.MILLISECONDS);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.ureca.billing.notification.scheduler.wheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (in-process)
+ *
+ * - level 0: tickMs × wheelSize 범위를 tick 단위 bucket으로 관리
+ * - 상위 level은 하위 level 한 바퀴를 1 tick으로 사용 (필요할 때만 생성)
+ * - 상위 bucket 시각이 되면 항목을 다시 배치 → 점점 하위 level로 내려와 정확한 tick에 만료
+ * - 등록/만료 모두 O(1), 예약 건수와 무관하게 tick마다 bucket 하나씩만 처리
+ *
+ * 스레드 모델: add()는 아무 스레드에서나 호출 가능 (inbox 큐), advance()는 단일 구동 스레드에서만 호출
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private final Queue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private long currentTimeMs;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs must be > 0 and wheelSize > 1");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+        this.levels.add(new Level<>(tickMs, wheelSize));
+    }
+
+    /**
+     * 만료 시각(epoch ms)에 항목 등록
+     */
+    public void add(long expirationMs, T item) {
+        inbox.add(new Entry<>(expirationMs, item));
+        size.incrementAndGet();
+    }
+
+    /**
+     * 시계를 nowMs까지 진행하고 만료된 항목을 순서대로 전달
+     *
+     * @return 만료된 항목 수
+     */
+    public int advance(long nowMs, Consumer<T> expired) {
+        int[] count = {0};
+        Consumer<T> counting = item -> {
+            count[0]++;
+            size.decrementAndGet();
+            expired.accept(item);
+        };
+
+        drainInbox(counting);
+
+        while (currentTimeMs + tickMs <= nowMs) {
+            currentTimeMs += tickMs;
+            // 상위 level부터 현재 시각의 bucket을 비워 재배치 (하위 level 또는 즉시 만료)
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level<T> level = levels.get(i);
+                if (currentTimeMs % level.tickMs == 0) {
+                    List<Entry<T>> bucket = level.takeBucket(currentTimeMs);
+                    if (bucket != null) {
+                        bucket.forEach(entry -> place(entry, counting));
+                    }
+                }
+            }
+            drainInbox(counting);
+        }
+        return count[0];
+    }
+
+    /**
+     * 휠에 남아있는 모든 항목 제거 후 반환 (종료 시 반납용)
+     */
+    public List<T> drainAll() {
+        List<T> remaining = new ArrayList<>(size.get());
+        Entry<T> entry;
+        while ((entry = inbox.poll()) != null) {
+            remaining.add(entry.item);
+        }
+        for (Level<T> level : levels) {
+            level.drainTo(remaining);
+        }
+        size.set(0);
+        return remaining;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getCurrentTimeMs() {
+        return currentTimeMs;
+    }
+
+    private void drainInbox(Consumer<T> expired) {
+        Entry<T> entry;
+        while ((entry = inbox.poll()) != null) {
+            place(entry, expired);
+        }
+    }
+
+    private void place(Entry<T> entry, Consumer<T> expired) {
+        long delta = entry.expirationMs - currentTimeMs;
+        if (delta < tickMs) {
+            expired.accept(entry.item);
+            return;
+        }
+        int index = 0;
+        while (true) {
+            Level<T> level = levelAt(index);
+            if (delta < level.intervalMs) {
+                level.add(entry);
+                return;
+            }
+            index++;
+        }
+    }
+
+    private Level<T> levelAt(int index) {
+        while (levels.size() <= index) {
+            Level<T> top = levels.get(levels.size() - 1);
+            levels.add(new Level<>(top.intervalMs, wheelSize));
+        }
+        return levels.get(index);
+    }
+
+    private record Entry<T>(long expirationMs, T item) {}
+
+    private static class Level<T> {
+        private final long tickMs;
+        private final long intervalMs;
+        private final List<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMs, int wheelSize) {
+            this.tickMs = tickMs;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new List[wheelSize];
+        }
+
+        private void add(Entry<T> entry) {
+            int index = (int) ((entry.expirationMs / tickMs) % buckets.length);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+        }
+
+        private List<Entry<T>> takeBucket(long timeMs) {
+            int index = (int) ((timeMs / tickMs) % buckets.length);
+            List<Entry<T>> bucket = buckets[index];
+            buckets[index] = null;
+            return bucket;
+        }
+
+        private void drainTo(List<T> target) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != null) {
+                    buckets[i].forEach(entry -> target.add(entry.item));
+                    buckets[i] = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.ureca.billing.notification.scheduler.wheel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.notification.service.KafkaBatchPublisher;
+import com.ureca.billing.notification.service.MessagePolicyService;
+import com.ureca.billing.notification.service.ScheduledQueueService;
+import com.ureca.billing.notification.service.ScheduledQueueService.ScheduledMessage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 예약 발송 타이밍 휠
+ *
+ * 동작:
+ * 1. preload: lookahead 이내에 도래할 예약을 Redis ZSET에서 원자적으로 꺼내 휠에 등록
+ *    (호출당 preload-batch 1회만 꺼냄 → 여러 인스턴스가 preload 주기마다 번갈아 한 배치씩 가져가 분산,
+ *     한 인스턴스가 lookahead 구간 전체를 선점하지 않음)
+ * 2. ticker 스레드: tick마다 휠을 진행시켜 예약 시각이 된 메시지를 발행 큐로 이동
+ * 3. publisher 스레드: 발행 큐를 배치 단위로 Kafka에 일괄 발행 → 성공분 ACK, 실패분 requeue
+ *
+ * 내구성:
+ * - 꺼낸 메시지는 Redis inflight(score = 예약 시각)에 남아 있어 인스턴스 장애 시 recoverStale로 복구
+ * - 정상 종료 시 휠에 남은 메시지는 원래 예약 시각으로 반납
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduledDeliveryWheel {
+
+    private static final String TOPIC = "billing-event";
+
+    private final ScheduledQueueService scheduledQueueService;
+    private final KafkaBatchPublisher kafkaBatchPublisher;
+    private final MessagePolicyService policyService;
+
+    @Value("${notification.scheduled-queue.wheel.tick-ms:10}")
+    private long tickMs;
+
+    @Value("${notification.scheduled-queue.wheel.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${notification.scheduled-queue.wheel.lookahead-seconds:5}")
+    private long lookaheadSeconds;
+
+    @Value("${notification.scheduled-queue.wheel.preload-batch:5000}")
+    private int preloadBatch;
+
+    @Value("${notification.scheduled-queue.wheel.max-pending:200000}")
+    private int maxPending;
+
+    @Value("${notification.scheduled-queue.wheel.publish-batch:5000}")
+    private int publishBatch;
+
+    private final BlockingQueue<ScheduledMessage> fired = new LinkedBlockingQueue<>();
+    private final AtomicLong loadedCount = new AtomicLong();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong releasedCount = new AtomicLong();
+
+    private HierarchicalTimingWheel<ScheduledMessage> wheel;
+    private Thread ticker;
+    private Thread publisher;
+    private volatile boolean running;
+    private volatile long lastFireDelayMs;
+
+    @PostConstruct
+    public void start() {
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        running = true;
+
+        ticker = new Thread(this::tickLoop, "scheduled-wheel-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+
+        publisher = new Thread(this::publishLoop, "scheduled-wheel-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+
+        log.info("🎡 [WHEEL] Started. tick={}ms, wheelSize={}, lookahead={}s, maxPending={}",
+                tickMs, wheelSize, lookaheadSeconds, maxPending);
+    }
+
+    /**
+     * 곧 도래할 예약을 휠로 미리 가져오기
+     * - 호출당 최대 preload-batch건 (max-pending은 메모리 상한으로만 사용)
+     * - 밀린 예약이 많아도 다음 주기에 다른 인스턴스가 이어서 가져감
+     *
+     * @return 이번에 가져온 건수
+     */
+    public int preload() {
+        if (!running || policyService.isBlockTime()) {
+            return 0;
+        }
+
+        int capacity = maxPending - pendingCount();
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        long until = System.currentTimeMillis() / 1000 + lookaheadSeconds;
+        List<ScheduledMessage> batch = scheduledQueueService.popDue(until, Math.min(preloadBatch, capacity));
+        for (ScheduledMessage message : batch) {
+            wheel.add(message.scheduledAtEpochSecond() * 1000, message);
+        }
+        int loaded = batch.size();
+
+        if (loaded > 0) {
+            loadedCount.addAndGet(loaded);
+            log.debug("🎡 [WHEEL] Preloaded {} scheduled message(s). pending={}", loaded, pendingCount());
+        }
+        return loaded;
+    }
+
+    public int pendingCount() {
+        return wheel.size() + fired.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("inWheel", wheel.size());
+        stats.put("awaitingPublish", fired.size());
+        stats.put("loaded", loadedCount.get());
+        stats.put("published", publishedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("released", releasedCount.get());
+        stats.put("lastFireDelayMs", lastFireDelayMs);
+        return stats;
+    }
+
+    private void tickLoop() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                wheel.advance(now, message -> {
+                    lastFireDelayMs = now - message.scheduledAtEpochSecond() * 1000;
+                    fired.add(message);
+                });
+            } catch (Exception e) {
+                log.error("❌ [WHEEL] Tick failed. error={}", e.getMessage(), e);
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private void publishLoop() {
+        List<ScheduledMessage> batch = new ArrayList<>(publishBatch);
+        while (running) {
+            try {
+                ScheduledMessage first = fired.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fired.drainTo(batch, publishBatch - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ [WHEEL] Publish failed. size={}, error={}", batch.size(), e.getMessage(), e);
+                failedCount.addAndGet(scheduledQueueService.requeue(
+                        batch.stream().map(ScheduledMessage::memberId).toList()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(List<ScheduledMessage> batch) {
+        // 금지 시간대 → 원래 예약 시각으로 반납 (금지 시간 해제 후 preload에서 다시 가져감)
+        if (policyService.isBlockTime()) {
+            releasedCount.addAndGet(scheduledQueueService.release(batch));
+            return;
+        }
+
+        boolean[] succeeded = kafkaBatchPublisher.publishAll(TOPIC,
+                batch.stream().map(ScheduledMessage::payload).toList());
+
+        List<String> published = new ArrayList<>(batch.size());
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            (succeeded[i] ? published : failed).add(batch.get(i).memberId());
+        }
+
+        scheduledQueueService.acknowledge(published);
+        publishedCount.addAndGet(published.size());
+        if (!failed.isEmpty()) {
+            scheduledQueueService.requeue(failed);
+            failedCount.addAndGet(failed.size());
+            log.error("❌ [WHEEL] Failed to publish {} message(s) → requeued", failed.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        ticker.join(TimeUnit.SECONDS.toMillis(5));
+        publisher.join(TimeUnit.SECONDS.toMillis(30));
+
+        // 아직 발행되지 않은 메시지는 원래 예약 시각으로 반납 → 다른 인스턴스가 이어서 처리
+        List<ScheduledMessage> remaining = new ArrayList<>(wheel.drainAll());
+        fired.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            int released = scheduledQueueService.release(remaining);
+            log.info("🎡 [WHEEL] Released {} pending scheduled message(s) on shutdown", released);
+        }
+    }
+}
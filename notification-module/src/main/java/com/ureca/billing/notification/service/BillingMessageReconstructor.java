@@ -0,0 +1,134 @@
+package com.ureca.billing.notification.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.domain.entity.Notification;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 재시도/DLT 메시지 일괄 재구성
+ *
+ * 이전에는 Notification마다 SUM(bill_details) + bills 조회 (+ DLT는 users 조회)를 실행해
+ * 100건 배치 = 200~300번 왕복이 발생했다.
+ * 배치의 bill_id를 모아 청크당 1번의 쿼리로 합계/청구일/납부기한/전화번호 암호문을 함께 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BillingMessageReconstructor {
+
+    // IN 절 최대 크기 (청크당 bill_id 파라미터 2회 바인딩)
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String NOT_AVAILABLE = "N/A";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 재시도용 메시지 재구성 (recipientPhone 없음)
+     *
+     * @return notificationId → BillingMessageDto
+     */
+    public Map<Long, BillingMessageDto> reconstructForRetry(Collection<Notification> notifications) {
+        return reconstruct(notifications, false);
+    }
+
+    /**
+     * DLT용 메시지 재구성 (SMS Fallback을 위해 recipientPhone, notificationType=EMAIL 포함)
+     *
+     * @return notificationId → BillingMessageDto
+     */
+    public Map<Long, BillingMessageDto> reconstructForDlt(Collection<Notification> notifications) {
+        return reconstruct(notifications, true);
+    }
+
+    private Map<Long, BillingMessageDto> reconstruct(Collection<Notification> notifications, boolean forDlt) {
+        if (notifications == null || notifications.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        LinkedHashSet<Long> billIds = new LinkedHashSet<>();
+        for (Notification n : notifications) {
+            if (n.getBillId() != null) {
+                billIds.add(n.getBillId());
+            }
+        }
+        Map<Long, BillInfo> billInfos = loadBillInfos(new ArrayList<>(billIds));
+
+        Map<Long, BillingMessageDto> messages = new HashMap<>(notifications.size() * 2);
+        for (Notification n : notifications) {
+            BillInfo info = billInfos.getOrDefault(n.getBillId(), BillInfo.EMPTY);
+            messages.put(n.getNotificationId(), BillingMessageDto.builder()
+                    .billId(n.getBillId())
+                    .userId(n.getUserId())
+                    .recipientEmail(n.getRecipient())
+                    .recipientPhone(forDlt ? info.phoneCipher() : null)
+                    .totalAmount(info.totalAmount())
+                    .billYearMonth(info.billingMonth())
+                    .billDate(info.billDate())
+                    .dueDate(info.dueDate())
+                    .notificationType(forDlt ? "EMAIL" : null)
+                    .build());
+        }
+        return messages;
+    }
+
+    private Map<Long, BillInfo> loadBillInfos(List<Long> billIds) {
+        Map<Long, BillInfo> result = new HashMap<>(billIds.size() * 2);
+
+        for (int from = 0; from < billIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = billIds.subList(from, Math.min(from + CHUNK_SIZE, billIds.size()));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+            Object[] params = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                params[i] = chunk.get(i);
+                params[chunk.size() + i] = chunk.get(i);
+            }
+
+            jdbcTemplate.query("""
+                    SELECT b.bill_id, b.billing_month,
+                           DATE_FORMAT(b.bill_issue_date, '%Y-%m-%d') AS bill_date,
+                           DATE_FORMAT(DATE_ADD(b.bill_issue_date, INTERVAL 15 DAY), '%Y-%m-%d') AS due_date,
+                           u.phone_cipher,
+                           COALESCE(d.total_amount, 0) AS total_amount
+                    FROM bills b
+                    JOIN users u ON u.user_id = b.user_id
+                    LEFT JOIN (
+                        SELECT bill_id, SUM(amount) AS total_amount
+                        FROM bill_details
+                        WHERE bill_id IN ({in})
+                        GROUP BY bill_id
+                    ) d ON d.bill_id = b.bill_id
+                    WHERE b.bill_id IN ({in})
+                    """.replace("{in}", in),
+                    (RowCallbackHandler) rs -> result.put(rs.getLong("bill_id"), new BillInfo(
+                            rs.getLong("total_amount"),
+                            orNotAvailable(rs.getString("billing_month")),
+                            orNotAvailable(rs.getString("bill_date")),
+                            orNotAvailable(rs.getString("due_date")),
+                            rs.getString("phone_cipher"))),
+                    params);
+        }
+        return result;
+    }
+
+    private static String orNotAvailable(String value) {
+        return value != null ? value : NOT_AVAILABLE;
+    }
+
+    private record BillInfo(long totalAmount, String billingMonth, String billDate, String dueDate, String phoneCipher) {
+        static final BillInfo EMPTY = new BillInfo(0L, NOT_AVAILABLE, NOT_AVAILABLE, NOT_AVAILABLE, null);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ureca.billing.notification.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consumer Lag 조회 (billing-event / notification-group)
+ *
+ * - 파티션별 (최신 offset - 커밋된 offset) 합계
+ * - 드레인 루프가 배치마다 호출하므로 check-interval 동안 결과를 캐시
+ * - 조회 실패 시 -1 (알 수 없음) → 호출자는 목표 속도 그대로 진행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagMonitor {
+
+    private static final String TOPIC = "billing-event";
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    @Value("${notification.waiting-queue.drain.consumer-group:notification-group}")
+    private String consumerGroup;
+
+    @Value("${notification.waiting-queue.drain.lag-check-interval-ms:2000}")
+    private long checkIntervalMs;
+
+    private volatile AdminClient adminClient;
+    private volatile long cachedLag = -1;
+    private volatile long checkedAt = 0;
+
+    public long getLag() {
+        long now = System.currentTimeMillis();
+        if (now - checkedAt < checkIntervalMs) {
+            return cachedLag;
+        }
+        cachedLag = fetchLag();
+        checkedAt = now;
+        return cachedLag;
+    }
+
+    private long fetchLag() {
+        try {
+            AdminClient admin = admin();
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(consumerGroup)
+                    .partitionsToOffsetAndMetadata()
+                    .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            Map<TopicPartition, OffsetSpec> request = committed.keySet().stream()
+                    .filter(tp -> TOPIC.equals(tp.topic()))
+                    .collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest()));
+            if (request.isEmpty()) {
+                return 0;
+            }
+
+            Map<TopicPartition, ListOffsetsResultInfo> latest = admin.listOffsets(request)
+                    .all()
+                    .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            long lag = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResultInfo> entry : latest.entrySet()) {
+                OffsetAndMetadata offset = committed.get(entry.getKey());
+                if (offset != null) {
+                    lag += Math.max(0, entry.getValue().offset() - offset.offset());
+                }
+            }
+            return lag;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            log.warn("⚠️ [Lag] Consumer lag 조회 실패. group={}, error={}", consumerGroup, e.getMessage());
+            return -1;
+        }
+    }
+
+    private AdminClient admin() {
+        if (adminClient == null) {
+            synchronized (this) {
+                if (adminClient == null) {
+                    adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                }
+            }
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.ureca.billing.notification.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 하위 의존성(MySQL, Redis, 발송 채널) 상태 기반 수신 조절 신호
+ *
+ * - 의존성별 최근 window-seconds 구간의 호출 수/실패 수/평균 지연을 초 단위 bucket으로 집계
+ * - Hikari 풀의 커넥션 대기 스레드 수를 MySQL 신호로 함께 사용
+ * - 가장 나쁜 의존성 기준으로 단계 결정
+ *   HEALTHY  : 정상 수신
+ *   DEGRADED : 평균 지연 > 기준 또는 실패율 > error-rate → 배치를 degraded-admission 비율로 나눠 처리
+ *   CRITICAL : 평균 지연 > 기준 × 2 또는 실패율 > error-rate × 2 → billing-event 수신 일시 정지
+ *              (받아둔 배치의 미처리분은 nack으로 되돌림, critical-pause-ms)
+ * - 나빠지는 쪽은 즉시, 좋아지는 쪽은 recover-ms 동안 유지된 뒤 반영 (pause/resume 반복 방지)
+ * - 표본이 min-samples 미만이면 판단 근거 없음 → 정상으로 간주
+ *   (정지 중에는 표본이 쌓이지 않으므로 window가 지나면 재개되어 자연스럽게 상태를 다시 확인)
+ * - 배치 루프가 메시지마다 호출하므로 단계는 check-interval-ms 동안 캐시
+ */
+@Slf4j
+@Component
+public class DownstreamHealthMonitor {
+
+    public static final String MYSQL = "MYSQL";
+    public static final String REDIS = "REDIS";
+
+    public enum Level { HEALTHY, DEGRADED, CRITICAL }
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final HikariDataSource hikariDataSource;
+    private volatile HikariPoolMXBean hikariPool;
+
+    @Value("${notification.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.backpressure.check-interval-ms:500}")
+    private long checkIntervalMs;
+
+    @Value("${notification.backpressure.window-seconds:10}")
+    private int windowSeconds;
+
+    @Value("${notification.backpressure.min-samples:20}")
+    private int minSamples;
+
+    @Value("${notification.backpressure.error-rate:0.2}")
+    private double errorRateThreshold;
+
+    @Value("${notification.backpressure.recover-ms:5000}")
+    private long recoverMs;
+
+    @Value("${notification.backpressure.degraded-admission:0.25}")
+    private double degradedAdmission;
+
+    @Value("${notification.backpressure.critical-pause-ms:1000}")
+    private long criticalPauseMs;
+
+    @Value("${notification.backpressure.hikari-awaiting-threshold:10}")
+    private int hikariAwaitingThreshold;
+
+    @Value("${notification.backpressure.latency-ms.mysql:500}")
+    private long mysqlLatencyMs;
+
+    @Value("${notification.backpressure.latency-ms.redis:50}")
+    private long redisLatencyMs;
+
+    @Value("${notification.backpressure.latency-ms.email:5000}")
+    private long emailLatencyMs;
+
+    @Value("${notification.backpressure.latency-ms.sms:5000}")
+    private long smsLatencyMs;
+
+    @Value("${notification.backpressure.latency-ms.push:5000}")
+    private long pushLatencyMs;
+
+    private volatile Level level = Level.HEALTHY;
+    private volatile String reason = "";
+    private volatile long checkedAt = 0;
+    private volatile long lastWorseAt = 0;
+
+    public DownstreamHealthMonitor(ObjectProvider<DataSource> dataSourceProvider) {
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        this.hikariDataSource = dataSource instanceof HikariDataSource hikari ? hikari : null;
+    }
+
+    /**
+     * 호출 1건 기록
+     */
+    public void record(String dependency, long latencyMs, boolean error) {
+        if (!enabled || dependency == null) {
+            return;
+        }
+        windows.computeIfAbsent(dependency, d -> new Window(windowSeconds))
+                .add(System.currentTimeMillis() / 1000, latencyMs, error);
+    }
+
+    /**
+     * 호출 실행 + 지연/실패 기록 (예외는 그대로 전파)
+     */
+    public <T> T measure(String dependency, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            T result = call.get();
+            error = false;
+            return result;
+        } finally {
+            record(dependency, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), error);
+        }
+    }
+
+    public Level level() {
+        if (!enabled) {
+            return Level.HEALTHY;
+        }
+        long now = System.currentTimeMillis();
+        if (now - checkedAt >= checkIntervalMs) {
+            synchronized (this) {
+                if (now - checkedAt >= checkIntervalMs) {
+                    evaluate(now);
+                    checkedAt = now;
+                }
+            }
+        }
+        return level;
+    }
+
+    /**
+     * 수신 허용 비율 (HEALTHY 1.0 / DEGRADED degraded-admission / CRITICAL 0)
+     */
+    public double admissionFactor() {
+        return switch (level()) {
+            case HEALTHY -> 1.0;
+            case DEGRADED -> degradedAdmission;
+            case CRITICAL -> 0.0;
+        };
+    }
+
+    public long criticalPauseMs() {
+        return criticalPauseMs;
+    }
+
+    public String reason() {
+        return reason;
+    }
+
+    private void evaluate(long now) {
+        long nowSec = now / 1000;
+        Level computed = Level.HEALTHY;
+        String cause = "";
+
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            long[] stats = entry.getValue().snapshot(nowSec);
+            long count = stats[0];
+            if (count < minSamples) {
+                continue;
+            }
+            double errorRate = (double) stats[1] / count;
+            long avgLatencyMs = stats[2] / count;
+            long latencyThreshold = latencyThresholdOf(entry.getKey());
+
+            Level dependencyLevel = Level.HEALTHY;
+            if (avgLatencyMs > latencyThreshold * 2 || errorRate > errorRateThreshold * 2) {
+                dependencyLevel = Level.CRITICAL;
+            } else if (avgLatencyMs > latencyThreshold || errorRate > errorRateThreshold) {
+                dependencyLevel = Level.DEGRADED;
+            }
+            if (dependencyLevel.compareTo(computed) > 0) {
+                computed = dependencyLevel;
+                cause = String.format("%s avg=%dms errorRate=%.2f samples=%d",
+                        entry.getKey(), avgLatencyMs, errorRate, count);
+            }
+        }
+
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            int awaiting = pool.getThreadsAwaitingConnection();
+            Level poolLevel = awaiting >= hikariAwaitingThreshold * 2 ? Level.CRITICAL
+                    : awaiting >= hikariAwaitingThreshold ? Level.DEGRADED
+                    : Level.HEALTHY;
+            if (poolLevel.compareTo(computed) > 0) {
+                computed = poolLevel;
+                cause = String.format("HIKARI awaiting=%d active=%d", awaiting, pool.getActiveConnections());
+            }
+        }
+
+        Level current = level;
+        if (computed.compareTo(current) >= 0) {
+            if (computed != Level.HEALTHY) {
+                lastWorseAt = now;
+            }
+        } else if (now - lastWorseAt < recoverMs) {
+            // 회복은 recover-ms 동안 유지된 뒤에만 반영
+            return;
+        }
+
+        if (computed != current) {
+            log.warn("⚠️ [Backpressure] 하위 의존성 상태 변경: {} → {} ({})",
+                    current, computed, computed == Level.HEALTHY ? "회복" : cause);
+            level = computed;
+        }
+        reason = cause;
+    }
+
+    /**
+     * 풀은 첫 커넥션 요청 시 시작되므로 그 전에는 MXBean이 null → 평가 시점마다 다시 확인
+     */
+    private HikariPoolMXBean hikariPool() {
+        if (hikariPool == null && hikariDataSource != null) {
+            hikariPool = hikariDataSource.getHikariPoolMXBean();
+        }
+        return hikariPool;
+    }
+
+    private long latencyThresholdOf(String dependency) {
+        return switch (dependency) {
+            case MYSQL -> mysqlLatencyMs;
+            case REDIS -> redisLatencyMs;
+            case "SMS" -> smsLatencyMs;
+            case "PUSH" -> pushLatencyMs;
+            default -> emailLatencyMs;
+        };
+    }
+
+    /**
+     * 초 단위 bucket 링 (bucket마다 호출 수/실패 수/지연 합계)
+     */
+    private static final class Window {
+
+        private final long[] epochs;
+        private final long[] counts;
+        private final long[] errors;
+        private final long[] latencySums;
+
+        Window(int seconds) {
+            int size = Math.max(1, seconds);
+            this.epochs = new long[size];
+            this.counts = new long[size];
+            this.errors = new long[size];
+            this.latencySums = new long[size];
+        }
+
+        synchronized void add(long nowSec, long latencyMs, boolean error) {
+            int i = (int) (nowSec % epochs.length);
+            if (epochs[i] != nowSec) {
+                epochs[i] = nowSec;
+                counts[i] = 0;
+                errors[i] = 0;
+                latencySums[i] = 0;
+            }
+            counts[i]++;
+            latencySums[i] += latencyMs;
+            if (error) {
+                errors[i]++;
+            }
+        }
+
+        /**
+         * @return {호출 수, 실패 수, 지연 합계(ms)}
+         */
+        synchronized long[] snapshot(long nowSec) {
+            long count = 0;
+            long errorCount = 0;
+            long latencySum = 0;
+            for (int i = 0; i < epochs.length; i++) {
+                if (nowSec - epochs[i] < epochs.length) {
+                    count += counts[i];
+                    errorCount += errors[i];
+                    latencySum += latencySums[i];
+                }
+            }
+            return new long[] {count, errorCount, latencySum};
+        }
+    }
+}
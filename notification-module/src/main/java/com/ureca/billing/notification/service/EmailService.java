@@ -1,25 +1,29 @@
 package com.ureca.billing.notification.service;
 
 import com.ureca.billing.core.dto.BillingMessageDto;  // ✅ core-module의 DTO 사용
-import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
+import com.ureca.billing.notification.handler.DeliveryRejectedException;
+import com.ureca.billing.notification.mail.EmailDeliveryEngine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.text.NumberFormat;
-import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class EmailService {
     
     private final Random random = new Random();
-    private final JavaMailSender mailSender;
+    private final EmailDeliveryEngine deliveryEngine;
+    private final ScheduledExecutorService delayScheduler;
+    
+    @Value("${notification.email.latency-ms:1000}")
+    private long latencyMs;              // SMTP 응답 지연 시뮬레이션 (기본 1초)
     
     @Value("${notification.email.enabled:false}")
     private boolean realEmailEnabled;
@@ -33,6 +37,12 @@ public class EmailService {
     @Value("${notification.email.retry-failure-rate:30}")
     private int retryFailureRate;    // 재시도 실패율 (기본 30%)
     
+    public EmailService(EmailDeliveryEngine deliveryEngine,
+                        @Qualifier("notificationDelayScheduler") ScheduledExecutorService delayScheduler) {
+        this.deliveryEngine = deliveryEngine;
+        this.delayScheduler = delayScheduler;
+    }
+    
     /**
      * 이메일 발송
      * - 1초 지연
@@ -48,14 +58,14 @@ public class EmailService {
 //                message.getRecipientEmail(), message.getBillId());
         
         // 1초 지연 (네트워크 지연 시뮬레이션)
-        Thread.sleep(1000);
+        Thread.sleep(latencyMs);
         
         // 시도 횟수에 따른 실패율 적용
         int failureRate = (deliveryAttempt == 1) ? initialFailureRate : retryFailureRate;
         if (random.nextInt(100) < failureRate) {
             log.error("❌ [의도적 실패] 시도 {}회, 실패율 {}%, billId={}",
             		deliveryAttempt, failureRate, message.getBillId());
-            throw new RuntimeException(String.format(
+            throw new DeliveryRejectedException(String.format(
                 "Email send failed (attempt=%d, failureRate=%d%%, SMTP error simulation)", 
                 deliveryAttempt, failureRate));
         }
@@ -63,7 +73,7 @@ public class EmailService {
         // 실제 이메일 발송
         if (realEmailEnabled) {
             try {
-                sendRealEmail(message);
+                deliveryEngine.submit(message).join();
                 log.info("📬 Real email sent to: {}", testRecipient);
             } catch (Exception e) {
                 log.warn("⚠️ Real email send failed: {}", e.getMessage());
@@ -76,104 +86,49 @@ public class EmailService {
     }
     
     /**
-     * 실제 이메일 발송
-     */
-    private void sendRealEmail(BillingMessageDto message) throws Exception {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-        
-        // 수신자: 테스트용 개발자 이메일
-        helper.setTo(testRecipient);
-        helper.setSubject(String.format("[LG U+] %s 청구서 도착", message.getBillYearMonth()));
-        helper.setText(createEmailBody(message), true);
-        
-        mailSender.send(mimeMessage);
-    }
-    
-    /**
-     * 이메일 본문 생성 (HTML)
+     * 이메일 비동기 발송
+     * - 지연은 스케줄러로 처리 → 발송 대기 중 스레드를 점유하지 않음
+     * - 실패율은 sendEmail과 동일하게 적용 (실패 시 Future가 예외로 완료)
+     * - 실제 이메일 발송(설정 시)은 EmailDeliveryEngine이 풀링된 SMTP 연결로 배치 처리
+     *
+     * @param message 발송 메시지
+     * @param deliveryAttempt 시도 횟수 (1=첫시도, 2이상=재시도)
      */
-    private String createEmailBody(BillingMessageDto message) {
-        NumberFormat currencyFormat = NumberFormat.getInstance(Locale.KOREA);
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: 'Malgun Gothic', sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); 
-                              color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f9f9f9; padding: 30px; border: 1px solid #ddd; }
-                    .amount { font-size: 32px; font-weight: bold; color: #e91e63; margin: 20px 0; }
-                    .detail { background: white; padding: 15px; margin: 10px 0; border-radius: 5px; }
-                    .detail-row { display: flex; justify-content: space-between; padding: 8px 0; border-bottom: 1px solid #eee; }
-                    .label { color: #666; }
-                    .value { font-weight: bold; }
-                    .footer { text-align: center; padding: 20px; color: #999; font-size: 12px; }
-                    .button { display: inline-block; background: #667eea; color: white; 
-                              padding: 12px 30px; text-decoration: none; border-radius: 5px; margin-top: 20px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>📱 LG U+ 청구서</h1>
-                        <p>%s 요금 안내</p>
-                    </div>
-                    
-                    <div class="content">
-                        <h2>청구 금액</h2>
-                        <div class="amount">%s원</div>
-                        
-                        <div class="detail">
-                            <div class="detail-row">
-                                <span class="label">요금제</span>
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="detail-row">
-                                <span class="label">월정액</span>
-                                <span class="value">%s원</span>
-                            </div>
-                            <div class="detail-row">
-                                <span class="label">부가서비스</span>
-                                <span class="value">%s원</span>
-                            </div>
-                            <div class="detail-row">
-                                <span class="label">소액결제</span>
-                                <span class="value">%s원</span>
-                            </div>
-                        </div>
-                        
-                        <div style="margin-top: 20px; padding: 15px; background: #fff3cd; border-left: 4px solid #ffc107; border-radius: 5px;">
-                            <strong>📅 납부 기한:</strong> %s
-                        </div>
-                        
-                        <div style="text-align: center;">
-                            <a href="#" class="button">상세내역 확인</a>
-                        </div>
-                    </div>
-                    
-                    <div class="footer">
-                        <p>본 메일은 발신 전용입니다.</p>
-                        <p>© 2025 LG U+. All rights reserved.</p>
-                        <p style="color: #ccc; font-size: 10px;">BillID: %d | UserID: %d</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            message.getBillYearMonth(),
-            currencyFormat.format(message.getTotalAmount()),
-            message.getPlanName() != null ? message.getPlanName() : "5G 프리미어",
-            currencyFormat.format(message.getPlanFee() != null ? message.getPlanFee() : 0),
-            currencyFormat.format(message.getAddonFee() != null ? message.getAddonFee() : 0),
-            currencyFormat.format(message.getMicroPaymentFee() != null ? message.getMicroPaymentFee() : 0),
-            message.getDueDate() != null ? message.getDueDate() : "미정",
-            message.getBillId(),
-            message.getUserId()
-        );
+    public CompletableFuture<Void> sendEmailAsync(BillingMessageDto message, int deliveryAttempt) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        try {
+            delayScheduler.schedule(() -> {
+                int failureRate = (deliveryAttempt == 1) ? initialFailureRate : retryFailureRate;
+                if (ThreadLocalRandom.current().nextInt(100) < failureRate) {
+                    log.error("❌ [의도적 실패] 시도 {}회, 실패율 {}%, billId={}",
+                            deliveryAttempt, failureRate, message.getBillId());
+                    result.completeExceptionally(new DeliveryRejectedException(String.format(
+                            "Email send failed (attempt=%d, failureRate=%d%%, SMTP error simulation)",
+                            deliveryAttempt, failureRate)));
+                    return;
+                }
+
+                if (!realEmailEnabled) {
+                    result.complete(null);
+                    return;
+                }
+
+                // 실제 이메일 발송 (실패는 시뮬레이션 결과에 영향 주지 않음)
+                deliveryEngine.submit(message).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("⚠️ Real email send failed: {}", error.getMessage());
+                    } else {
+                        log.debug("📬 Real email sent to: {}", testRecipient);
+                    }
+                    result.complete(null);
+                });
+            }, latencyMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 종료 중 스케줄러 거부 등
+            result.completeExceptionally(e);
+        }
+
+        return result;
     }
-}
\ No newline at end of file
+}
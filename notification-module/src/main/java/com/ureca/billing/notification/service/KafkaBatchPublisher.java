@@ -0,0 +1,68 @@
+package com.ureca.billing.notification.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kafka 일괄 발행
+ *
+ * - 메시지마다 send 결과를 기다리지 않고 전부 전송 요청 → Producer가 내부 배치로 묶어 전송
+ * - 마지막에 한 번만 전체 ACK를 기다림 (allOf)
+ * - 메시지별 성공 여부를 돌려줘서 호출자가 성공분만 정리(ACK)하고 실패분은 되돌릴 수 있게 함
+ * - 대기열/예약 큐에 저장된 평문(BillingMessageCodec)을 변환 없이 byte[]로 발행 (헤더 billing-encoding=plain)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaBatchPublisher {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Value("${notification.publish.timeout-ms:30000}")
+    private long timeoutMs;
+
+    /**
+     * @return 메시지별 발행 성공 여부 (payloads와 같은 순서)
+     */
+    public boolean[] publishAll(String topic, List<byte[]> payloads) {
+        boolean[] succeeded = new boolean[payloads.size()];
+        List<CompletableFuture<?>> futures = new ArrayList<>(payloads.size());
+
+        for (int i = 0; i < payloads.size(); i++) {
+            int index = i;
+            try {
+                ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, payloads.get(i));
+                record.headers().add(BillingMessageHeaders.ENCODING, BillingMessageHeaders.ENCODING_PLAIN_BYTES);
+                futures.add(kafkaTemplate.send(record)
+                        .thenRun(() -> succeeded[index] = true));
+            } catch (Exception e) {
+                log.error("❌ [Publish] send 요청 실패. topic={}, error={}", topic, e.getMessage());
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 일부 실패/타임아웃 → 성공한 것만 true로 남음
+            log.warn("⚠️ [Publish] 일부 메시지 발행 실패. topic={}, error={}", topic, e.getMessage());
+        }
+
+        // 타임아웃 이후 늦게 완료된 결과가 반영되지 않도록 스냅샷 반환
+        return succeeded.clone();
+    }
+}
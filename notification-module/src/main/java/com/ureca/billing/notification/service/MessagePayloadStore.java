@@ -0,0 +1,296 @@
+package com.ureca.billing.notification.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.dto.codec.BillingMessageCodec;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메시지 본문 저장소 (대기열/예약 큐가 각자의 HASH 키로 사용)
+ *
+ * Redis 구조 (키는 큐가 정해서 넘김):
+ * - <payload> : HASH, 메시지 ID(billId:CHANNEL) → 본문
+ * - <refs>    : HASH, 메시지 ID → 본문을 참조 중인 큐 항목 수
+ *
+ * - 대기열은 shard마다 queue:waiting:{s<N>}:payload(+ :refs)를 둬서 큐 스크립트가 한 slot 안에서만 동작
+ *   (Redis Cluster CROSSSLOT 방지, 단일 HASH hot key 방지)
+ * - 큐에는 메시지 ID만 저장하고, 본문은 큐의 payload HASH에 한 번만 저장
+ * - 큐 항목이 추가될 때 retain, ACK/취소로 빠질 때 release → 참조가 0이 되면 본문 삭제
+ * - 큐 스크립트가 같은 Lua 안에서 참조를 조정할 수 있도록 LUA_FUNCTIONS를 제공
+ * - 신규 본문은 BillingMessageCodec BINARY 형식으로 저장 (첫 바이트 0x01)
+ * - 이전 버전이 저장한 JSON/gzip 본문도 남아있을 수 있음 (gzip은 앞 2바이트 0x1f 0x8b, JSON은 항상 '{'로 시작)
+ * - 조회 시 세 형식 모두 판별해서 디코딩
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessagePayloadStore {
+
+    /** 큐별 HASH 도입 전 공용 저장소 (배포 전 적재분 이관용) */
+    public static final String SHARED_PAYLOAD_KEY = "payload:billing";
+    public static final String SHARED_REFS_KEY = "payload:billing:refs";
+
+    /**
+     * 큐 Lua 스크립트 앞에 붙여서 사용하는 참조 관리 함수
+     * - retain_payload: 본문 저장 (added가 true일 때만 참조 +1)
+     * - release_payload: 참조 -1, 0 이하가 되면 본문 삭제
+     */
+    public static final String LUA_FUNCTIONS = """
+            local function retain_payload(payloadKey, refsKey, id, payload, added)
+                redis.call('HSET', payloadKey, id, payload)
+                if added then
+                    redis.call('HINCRBY', refsKey, id, 1)
+                end
+            end
+            local function release_payload(payloadKey, refsKey, id)
+                if redis.call('HINCRBY', refsKey, id, -1) <= 0 then
+                    redis.call('HDEL', payloadKey, id)
+                    redis.call('HDEL', refsKey, id)
+                end
+            end
+            """;
+
+    /**
+     * 공용 저장소 본문을 큐 HASH로 이관 (큐 HASH에 이미 참조가 있는 ID는 건너뜀)
+     * KEYS = [payload, refs], ARGV = [id, 본문, 참조 수, ...]
+     */
+    private static final DefaultRedisScript<Long> ADOPT_SCRIPT = new DefaultRedisScript<>("""
+            local adopted = 0
+            for i = 1, #ARGV, 3 do
+                if redis.call('HEXISTS', KEYS[2], ARGV[i]) == 0 then
+                    redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[i + 1])
+                    redis.call('HINCRBY', KEYS[2], ARGV[i], tonumber(ARGV[i + 2]))
+                    adopted = adopted + 1
+                end
+            end
+            return adopted
+            """, Long.class);
+
+    /**
+     * Lua 인자 직렬화: byte[]는 그대로, 나머지는 UTF-8 문자열
+     */
+    public static final RedisSerializer<Object> SCRIPT_ARGS = new RedisSerializer<>() {
+        @Override
+        public byte[] serialize(Object value) {
+            return value instanceof byte[] raw ? raw : String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    private static final int ADOPT_BATCH = 500;
+
+    private static final byte GZIP_MAGIC_1 = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_2 = (byte) 0x8b;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 저장용 인코딩 (BINARY, 필드명이 없어 gzip 없이도 JSON보다 작음)
+     */
+    public byte[] encode(BillingMessageDto message) {
+        return BillingMessageCodec.encode(message);
+    }
+
+    /**
+     * 저장된 본문 → 발행용 평문 bytes (BINARY는 그대로, gzip은 해제, JSON은 그대로)
+     * - Consumer가 format byte로 판별하므로 JSON 변환 없이 그대로 Kafka value로 사용
+     */
+    public byte[] toMessageBytes(byte[] stored) {
+        if (stored == null || stored.length < 2 || stored[0] != GZIP_MAGIC_1 || stored[1] != GZIP_MAGIC_2) {
+            return stored;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress payload", e);
+        }
+    }
+
+    /**
+     * 저장된 본문 → JSON (모니터링/조회 API용)
+     */
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (BillingMessageCodec.isBinary(stored)) {
+            return BillingMessageCodec.toJson(BillingMessageCodec.decode(stored));
+        }
+        return new String(toMessageBytes(stored), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 저장된 본문 → DTO (JSON 문자열을 거치지 않고 bytes에서 바로 디코딩)
+     *
+     * @return 본문이 없거나 손상된 경우 null
+     */
+    public BillingMessageDto decodeMessage(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        try {
+            return BillingMessageCodec.decode(toMessageBytes(stored));
+        } catch (RuntimeException e) {
+            log.error("❌ [PayloadStore] Failed to decode payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public String get(String payloadKey, String messageId) {
+        return decode(getRaw(payloadKey, messageId));
+    }
+
+    public BillingMessageDto getMessage(String payloadKey, String messageId) {
+        return decodeMessage(getRaw(payloadKey, messageId));
+    }
+
+    /**
+     * 여러 메시지 본문 조회 (요청 순서 유지, 없는 ID는 null)
+     */
+    public List<String> multiGet(String payloadKey, List<String> messageIds) {
+        return multiGetRaw(payloadKey, messageIds).stream().map(this::decode).toList();
+    }
+
+    /**
+     * 여러 메시지 조회 (요청 순서 유지, 없는 ID는 null)
+     */
+    public List<BillingMessageDto> multiGetMessages(String payloadKey, List<String> messageIds) {
+        List<byte[]> stored = multiGetRaw(payloadKey, messageIds);
+        List<BillingMessageDto> result = new ArrayList<>(stored.size());
+        for (byte[] raw : stored) {
+            result.add(decodeMessage(raw));
+        }
+        return result;
+    }
+
+    private byte[] getRaw(String payloadKey, String messageId) {
+        return redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bytes(payloadKey), bytes(messageId)));
+    }
+
+    private List<byte[]> multiGetRaw(String payloadKey, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> stored = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(bytes(payloadKey),
+                        messageIds.stream().map(MessagePayloadStore::bytes).toArray(byte[][]::new)));
+
+        List<byte[]> result = new ArrayList<>(messageIds.size());
+        for (int i = 0; i < messageIds.size(); i++) {
+            result.add(stored != null && i < stored.size() ? stored.get(i) : null);
+        }
+        return result;
+    }
+
+    /**
+     * 공용 저장소(payload:billing)에 이관할 본문이 남아있는지 (모두 이관되면 키가 사라짐)
+     */
+    public boolean hasSharedPayloads() {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(SHARED_PAYLOAD_KEY));
+    }
+
+    /**
+     * 공용 저장소(payload:billing)에 남은 본문을 큐 HASH로 이관
+     * - occurrences: 큐에 남아있는 메시지 ID → 큐 항목 수 (큐 HASH의 참조 수가 됨)
+     * - 큐 HASH로 옮긴 만큼 공용 저장소 참조를 해제하고, 0이 되면 공용 본문 삭제
+     * - 큐 HASH 쓰기는 같은 slot 키만 쓰는 Lua, 공용 저장소 정리는 단일 키 명령으로 나눠서 실행
+     *
+     * @return 이관한 건수
+     */
+    public long adoptShared(String payloadKey, String refsKey, Map<String, Integer> occurrences) {
+        if (occurrences.isEmpty()) {
+            return 0;
+        }
+
+        long adopted = 0;
+        List<String> ids = new ArrayList<>(occurrences.keySet());
+        for (int from = 0; from < ids.size(); from += ADOPT_BATCH) {
+            List<String> batch = ids.subList(from, Math.min(from + ADOPT_BATCH, ids.size()));
+            List<byte[]> stored = multiGetRaw(SHARED_PAYLOAD_KEY, batch);
+
+            List<Object> args = new ArrayList<>(batch.size() * 3);
+            List<String> found = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (stored.get(i) != null) {
+                    args.add(batch.get(i));
+                    args.add(stored.get(i));
+                    args.add(String.valueOf(occurrences.get(batch.get(i))));
+                    found.add(batch.get(i));
+                }
+            }
+            if (found.isEmpty()) {
+                continue;
+            }
+
+            Long count = redisTemplate.execute(ADOPT_SCRIPT, SCRIPT_ARGS, null, List.of(payloadKey, refsKey), args.toArray());
+            adopted += count != null ? count : 0;
+            releaseShared(found, occurrences);
+        }
+
+        log.info("🔀 [PayloadStore] Adopted {} payload(s) from {} into {}", adopted, SHARED_PAYLOAD_KEY, payloadKey);
+        return adopted;
+    }
+
+    private void releaseShared(List<String> ids, Map<String, Integer> occurrences) {
+        List<Object> remaining = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String id : ids) {
+                connection.hashCommands().hIncrBy(bytes(SHARED_REFS_KEY), bytes(id), -occurrences.get(id));
+            }
+            return null;
+        });
+
+        List<String> released = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object refs = remaining.get(i);
+            if (!(refs instanceof Long count) || count <= 0) {
+                released.add(ids.get(i));
+            }
+        }
+        if (!released.isEmpty()) {
+            Object[] fields = released.toArray();
+            redisTemplate.opsForHash().delete(SHARED_PAYLOAD_KEY, fields);
+            redisTemplate.opsForHash().delete(SHARED_REFS_KEY, fields);
+        }
+    }
+
+    /**
+     * 본문 저장소 통계 (payloadKeys = 큐가 쓰는 payload HASH 목록, shard별로 합산)
+     */
+    public Map<String, Object> getStats(List<String> payloadKeys) {
+        List<Object> sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            payloadKeys.forEach(key -> connection.hashCommands().hLen(bytes(key)));
+            return null;
+        });
+        long count = sizes.stream().mapToLong(size -> size != null ? (Long) size : 0L).sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("payloads", count);
+        return stats;
+    }
+
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
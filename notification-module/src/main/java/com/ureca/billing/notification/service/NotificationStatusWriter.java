@@ -0,0 +1,63 @@
+package com.ureca.billing.notification.service;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
+import com.ureca.billing.notification.journal.NotificationJournal;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notification 상태 저장 진입점
+ *
+ * - Write-Behind 활성화 (notification.write-behind.enabled=true):
+ *   Journal에 기록 후 즉시 반환 → DB 반영은 NotificationWriteBehindFlusher가 비동기 처리
+ * - 비활성화 (기본): Bulk Upsert로 동기 저장
+ */
+@Slf4j
+@Service
+public class NotificationStatusWriter {
+
+    private final NotificationBulkRepository notificationBulkRepository;
+    private final NotificationJournal journal;
+    private final DownstreamHealthMonitor healthMonitor;
+    private final PipelineMetrics metrics;
+
+    public NotificationStatusWriter(NotificationBulkRepository notificationBulkRepository,
+                                    ObjectProvider<NotificationJournal> journalProvider,
+                                    DownstreamHealthMonitor healthMonitor,
+                                    PipelineMetrics metrics) {
+        this.notificationBulkRepository = notificationBulkRepository;
+        this.journal = journalProvider.getIfAvailable();
+        this.healthMonitor = healthMonitor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 처리 결과 저장 (반환 시점에 유실되지 않음이 보장됨 → Kafka ACK 가능)
+     */
+    public void write(Collection<Notification> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (journal != null) {
+            journal.append(notifications);
+            metrics.recordPersist(System.nanoTime() - start, true);
+            return;
+        }
+
+        // 동기 저장 지연/실패는 수신 조절 신호(MySQL)로 사용
+        healthMonitor.measure(DownstreamHealthMonitor.MYSQL, () -> notificationBulkRepository.upsertAll(notifications));
+        metrics.recordPersist(System.nanoTime() - start, false);
+    }
+
+    public boolean isWriteBehind() {
+        return journal != null;
+    }
+}
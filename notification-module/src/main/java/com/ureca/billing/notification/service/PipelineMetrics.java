@@ -0,0 +1,93 @@
+package com.ureca.billing.notification.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.metrics.BillingMetrics;
+import com.ureca.billing.notification.journal.NotificationJournal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * billing-event 소비 구간별 지표 (BillingMetrics 이름 사용)
+ *
+ * - 태그 없는 구간 Timer는 생성 시 한 번만 등록
+ * - 채널/결과 태그 Timer는 MeterRegistry가 같은 id를 캐시하므로 호출마다 builder로 조회
+ * - Write-Behind 모드면 Journal 손상 레코드 수를 Gauge로 등록
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer kafkaLag;
+    private final Timer decrypt;
+    private final Timer dedup;
+    private final Timer preference;
+
+    public PipelineMetrics(MeterRegistry registry, ObjectProvider<NotificationJournal> journal) {
+        this.registry = registry;
+        this.kafkaLag = Timer.builder(BillingMetrics.KAFKA_LAG).register(registry);
+        this.decrypt = Timer.builder(BillingMetrics.CONSUME_DECRYPT).register(registry);
+        this.dedup = Timer.builder(BillingMetrics.CONSUME_DEDUP).register(registry);
+        this.preference = Timer.builder(BillingMetrics.CONSUME_PREFERENCE).register(registry);
+        journal.ifAvailable(j -> Gauge.builder(BillingMetrics.JOURNAL_CORRUPT, j, NotificationJournal::getCorruptRecords)
+                .register(registry));
+    }
+
+    public <T> T timeDecrypt(Supplier<T> call) {
+        return decrypt.record(call);
+    }
+
+    public <T> T timeDedup(Supplier<T> call) {
+        return dedup.record(call);
+    }
+
+    public <T> T timePreference(Supplier<T> call) {
+        return preference.record(call);
+    }
+
+    /**
+     * Kafka 적재 → 수신 (Producer가 찍은 record timestamp 기준)
+     */
+    public void recordKafkaLag(ConsumerRecord<?, ?> record) {
+        if (record.timestamp() > 0) {
+            kafkaLag.record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void recordSend(String channel, long elapsedMs, boolean success) {
+        Timer.builder(BillingMetrics.SEND)
+                .tag(BillingMetrics.TAG_CHANNEL, channel)
+                .tag(BillingMetrics.TAG_OUTCOME, success ? BillingMetrics.OUTCOME_SUCCESS : BillingMetrics.OUTCOME_FAILURE)
+                .register(registry)
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Outbox 생성 → 발송 완료 종단 지연 (메시지 timestamp 기준)
+     */
+    public void recordEventLag(BillingMessageDto message, String channel) {
+        long lagMs = BillingMetrics.eventTimeLagMillis(message.getTimestamp(), System.currentTimeMillis());
+        if (lagMs < 0) {
+            return;
+        }
+        Timer.builder(BillingMetrics.EVENT_LAG)
+                .tag(BillingMetrics.TAG_CHANNEL, channel)
+                .register(registry)
+                .record(lagMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPersist(long elapsedNanos, boolean writeBehind) {
+        Timer.builder(BillingMetrics.PERSIST)
+                .tag(BillingMetrics.TAG_MODE, writeBehind ? "journal" : "db")
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ureca.billing.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 재시도 백오프 정책 (지수 백오프 + Jitter)
+ *
+ * - delay = min(max-delay, base-delay × 2^retry_count)
+ * - 실제 대기 = delay × [0.5, 1.0) (Equal Jitter: 같은 시각에 실패한 메시지가 한꺼번에 몰리지 않도록 분산)
+ * - retry_count는 DB에서 GREATEST로 병합된 값을 써야 하므로 SQL 식으로 계산
+ *   (재시도 메시지의 Consumer 엔티티는 retry_count=0으로 들어옴)
+ */
+@Component
+public class RetryBackoffPolicy {
+
+    @Value("${notification.retry.backoff.base-delay-seconds:60}")
+    private long baseDelaySeconds;
+
+    @Value("${notification.retry.backoff.max-delay-seconds:1800}")
+    private long maxDelaySeconds;
+
+    /**
+     * next_retry_at 계산 SQL 식 (FAILED면 백오프 시각, 그 외는 NOW())
+     *
+     * @param statusExpr     상태 컬럼/식 (예: notification_status)
+     * @param retryCountExpr 재시도 횟수 컬럼/식 (예: retry_count)
+     */
+    public String nextRetryAtSql(String statusExpr, String retryCountExpr) {
+        return "IF(" + statusExpr + " = 'FAILED', NOW() + INTERVAL FLOOR(LEAST(" + maxDelaySeconds + ", "
+                + baseDelaySeconds + " * POW(2, " + retryCountExpr + ")) * (0.5 + RAND() / 2)) SECOND, NOW())";
+    }
+
+    public long getBaseDelaySeconds() {
+        return baseDelaySeconds;
+    }
+}
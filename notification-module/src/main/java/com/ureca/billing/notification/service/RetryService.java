@@ -1,13 +1,14 @@
 package com.ureca.billing.notification.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ureca.billing.core.dto.BillingMessageDto;
 import com.ureca.billing.notification.consumer.handler.DuplicateCheckHandler;
 import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
 import com.ureca.billing.notification.domain.repository.NotificationRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -24,14 +26,14 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 재시도 서비스
  * 
- * 아키텍처 플로우 (Retry Scheduler - 5분마다 실행):
- * 1. status = "FAILED" 조회
- * 2. retry_count < 3 인 경우:
+ * 아키텍처 플로우 (Retry Scheduler - 가장 빠른 next_retry_at에 맞춰 실행):
+ * 1. status = "FAILED", retry_count < 3 점유 (회차별 keyset 페이지 + LIMIT, FOR UPDATE SKIP LOCKED → 인스턴스 간 중복 없음)
+ * 2. 점유한 메시지:
  *    - DB 상태 업데이트: status = "RETRY", retry_count++
  *    - Redis에 재시도 정보 저장: key: retry:msg:{billId}, value: notificationId, TTL: 1시간
  *    - Kafka로 재발행 (billing-event-topic)
  *    - 처음 로직으로 돌아감
- * 3. retry_count >= 3 인 경우:
+ * 3. retry_count >= 3 인 경우 (sendExistingFailedToDlt):
  *    - DLQ로 이동 (billing-event-dlt)
  *     - DeadLetterConsumer에서 SMS Fallback 자동 처리
  */
@@ -43,51 +45,47 @@ public class RetryService {
     private static final String TOPIC = "billing-event";
     private static final String DLT_TOPIC = "billing-event-dlt";
     private static final int MAX_RETRY_COUNT = 3;
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Comparator<Notification> CLAIM_ORDER = Comparator
+            .comparing(Notification::getNextRetryAt)
+            .thenComparing(Notification::getNotificationId);
 
     private final NotificationRepository notificationRepository;
+    private final NotificationBulkRepository notificationBulkRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
     private final DuplicateCheckHandler duplicateCheckHandler;
     private final RedisTemplate<String, Object> redisTemplate; // RedisTemplate 직접 사용 (Pipeline용)
-    private final JdbcTemplate jdbcTemplate;
+    private final BillingMessageReconstructor messageReconstructor;
 
 
     /**
      * FAILED 메시지 재시도 (Batch & Pipeline 최적화)
+     * - 점유한 행은 이 트랜잭션이 커밋(RETRY로 변경)될 때까지 다른 인스턴스에서 SKIP
      */
     @Transactional
     public int retryFailedMessages(int limit) {
-        // 1. 재시도 대상 조회
-        List<Notification> allFailedMessages = notificationRepository.findFailedMessagesForRetry();
+        // 1. 재시도 대상 점유 (limit까지 keyset 페이지 단위로)
+        List<Notification> targetMessages = claimFailedMessages(limit);
 
-        if (allFailedMessages == null || allFailedMessages.isEmpty()) {
+        if (targetMessages.isEmpty()) {
             return 0;
         }
 
-        List<Notification> targetMessages = allFailedMessages.stream()
-                .limit(limit)
-                .toList();
-
         // 메모리에 작업 내용을 모을 리스트들
         List<Notification> updatesToSave = new ArrayList<>();
         Map<Long, String> messageJsonCache = new HashMap<>(); // Kafka 전송용 캐시
-        List<Notification> dltCandidates = new ArrayList<>();
 
         int successCount = 0;
-        int dlqCount = 0;
+
+        // 청구 정보는 배치 전체를 한 번에 조회 (건별 N+1 조회 제거)
+        Map<Long, BillingMessageDto> messages = messageReconstructor.reconstructForRetry(targetMessages);
 
         // 2. 로직 처리 (DB 접속 최소화, 메모리 연산 위주)
         for (Notification notification : targetMessages) {
             try {
-                // A. 최대 재시도 횟수 초과 체크
-                if (notification.getRetryCount() >= MAX_RETRY_COUNT) {
-                    dltCandidates.add(notification);
-                    continue; // 다음 메시지로
-                }
-
-                // B. 재시도 준비 (메모리 상에서 객체 수정)
-                // DB에서 읽어오는 작업(reconstructMessage)은 어쩔 수 없이 건마다 해야 함 (캐싱되어 있다면 빠름)
-                BillingMessageDto message = reconstructMessage(notification);
+                // 재시도 준비 (메모리 상에서 객체 수정, 점유 쿼리가 retry_count < 3만 가져옴)
+                BillingMessageDto message = messages.get(notification.getNotificationId());
                 String messageJson = objectMapper.writeValueAsString(message);
 
                 // Kafka 전송을 위해 캐시에 저장해둠
@@ -106,20 +104,14 @@ public class RetryService {
             }
         }
 
-        // 3. [최적화] DLT 일괄 처리
-        if (!dltCandidates.isEmpty()) {
-            processDltBatch(dltCandidates);
-            dlqCount = dltCandidates.size();
-        }
-
-        // 4. [최적화] DB 일괄 저장 (Bulk Update) 💾
-        // 수십 번의 UPDATE 쿼리를 배치로 처리
+        // 3. [최적화] DB 일괄 저장 (Bulk Upsert) 💾
+        // 수십 번의 UPDATE 쿼리를 청크당 1번의 다중 행 쿼리로 처리
         if (!updatesToSave.isEmpty()) {
-            notificationRepository.saveAll(updatesToSave);
+            notificationBulkRepository.upsertAll(updatesToSave);
             // log.info("📝 [RETRY] {}건 DB 상태 일괄 업데이트 완료", updatesToSave.size());
         }
 
-        // 5. [최적화] Redis 일괄 저장 (Pipeline) ⚡
+        // 4. [최적화] Redis 일괄 저장 (Pipeline) ⚡
         // 네트워크 왕복 비용 제거
         if (!updatesToSave.isEmpty()) {
             redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
@@ -134,7 +126,7 @@ public class RetryService {
             // log.info("💾 [RETRY] {}건 Redis 일괄 저장 완료", updatesToSave.size());
         }
 
-        // 6. [최적화] Kafka 일괄 재발행 📤
+        // 5. [최적화] Kafka 일괄 재발행 📤
         // 이미 만들어둔 JSON을 이용해 빠르게 전송
         for (Notification n : updatesToSave) {
             String json = messageJsonCache.get(n.getNotificationId());
@@ -143,21 +135,44 @@ public class RetryService {
             }
         }
 
-        log.info("🎯 [RETRY] 재시도 배치 완료. 재시도: {}, DLT: {}, 총: {}",
-                successCount, dlqCount, successCount + dlqCount);
+        log.info("🎯 [RETRY] 재시도 배치 완료. 재시도: {}, 점유: {}", successCount, targetMessages.size());
 
         return successCount;
     }
 
+    /**
+     * 재시도 대상 점유 (SQL에서 LIMIT → 필요한 행만 읽음)
+     * - retry_count별로 (next_retry_at, notification_id) 순 첫 keyset 페이지를 하나씩 점유한 뒤
+     *   같은 순서로 합쳐 앞의 limit건만 사용 → 한 회차가 limit를 다 채워 다른 회차를 굶기지 않음
+     * - 선택되지 않은 행은 상태를 바꾸지 않으므로 커밋 시 잠금이 풀려 다음 배치에서 다시 점유
+     */
+    private List<Notification> claimFailedMessages(int limit) {
+        List<Notification> candidates = new ArrayList<>();
+        for (int retryCount = 0; retryCount < MAX_RETRY_COUNT; retryCount++) {
+            candidates.addAll(notificationRepository.claimFailedMessagesForRetry(retryCount, KEYSET_START, 0L, limit));
+        }
+
+        candidates.sort(CLAIM_ORDER);
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * 가장 빠른 다음 재시도 시각 (RetryScheduler가 이 시각에 맞춰 깨어남, 없으면 null)
+     */
+    public LocalDateTime nextRetryAt() {
+        return notificationRepository.findNextRetryAt();
+    }
+
     /**
      * DLT 대상 메시지 일괄 처리
      */
     private void processDltBatch(List<Notification> dltCandidates) {
         List<Notification> finalFailures = new ArrayList<>();
+        Map<Long, BillingMessageDto> messages = messageReconstructor.reconstructForDlt(dltCandidates);
 
         for (Notification n : dltCandidates) {
             try {
-                sendToDlt(n); // DLT 전송 (개별 전송 유지 - 실패 시 영향 범위 최소화)
+                sendToDlt(messages.get(n.getNotificationId())); // DLT 전송 (개별 전송 유지 - 실패 시 영향 범위 최소화)
 
                 // 메모리 상에서 상태 변경
                 Notification failed = n.markAsFinalFailure("Max retry count exceeded → DLT");
@@ -169,16 +184,15 @@ public class RetryService {
 
         // 상태 변경 일괄 저장
         if (!finalFailures.isEmpty()) {
-            notificationRepository.saveAll(finalFailures);
+            notificationBulkRepository.upsertAll(finalFailures);
         }
     }
 
     /*
      * 3회 실패 메시지를 DLT로 전송하는 메서드
      */
-    private void sendToDlt(Notification notification) {
+    private void sendToDlt(BillingMessageDto message) {
         try {
-            BillingMessageDto message = reconstructMessageForDlt(notification);
             String messageJson = objectMapper.writeValueAsString(message);
             kafkaTemplate.send(DLT_TOPIC, messageJson);
         } catch (Exception e) {
@@ -186,105 +200,17 @@ public class RetryService {
         }
     }
 
-    /**
-     * DLT용 BillingMessageDto 재구성
-     */
-    private BillingMessageDto reconstructMessageForDlt(Notification notification) {
-        Map<String, Object> billInfo = getBillInfo(notification.getBillId());
-        String phoneCipher = getPhoneCipherByUserId(notification.getUserId());
-
-        return BillingMessageDto.builder()
-                .billId(notification.getBillId())
-                .userId(notification.getUserId())
-                .recipientEmail(notification.getRecipient())
-                .recipientPhone(phoneCipher)
-                .totalAmount((Long) billInfo.get("totalAmount"))
-                .billYearMonth((String) billInfo.get("billingMonth"))
-                .billDate((String) billInfo.get("billDate"))
-                .dueDate((String) billInfo.get("dueDate"))
-                .notificationType("EMAIL")
-                .build();
-    }
-
-    /**
-     * Notification에서 BillingMessageDto 재구성
-     */
-    private BillingMessageDto reconstructMessage(Notification notification) {
-        // 주의: 여기서 DB 조회가 발생합니다 (N+1 문제 가능성).
-        // 성능을 더 높이려면 Notification 엔티티에 원본 JSON을 저장해두는 것이 좋습니다.
-        Map<String, Object> billInfo = getBillInfo(notification.getBillId());
-
-        return BillingMessageDto.builder()
-                .billId(notification.getBillId())
-                .userId(notification.getUserId())
-                .recipientEmail(notification.getRecipient())
-                .recipientPhone(null)
-                .totalAmount((Long) billInfo.get("totalAmount"))
-                .billYearMonth((String) billInfo.get("billingMonth"))
-                .billDate((String) billInfo.get("billDate"))
-                .dueDate((String) billInfo.get("dueDate"))
-                .build();
-    }
-
-    private Map<String, Object> getBillInfo(Long billId) {
-        try {
-            Long totalAmount = jdbcTemplate.queryForObject(
-                    "SELECT COALESCE(SUM(amount), 0) FROM bill_details WHERE bill_id = ?",
-                    Long.class,
-                    billId
-            );
-
-            Map<String, Object> billData = jdbcTemplate.queryForMap(
-                    """
-                    SELECT billing_month, 
-                           DATE_FORMAT(bill_issue_date, '%Y-%m-%d') as bill_date,
-                           DATE_FORMAT(DATE_ADD(bill_issue_date, INTERVAL 15 DAY), '%Y-%m-%d') as due_date
-                    FROM bills 
-                    WHERE bill_id = ?
-                    """,
-                    billId
-            );
-
-            return Map.of(
-                    "totalAmount", totalAmount != null ? totalAmount : 0L,
-                    "billingMonth", billData.get("billing_month") != null ? billData.get("billing_month").toString() : "N/A",
-                    "billDate", billData.get("bill_date") != null ? billData.get("bill_date").toString() : "N/A",
-                    "dueDate", billData.get("due_date") != null ? billData.get("due_date").toString() : "N/A"
-            );
-
-        } catch (Exception e) {
-            // log.warn("⚠️ [DB] bills 조회 실패..."); // 로그 주석 처리
-            return Map.of("totalAmount", 0L, "billingMonth", "N/A", "billDate", "N/A", "dueDate", "N/A");
-        }
-    }
-
-    private String getPhoneCipherByUserId(Long userId) {
-        try {
-            return jdbcTemplate.queryForObject(
-                    "SELECT phone_cipher FROM users WHERE user_id = ?",
-                    String.class,
-                    userId
-            );
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     /**
      * 기존 FAILED 메시지 DLT 일괄 전송 (배치 처리 적용)
      */
     @Transactional
     public int sendExistingFailedToDlt(int limit) {
-        List<Notification> maxRetryFailedMessages = notificationRepository.findMaxRetryFailedMessages();
+        List<Notification> targetMessages = notificationRepository.claimMaxRetryFailedMessages(limit);
 
-        if (maxRetryFailedMessages == null || maxRetryFailedMessages.isEmpty()) {
+        if (targetMessages.isEmpty()) {
             return 0;
         }
 
-        List<Notification> targetMessages = maxRetryFailedMessages.stream()
-                .limit(limit)
-                .toList();
-
         processDltBatch(targetMessages);
 
         return targetMessages.size();
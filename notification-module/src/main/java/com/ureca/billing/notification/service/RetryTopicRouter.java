@@ -0,0 +1,153 @@
+package com.ureca.billing.notification.service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.core.dto.codec.BillingMessageCodec;
+import com.ureca.billing.core.dto.codec.BillingMessageHeaders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 지연 재시도 토픽 라우터 (Non-blocking Retry)
+ *
+ * 발송 실패 메시지를 DB(FAILED) 폴링 대신 단계별 재시도 토픽으로 보낸다.
+ *   billing-event → billing-event-retry-1m → billing-event-retry-10m → billing-event-retry-1h → billing-event-dlt
+ *
+ * - 원본 record value/헤더(billing-encoding)를 그대로 전달 (재암호화/재직렬화 없음)
+ * - billing-retry-attempt: 지금까지 보낸 재시도 단계 수, billing-retry-due-at: 재발행 시각 (epoch ms)
+ * - RetryTierConsumer가 due-at까지 consumer를 pause 했다가 billing-event로 재발행
+ * - 마지막 단계도 실패하면 DLT로 JSON 발행 (DeadLetterConsumer → SMS Fallback)
+ * - 컨테이너 Recoverer(리스너 예외)도 같은 헤더 기준으로 다음 단계를 정함 (nextTopicOf / nextTierHeaders)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetryTopicRouter {
+
+    public static final String MAIN_TOPIC = "billing-event";
+    public static final String DLT_TOPIC = "billing-event-dlt";
+
+    public static final String RETRY_1M_TOPIC = "billing-event-retry-1m";
+    public static final String RETRY_10M_TOPIC = "billing-event-retry-10m";
+    public static final String RETRY_1H_TOPIC = "billing-event-retry-1h";
+
+    public static final String ATTEMPT_HEADER = "billing-retry-attempt";
+    public static final String DUE_AT_HEADER = "billing-retry-due-at";
+
+    public static final List<RetryTier> TIERS = List.of(
+            new RetryTier(RETRY_1M_TOPIC, Duration.ofMinutes(1)),
+            new RetryTier(RETRY_10M_TOPIC, Duration.ofMinutes(10)),
+            new RetryTier(RETRY_1H_TOPIC, Duration.ofHours(1))
+    );
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * true: 발송 실패 → 재시도 토픽, false: 이전 방식 (FAILED 저장 → RetryScheduler DB 폴링)
+     */
+    @Value("${notification.retry.topic.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 실패 메시지를 다음 재시도 단계(없으면 DLT)로 발행
+     *
+     * @return 발행 완료 시 라우팅 결과 (발행 실패 시 예외로 완료)
+     */
+    public CompletableFuture<RetryRoute> route(ConsumerRecord<String, byte[]> record, BillingMessageDto message) {
+        int attempt = attemptOf(record);
+
+        if (attempt >= TIERS.size()) {
+            return kafkaTemplate.send(DLT_TOPIC, record.key(), BillingMessageCodec.toJson(message))
+                    .thenApply(result -> new RetryRoute(DLT_TOPIC, attempt, true));
+        }
+
+        RetryTier tier = TIERS.get(attempt);
+        ProducerRecord<String, Object> retryRecord = new ProducerRecord<>(tier.topic(), record.key(), record.value());
+        Header encoding = record.headers().lastHeader(BillingMessageHeaders.ENCODING);
+        if (encoding != null) {
+            retryRecord.headers().add(encoding);
+        }
+        retryRecord.headers().add(ATTEMPT_HEADER, toBytes(attempt + 1));
+        retryRecord.headers().add(DUE_AT_HEADER, toBytes(System.currentTimeMillis() + tier.delay().toMillis()));
+
+        return kafkaTemplate.send(retryRecord)
+                .thenApply(result -> new RetryRoute(tier.topic(), attempt + 1, false));
+    }
+
+    /**
+     * 재시도 단계 수 기준 다음 토픽 (단계 소진 시 DLT)
+     * - 토픽 이름이 아닌 헤더로 판단 → 재시도 토픽을 거쳐 billing-event로 돌아온 메시지도 단계가 이어짐
+     */
+    public static String nextTopicOf(ConsumerRecord<?, ?> record) {
+        int attempt = attemptOf(record);
+        return attempt >= TIERS.size() ? DLT_TOPIC : TIERS.get(attempt).topic();
+    }
+
+    /**
+     * 다음 재시도 단계로 보낼 때 추가할 헤더 (단계 수 + 1, due-at), DLT로 갈 때는 없음
+     * - 원본 헤더 뒤에 붙으므로 attemptOf/dueAtOf(lastHeader)는 새 값을 읽음
+     */
+    public static Headers nextTierHeaders(ConsumerRecord<?, ?> record) {
+        int attempt = attemptOf(record);
+        Headers headers = new RecordHeaders();
+        if (attempt < TIERS.size()) {
+            headers.add(ATTEMPT_HEADER, toBytes(attempt + 1));
+            headers.add(DUE_AT_HEADER, toBytes(System.currentTimeMillis() + TIERS.get(attempt).delay().toMillis()));
+        }
+        return headers;
+    }
+
+    /**
+     * 지금까지 거친 재시도 단계 수 (헤더 없으면 0 = 첫 발송)
+     */
+    public static int attemptOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header != null && header.value().length == Long.BYTES ? (int) toLong(header.value()) : 0;
+    }
+
+    /**
+     * 재발행 시각 (헤더 없으면 record timestamp + 단계 지연)
+     */
+    public static long dueAtOf(ConsumerRecord<?, ?> record, Duration delay) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        return header != null && header.value().length == Long.BYTES
+                ? toLong(header.value())
+                : record.timestamp() + delay.toMillis();
+    }
+
+    private static byte[] toBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+
+    private static long toLong(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    public record RetryTier(String topic, Duration delay) {
+    }
+
+    /**
+     * @param attempt    발행된 재시도 단계 수 (retry_count로 기록)
+     * @param deadLetter true면 DLT로 보냄 (최종 실패)
+     */
+    public record RetryRoute(String topic, int attempt, boolean deadLetter) {
+    }
+}
@@ -6,10 +6,15 @@ import com.ureca.billing.core.dto.BillingMessageDto;
 import com.ureca.billing.notification.domain.entity.UserNotificationPref;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
@@ -21,10 +26,14 @@ import java.util.stream.Collectors;
  * 
  * 사용자의 선호 발송 시간에 맞춰 청구서를 예약 발송
  * 
- * Redis Sorted Set 구조:
- * - Key: scheduled:billing:{channel}
- * - Score: 예약 시간 (epoch seconds)
- * - Value: BillingMessageDto JSON
+ * Redis 구조 (member = "{billId}:{CHANNEL}", 청구서/채널당 1건):
+ * - scheduled:billing:{channel}, scheduled:billing:ALL : ZSET (score = 예약 시간 epoch seconds)
+ * - scheduled:billing:payload(:refs) : HASH, member → 메시지 본문과 참조 수 (MessagePayloadStore, 큐 항목 추가/제거 시 참조 조정)
+ * - scheduled:billing:user:{userId} : SET (사용자의 예약 member 목록)
+ * - scheduled:billing:inflight : 꺼냈지만 발행 확인 전인 메시지 (score = max(꺼낸 시각, 예약 시각) ms)
+ *
+ * 취소/변경/사용자 조회는 member를 바로 계산하거나 사용자 인덱스로 찾으므로
+ * 큐 전체를 JVM으로 읽어오지 않음 (O(log N))
  */
 @Service
 @RequiredArgsConstructor
@@ -33,10 +42,117 @@ public class ScheduledQueueService {
     
     private static final String QUEUE_KEY_PREFIX = "scheduled:billing:";
     private static final String ALL_QUEUE_KEY = "scheduled:billing:ALL";
+    private static final String INFLIGHT_KEY = "scheduled:billing:inflight";
+    /** 대기열과 slot이 섞이지 않도록 예약 큐 전용 본문 HASH 사용 */
+    private static final String PAYLOAD_KEY = "scheduled:billing:payload";
+    private static final String REFS_KEY = "scheduled:billing:payload:refs";
+    private static final String USER_INDEX_PREFIX = "scheduled:billing:user:";
+    private static final String LEGACY_MIGRATED_KEY = "scheduled:billing:legacy-migrated";
+    private static final List<String> CHANNELS = List.of("EMAIL", "SMS", "PUSH");
+
+    /**
+     * 예약 등록 (같은 청구서/채널은 덮어씀, 새로 들어간 경우에만 본문 참조 +1)
+     * KEYS = [ALL, 채널 큐, payload, refs, 사용자 인덱스], ARGV = [member, score, 본문]
+     */
+    private static final DefaultRedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            local added = redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) == 1
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+            retain_payload(KEYS[3], KEYS[4], ARGV[1], ARGV[3], added)
+            redis.call('SADD', KEYS[5], ARGV[1])
+            return added and 1 or 0
+            """, Long.class);
+
+    /**
+     * 예약 취소 (이미 꺼내져 발행 중인 메시지는 건드리지 않음)
+     * KEYS = [ALL, 채널 큐, payload, refs, 사용자 인덱스], ARGV = [member]
+     */
+    private static final DefaultRedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+                return 0
+            end
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            release_payload(KEYS[3], KEYS[4], ARGV[1])
+            redis.call('SREM', KEYS[5], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * ZSET에서 실제로 빠진 member만 본문 참조 해제 (발행 완료 ACK, 전체 삭제)
+     * KEYS = [ZSET, payload, refs], ARGV = [member...]
+     */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            local released = 0
+            for _, member in ipairs(ARGV) do
+                if redis.call('ZREM', KEYS[1], member) == 1 then
+                    release_payload(KEYS[2], KEYS[3], member)
+                    released = released + 1
+                end
+            end
+            return released
+            """, Long.class);
+
+    /**
+     * 예약 시간 변경 (대기 중인 예약만)
+     * KEYS = [ALL, 채널 큐], ARGV = [member, score]
+     */
+    private static final DefaultRedisScript<Long> RESCHEDULE_SCRIPT = new DefaultRedisScript<>("""
+            if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+                return 0
+            end
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * 예약 시간이 ARGV[1] 이전인 메시지를 최대 N개 꺼내 inflight로 이동 (원자적)
+     * - inflight score = max(꺼낸 시각, 예약 시각) ms → 미리 꺼낸 메시지는 예약 시각 기준으로 장애 복구
+     * KEYS = [ALL, inflight, payload, 채널 큐...]
+     * ARGV = [기준 epoch 초, limit, 꺼낸 시각 ms]
+     * 반환: [member1, 본문1, score1, member2, 본문2, score2, ...] (본문은 저장된 bytes 그대로)
+     */
+    private static final DefaultRedisScript<List> POP_DUE_SCRIPT = new DefaultRedisScript<>("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[2]))
+            local claimedAt = tonumber(ARGV[3])
+            local result = {}
+            for i = 1, #due, 2 do
+                local member = due[i]
+                local score = due[i + 1]
+                redis.call('ZREM', KEYS[1], member)
+                for k = 4, #KEYS do
+                    redis.call('ZREM', KEYS[k], member)
+                end
+                local payload = redis.call('HGET', KEYS[3], member)
+                if payload then
+                    redis.call('ZADD', KEYS[2], math.max(claimedAt, tonumber(score) * 1000), member)
+                    table.insert(result, member)
+                    table.insert(result, payload)
+                    table.insert(result, score)
+                end
+            end
+            return result
+            """, List.class);
+
+    /**
+     * inflight → 예약 큐로 되돌리기 (즉시 발송 대상, ACK로 payload가 지워진 경우 제외)
+     * KEYS = [inflight, ALL, 채널 큐, payload], ARGV = [member, score]
+     */
+    private static final DefaultRedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('ZREM', KEYS[1], ARGV[1]) == 1 and redis.call('HEXISTS', KEYS[4], ARGV[1]) == 1 then
+                redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+                redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+                return 1
+            end
+            return 0
+            """, Long.class);
     
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
     private final UserQuietTimeService userQuietTimeService;
+    private final MessagePayloadStore payloadStore;
     
     // ========================================
     // 예약 등록 (사용자 선호 시간 기반)
@@ -117,49 +233,151 @@ public class ScheduledQueueService {
         
         log.debug("🔍 [READY CHECK] now={}, queueKey={}", now, queueKey);
         
-        Set<String> messages = redisTemplate.opsForZSet()
+        Set<String> members = redisTemplate.opsForZSet()
                 .rangeByScore(queueKey, 0, now, 0, limit);
         
-        if (messages == null || messages.isEmpty()) {
+        if (members == null || members.isEmpty()) {
             log.debug("📭 No messages found with score <= {}", now);
             return Collections.emptyList();
         }
         
-        log.info("📤 Found {} ready messages in queue", messages.size());
+        log.info("📤 Found {} ready messages in queue", members.size());
         
-        return messages.stream()
-                .map(this::parseMessage)
+        return loadMessages(members).stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
     /**
-     * 특정 사용자의 예약 목록 조회
+     * 예약 시간이 untilEpochSecond 이전인 메시지를 꺼내기 (원자적으로 inflight 이동)
+     * - 타이밍 휠이 곧 도래할 예약을 미리 가져갈 때 사용 (여러 인스턴스가 나눠 가져감)
+     * - 저장된 본문을 평문 bytes로 반환 → 변환 없이 그대로 발행 가능
+     * - 발행 완료 후 acknowledge, 실패 시 requeue, 발행 전 반납은 release
+     */
+    @SuppressWarnings("unchecked")
+    public List<ScheduledMessage> popDue(long untilEpochSecond, int limit) {
+        List<String> keys = new ArrayList<>();
+        keys.add(ALL_QUEUE_KEY);
+        keys.add(INFLIGHT_KEY);
+        keys.add(PAYLOAD_KEY);
+        CHANNELS.forEach(channel -> keys.add(QUEUE_KEY_PREFIX + channel));
+
+        // 본문이 압축된 bytes일 수 있으므로 결과를 역직렬화하지 않고 받음
+        List<byte[]> flat = (List<byte[]>) redisTemplate.execute(POP_DUE_SCRIPT, MessagePayloadStore.SCRIPT_ARGS, null,
+                keys, String.valueOf(untilEpochSecond), String.valueOf(limit), String.valueOf(System.currentTimeMillis()));
+        if (flat == null || flat.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ScheduledMessage> messages = new ArrayList<>(flat.size() / 3);
+        for (int i = 0; i + 2 < flat.size(); i += 3) {
+            messages.add(new ScheduledMessage(
+                    new String(flat.get(i), StandardCharsets.UTF_8),
+                    payloadStore.toMessageBytes(flat.get(i + 1)),
+                    (long) Double.parseDouble(new String(flat.get(i + 2), StandardCharsets.UTF_8))));
+        }
+        return messages;
+    }
+
+    /**
+     * 발행 완료된 메시지 정리 (inflight 제거 + 본문 참조 해제)
+     */
+    public void acknowledge(List<String> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(INFLIGHT_KEY, PAYLOAD_KEY, REFS_KEY), memberIds.toArray());
+    }
+
+    /**
+     * 발행 실패한 메시지를 예약 큐로 되돌림 (다음 주기에 즉시 발송 대상)
+     */
+    public int requeue(List<String> memberIds) {
+        long now = System.currentTimeMillis() / 1000;
+        int restored = 0;
+        for (String memberId : memberIds) {
+            restored += restore(memberId, now);
+        }
+        return restored;
+    }
+
+    /**
+     * 꺼냈지만 발행하지 않은 메시지를 원래 예약 시각으로 반납 (인스턴스 종료/금지시간 등)
+     */
+    public int release(List<ScheduledMessage> messages) {
+        int restored = 0;
+        for (ScheduledMessage message : messages) {
+            restored += restore(message.memberId(), message.scheduledAtEpochSecond());
+        }
+        return restored;
+    }
+
+    private int restore(String memberId, long epochSecond) {
+        Long result = redisTemplate.execute(RESTORE_SCRIPT,
+                List.of(INFLIGHT_KEY, ALL_QUEUE_KEY, QUEUE_KEY_PREFIX + channelOf(memberId), PAYLOAD_KEY),
+                memberId, String.valueOf(epochSecond));
+        return result != null ? result.intValue() : 0;
+    }
+
+    /**
+     * 꺼낸 뒤 timeoutMs 이상 ACK되지 않은 메시지(발행 도중 인스턴스 장애) 복구
+     */
+    public int recoverStale(long timeoutMs) {
+        long staleBefore = System.currentTimeMillis() - timeoutMs;
+        Set<String> stale = redisTemplate.opsForZSet().rangeByScore(INFLIGHT_KEY, 0, staleBefore, 0, 1000);
+        if (stale == null || stale.isEmpty()) {
+            return 0;
+        }
+        int restored = requeue(new ArrayList<>(stale));
+        log.warn("♻️ [SCHEDULED] Recovered {} stale in-flight message(s)", restored);
+        return restored;
+    }
+
+    /**
+     * 특정 사용자의 예약 목록 조회 (사용자 인덱스 → 예약 시간/payload만 조회)
      */
     public List<Map<String, Object>> getUserSchedules(Long userId) {
-        Set<ZSetOperations.TypedTuple<String>> tuples = 
-                redisTemplate.opsForZSet().rangeWithScores(ALL_QUEUE_KEY, 0, -1);
-        
-        if (tuples == null) {
+        String userKey = USER_INDEX_PREFIX + userId;
+        Set<String> memberSet = redisTemplate.opsForSet().members(userKey);
+        if (memberSet == null || memberSet.isEmpty()) {
             return Collections.emptyList();
         }
-        
-        return tuples.stream()
-                .map(t -> {
-                    BillingMessageDto msg = parseMessage(t.getValue());
-                    if (msg != null && userId.equals(msg.getUserId())) {
-                        Map<String, Object> item = new HashMap<>();
-                        item.put("billId", msg.getBillId());
-                        item.put("userId", msg.getUserId());
-                        item.put("billYearMonth", msg.getBillYearMonth());
-                        item.put("totalAmount", msg.getTotalAmount());
-                        item.put("scheduledAt", epochToDateTime(t.getScore()));
-                        return item;
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+
+        List<String> memberIds = new ArrayList<>(memberSet);
+        List<Object> scores = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] allKey = ALL_QUEUE_KEY.getBytes(StandardCharsets.UTF_8);
+            for (String memberId : memberIds) {
+                connection.zSetCommands().zScore(allKey, memberId.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        List<BillingMessageDto> messages = loadMessages(memberIds);
+
+        List<Map<String, Object>> schedules = new ArrayList<>();
+        List<String> staleIds = new ArrayList<>();
+        for (int i = 0; i < memberIds.size(); i++) {
+            Double score = (Double) scores.get(i);
+            BillingMessageDto msg = score != null ? messages.get(i) : null;
+            if (msg == null) {
+                // 이미 발송(또는 발송 중)된 예약 → 인덱스에서 정리
+                if (score == null) {
+                    staleIds.add(memberIds.get(i));
+                }
+                continue;
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("billId", msg.getBillId());
+            item.put("userId", msg.getUserId());
+            item.put("billYearMonth", msg.getBillYearMonth());
+            item.put("totalAmount", msg.getTotalAmount());
+            item.put("scheduledAt", epochToDateTime(score));
+            schedules.add(item);
+        }
+
+        if (!staleIds.isEmpty()) {
+            redisTemplate.opsForSet().remove(userKey, staleIds.toArray());
+        }
+        return schedules;
     }
     
     // ========================================
@@ -170,41 +388,20 @@ public class ScheduledQueueService {
      * 예약 메시지 처리 완료 후 큐에서 제거
      */
     public void markAsProcessed(BillingMessageDto message, String channel) {
-        try {
-            String messageJson = objectMapper.writeValueAsString(message);
-            
-            // 채널별 큐에서 제거
-            redisTemplate.opsForZSet().remove(QUEUE_KEY_PREFIX + channel, messageJson);
-            
-            // 전체 큐에서 제거
-            redisTemplate.opsForZSet().remove(ALL_QUEUE_KEY, messageJson);
-            
-            log.debug("✅ Scheduled message processed. billId={}", message.getBillId());
-            
-        } catch (JsonProcessingException e) {
-            log.error("❌ Failed to remove processed message", e);
-        }
+        removeSchedule(memberId(message.getBillId(), channel), message.getUserId());
+        log.debug("✅ Scheduled message processed. billId={}", message.getBillId());
     }
     
     /**
      * 특정 청구서의 예약 취소
      */
     public boolean cancelByBillId(Long billId, String channel) {
-        String queueKey = QUEUE_KEY_PREFIX + channel;
+        String memberId = memberId(billId, channel);
         
-        Set<String> allMessages = redisTemplate.opsForZSet().range(queueKey, 0, -1);
-        if (allMessages == null) {
-            return false;
-        }
-        
-        for (String json : allMessages) {
-            BillingMessageDto msg = parseMessage(json);
-            if (msg != null && billId.equals(msg.getBillId())) {
-                redisTemplate.opsForZSet().remove(queueKey, json);
-                redisTemplate.opsForZSet().remove(ALL_QUEUE_KEY, json);
-                log.info("🚫 Schedule cancelled. billId={}", billId);
-                return true;
-            }
+        BillingMessageDto msg = payloadStore.getMessage(PAYLOAD_KEY, memberId);
+        if (msg != null && removeSchedule(memberId, msg.getUserId())) {
+            log.info("🚫 Schedule cancelled. billId={}", billId);
+            return true;
         }
         
         log.warn("⚠️ Schedule not found for billId={}", billId);
@@ -215,19 +412,14 @@ public class ScheduledQueueService {
      * 사용자의 모든 예약 취소
      */
     public int cancelByUserId(Long userId) {
-        Set<String> allMessages = redisTemplate.opsForZSet().range(ALL_QUEUE_KEY, 0, -1);
-        if (allMessages == null) {
+        Set<String> memberIds = redisTemplate.opsForSet().members(USER_INDEX_PREFIX + userId);
+        if (memberIds == null) {
             return 0;
         }
         
         int cancelled = 0;
-        for (String json : allMessages) {
-            BillingMessageDto msg = parseMessage(json);
-            if (msg != null && userId.equals(msg.getUserId())) {
-                for (String channel : Arrays.asList("EMAIL", "SMS", "PUSH")) {
-                    redisTemplate.opsForZSet().remove(QUEUE_KEY_PREFIX + channel, json);
-                }
-                redisTemplate.opsForZSet().remove(ALL_QUEUE_KEY, json);
+        for (String memberId : memberIds) {
+            if (removeSchedule(memberId, userId)) {
                 cancelled++;
             }
         }
@@ -257,15 +449,14 @@ public class ScheduledQueueService {
                 now, LocalDateTime.now());
         
         for (ZSetOperations.TypedTuple<String> tuple : tuples) {
-            BillingMessageDto msg = parseMessage(tuple.getValue());
             Double score = tuple.getScore();
             
-            if (msg != null && score != null) {
+            if (score != null) {
                 LocalDateTime scheduledAt = epochToDateTime(score);
                 boolean isReady = score <= now;
                 
-                log.info("🔍 [DEBUG] billId={}, score={}, scheduledAt={}, isReady={}", 
-                        msg.getBillId(), score, scheduledAt, isReady);
+                log.info("🔍 [DEBUG] member={}, score={}, scheduledAt={}, isReady={}", 
+                        tuple.getValue(), score, scheduledAt, isReady);
             }
         }
     }
@@ -278,30 +469,16 @@ public class ScheduledQueueService {
      * 특정 청구서의 예약 시간 변경
      */
     public boolean reschedule(Long billId, String channel, LocalDateTime newScheduledAt) {
-        String queueKey = QUEUE_KEY_PREFIX + channel;
+        long newEpoch = newScheduledAt.atZone(ZoneId.systemDefault()).toEpochSecond();
         
-        Set<String> allMessages = redisTemplate.opsForZSet().range(queueKey, 0, -1);
-        if (allMessages == null) {
-            return false;
-        }
+        Long result = redisTemplate.execute(RESCHEDULE_SCRIPT,
+                List.of(ALL_QUEUE_KEY, QUEUE_KEY_PREFIX + normalizeChannel(channel)),
+                memberId(billId, channel), String.valueOf(newEpoch));
         
-        for (String json : allMessages) {
-            BillingMessageDto msg = parseMessage(json);
-            if (msg != null && billId.equals(msg.getBillId())) {
-                // 기존 예약 삭제
-                redisTemplate.opsForZSet().remove(queueKey, json);
-                redisTemplate.opsForZSet().remove(ALL_QUEUE_KEY, json);
-                
-                // 새 시간으로 재등록
-                long newEpoch = newScheduledAt.atZone(ZoneId.systemDefault()).toEpochSecond();
-                redisTemplate.opsForZSet().add(queueKey, json, newEpoch);
-                redisTemplate.opsForZSet().add(ALL_QUEUE_KEY, json, newEpoch);
-                
-                log.info("📅 Rescheduled. billId={}, newTime={}", billId, newScheduledAt);
-                return true;
-            }
+        if (result != null && result == 1) {
+            log.info("📅 Rescheduled. billId={}, newTime={}", billId, newScheduledAt);
+            return true;
         }
-        
         return false;
     }
     
@@ -340,29 +517,38 @@ public class ScheduledQueueService {
             return Collections.emptyList();
         }
         
-        return tuples.stream()
-                .map(t -> {
-                    BillingMessageDto msg = parseMessage(t.getValue());
-                    if (msg != null) {
-                        Map<String, Object> item = new HashMap<>();
-                        item.put("billId", msg.getBillId());
-                        item.put("userId", msg.getUserId());
-                        item.put("billYearMonth", msg.getBillYearMonth());
-                        item.put("totalAmount", msg.getTotalAmount());
-                        item.put("recipientEmail", msg.getRecipientEmail());
-                        item.put("scheduledAt", epochToDateTime(t.getScore()));
-                        return item;
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<ZSetOperations.TypedTuple<String>> page = new ArrayList<>(tuples);
+        List<BillingMessageDto> messages = loadMessages(page.stream().map(ZSetOperations.TypedTuple::getValue).toList());
+        
+        List<Map<String, Object>> schedules = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            BillingMessageDto msg = messages.get(i);
+            if (msg != null) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("billId", msg.getBillId());
+                item.put("userId", msg.getUserId());
+                item.put("billYearMonth", msg.getBillYearMonth());
+                item.put("totalAmount", msg.getTotalAmount());
+                item.put("recipientEmail", msg.getRecipientEmail());
+                item.put("scheduledAt", epochToDateTime(page.get(i).getScore()));
+                schedules.add(item);
+            }
+        }
+        return schedules;
     }
     
     /**
      * 큐 전체 삭제 (테스트용)
      */
     public void clearAll() {
+        // 본문 HASH의 참조부터 해제
+        for (String key : List.of(ALL_QUEUE_KEY, INFLIGHT_KEY)) {
+            Set<String> members = redisTemplate.opsForZSet().range(key, 0, -1);
+            if (members != null && !members.isEmpty()) {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(key, PAYLOAD_KEY, REFS_KEY), members.toArray());
+            }
+        }
+
         Set<String> keys = redisTemplate.keys("scheduled:billing:*");
         if (keys != null && !keys.isEmpty()) {
             redisTemplate.delete(keys);
@@ -374,25 +560,108 @@ public class ScheduledQueueService {
     // Private Helper
     // ========================================
     
-    private void addToQueue(BillingMessageDto message, LocalDateTime scheduledAt, String channel) {
-        try {
-            String messageJson = objectMapper.writeValueAsString(message);
-            long epochSeconds = scheduledAt.atZone(ZoneId.systemDefault()).toEpochSecond();
-            
-            // 채널별 큐에 저장
-            String queueKey = QUEUE_KEY_PREFIX + channel;
-            redisTemplate.opsForZSet().add(queueKey, messageJson, epochSeconds);
-            
-            // 전체 큐에도 저장
-            redisTemplate.opsForZSet().add(ALL_QUEUE_KEY, messageJson, epochSeconds);
+    /**
+     * 이전 버전(member = JSON 전체) 예약을 member/payload/사용자 인덱스 구조로 이관 (최초 1회)
+     */
+    public int migrateLegacyMembers() {
+        // 공용 본문 저장소(payload:billing)를 쓰던 버전의 본문을 예약 큐 HASH로 이관
+        if (payloadStore.hasSharedPayloads()) {
+            payloadStore.adoptShared(PAYLOAD_KEY, REFS_KEY, queuedMembers());
+        }
+
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(LEGACY_MIGRATED_KEY))) {
+            return 0;
+        }
+        
+        List<ZSetOperations.TypedTuple<String>> legacy = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match("{*").count(1000).build();
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor = redisTemplate.opsForZSet().scan(ALL_QUEUE_KEY, options)) {
+            cursor.forEachRemaining(legacy::add);
+        }
+        
+        int migrated = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : legacy) {
+            String json = tuple.getValue();
+            BillingMessageDto message = parseMessage(json);
+            if (message == null || tuple.getScore() == null) {
+                continue;
+            }
+            String channel = CHANNELS.stream()
+                    .filter(c -> redisTemplate.opsForZSet().score(QUEUE_KEY_PREFIX + c, json) != null)
+                    .findFirst()
+                    .orElse("EMAIL");
             
-        } catch (JsonProcessingException e) {
-            log.error("❌ Failed to serialize message", e);
-            throw new RuntimeException("Failed to schedule message", e);
+            addToQueue(message, tuple.getScore().longValue(), channel);
+            redisTemplate.opsForZSet().remove(ALL_QUEUE_KEY, json);
+            redisTemplate.opsForZSet().remove(QUEUE_KEY_PREFIX + channel, json);
+            migrated++;
         }
+        
+        redisTemplate.opsForValue().set(LEGACY_MIGRATED_KEY, "1");
+        if (migrated > 0) {
+            log.info("🔀 [SCHEDULED] Migrated {} legacy scheduled message(s)", migrated);
+        }
+        return migrated;
+    }
+    
+    /**
+     * 예약 큐에 남아있는 member → 큐 항목 수 (대기 + inflight, 공용 저장소 이관용)
+     */
+    private Map<String, Integer> queuedMembers() {
+        Map<String, Integer> occurrences = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions().count(1000).build();
+        for (String key : List.of(ALL_QUEUE_KEY, INFLIGHT_KEY)) {
+            try (Cursor<ZSetOperations.TypedTuple<String>> cursor = redisTemplate.opsForZSet().scan(key, options)) {
+                cursor.forEachRemaining(tuple -> {
+                    // member = JSON 전체인 이전 구조는 본문 저장소를 쓰지 않음
+                    if (tuple.getValue() != null && !tuple.getValue().startsWith("{")) {
+                        occurrences.merge(tuple.getValue(), 1, Integer::sum);
+                    }
+                });
+            }
+        }
+        return occurrences;
+    }
+
+    private void addToQueue(BillingMessageDto message, LocalDateTime scheduledAt, String channel) {
+        addToQueue(message, scheduledAt.atZone(ZoneId.systemDefault()).toEpochSecond(), channel);
+    }
+    
+    private void addToQueue(BillingMessageDto message, long epochSeconds, String channel) {
+        redisTemplate.execute(ADD_SCRIPT, MessagePayloadStore.SCRIPT_ARGS, null,
+                List.of(ALL_QUEUE_KEY, QUEUE_KEY_PREFIX + normalizeChannel(channel),
+                        PAYLOAD_KEY, REFS_KEY, USER_INDEX_PREFIX + message.getUserId()),
+                memberId(message.getBillId(), channel), String.valueOf(epochSeconds), payloadStore.encode(message));
+    }
+    
+    private boolean removeSchedule(String memberId, Long userId) {
+        Long result = redisTemplate.execute(REMOVE_SCRIPT,
+                List.of(ALL_QUEUE_KEY, QUEUE_KEY_PREFIX + channelOf(memberId),
+                        PAYLOAD_KEY, REFS_KEY, USER_INDEX_PREFIX + userId),
+                memberId);
+        return result != null && result == 1;
+    }
+    
+    private List<BillingMessageDto> loadMessages(Collection<String> memberIds) {
+        return payloadStore.multiGetMessages(PAYLOAD_KEY, new ArrayList<>(memberIds));
+    }
+    
+    private String memberId(Long billId, String channel) {
+        return billId + ":" + normalizeChannel(channel);
+    }
+    
+    private String channelOf(String memberId) {
+        return memberId.substring(memberId.lastIndexOf(':') + 1);
+    }
+    
+    private String normalizeChannel(String channel) {
+        return channel != null ? channel.toUpperCase() : "EMAIL";
     }
     
     private BillingMessageDto parseMessage(String json) {
+        if (json == null) {
+            return null;
+        }
         try {
             return objectMapper.readValue(json, BillingMessageDto.class);
         } catch (JsonProcessingException e) {
@@ -419,4 +688,9 @@ public class ScheduledQueueService {
         return LocalDateTime.ofEpochSecond(epoch.longValue(), 0, 
                 ZoneId.systemDefault().getRules().getOffset(java.time.Instant.now()));
     }
+    
+    /**
+     * 꺼낸 예약 메시지 (memberId = "{billId}:{CHANNEL}", payload = 발행할 평문 bytes)
+     */
+    public record ScheduledMessage(String memberId, byte[] payload, long scheduledAtEpochSecond) {}
 }
\ No newline at end of file
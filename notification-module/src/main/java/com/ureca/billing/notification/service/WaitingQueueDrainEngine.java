@@ -0,0 +1,241 @@
+package com.ureca.billing.notification.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ureca.billing.notification.service.WaitingQueueReleaseService.DrainResult;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 대기열 연속 드레인 엔진 (08:00 일괄 해제용)
+ *
+ * - 한 번 시작하면 발송 가능한 메시지가 없어질 때까지 배치를 연달아 실행 (분당 1회 제한 없음)
+ * - 목표 속도(target-rate-per-sec)에 맞춰 배치 사이 간격 조절
+ * - Consumer Lag이 커지면 속도를 비례해서 낮추고, max-consumer-lag 이상이면 일시 정지
+ * - 인스턴스당 하나의 드레인 루프만 실행 (여러 인스턴스는 shard 락으로 분담)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitingQueueDrainEngine {
+
+    private static final double RATE_SMOOTHING = 0.3;
+    private static final double MIN_RATE_FACTOR = 0.1;
+    private static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private final WaitingQueueService queueService;
+    private final WaitingQueueReleaseService releaseService;
+    private final MessagePolicyService policyService;
+    private final ConsumerLagMonitor lagMonitor;
+
+    @Value("${notification.waiting-queue.drain.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notification.waiting-queue.drain.target-rate-per-sec:2000}")
+    private int targetRatePerSec;
+
+    @Value("${notification.waiting-queue.drain.max-consumer-lag:50000}")
+    private long maxConsumerLag;
+
+    @Value("${notification.waiting-queue.drain.lag-pause-ms:1000}")
+    private long lagPauseMs;
+
+    private final ExecutorService drainThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waiting-queue-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean stopRequested = false;
+
+    // 진행 상황 (모니터링용)
+    private volatile LocalDateTime startedAt;
+    private volatile long published;
+    private volatile long failed;
+    private volatile long batches;
+    private volatile double currentRate;
+    private volatile double effectiveTargetRate;
+    private volatile long lastLag = -1;
+    private volatile String state = "IDLE";
+
+    /**
+     * 드레인 시작 (이미 실행 중이면 무시)
+     *
+     * @param force true면 발송 시각/금지시간과 관계없이 드레인 (수동 처리용)
+     * @return 새로 시작했으면 true
+     */
+    public boolean start(boolean force) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested = false;
+        startedAt = LocalDateTime.now();
+        published = 0;
+        failed = 0;
+        batches = 0;
+        currentRate = 0;
+        state = "RUNNING";
+
+        drainThread.execute(() -> {
+            try {
+                runLoop(force);
+            } catch (Exception e) {
+                log.error("❌ [Drain] 드레인 루프 비정상 종료. error={}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+                state = stopRequested ? "STOPPED" : "IDLE";
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 진행 중인 드레인 중단 (현재 배치 완료 후 종료)
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void runLoop(boolean force) throws InterruptedException {
+        log.info("🚀 [Drain] 대기열 연속 드레인 시작. targetRate={}/s, batchSize={}, force={}",
+                targetRatePerSec, batchSize, force);
+        int consecutiveFailures = 0;
+
+        while (!stopRequested) {
+            if (!force && policyService.isBlockTime()) {
+                log.info("⏰ [Drain] 금지 시간 진입 → 드레인 중단");
+                break;
+            }
+
+            // 1. 하위 처리량(Consumer Lag)에 맞춰 속도 조절
+            double rate = adjustedRate();
+            if (rate <= 0) {
+                state = "PAUSED_BY_LAG";
+                TimeUnit.MILLISECONDS.sleep(lagPauseMs);
+                continue;
+            }
+            state = "RUNNING";
+
+            // 2. 배치 실행
+            long batchStart = System.nanoTime();
+            DrainResult result = releaseService.drain(batchSize, force);
+            published += result.getPublished();
+            failed += result.getFailed();
+            batches++;
+
+            if (result.getPublished() == 0 && result.getFailed() == 0) {
+                if (result.getSkippedShards() == 0) {
+                    break;  // 발송 가능한 메시지 없음 → 드레인 완료
+                }
+                // 다른 인스턴스가 모든 shard를 처리 중 → 잠시 후 재시도
+                TimeUnit.MILLISECONDS.sleep(lagPauseMs);
+                continue;
+            }
+
+            if (result.getPublished() == 0) {
+                // 전부 실패 (Kafka 장애 등) → 메시지는 requeue 되어 있으므로 백오프 후 재시도
+                if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                    log.error("❌ [Drain] 연속 {}회 발행 실패 → 드레인 중단", consecutiveFailures);
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(lagPauseMs * consecutiveFailures);
+                continue;
+            }
+            consecutiveFailures = 0;
+
+            // 3. 목표 속도에 맞춰 다음 배치까지 대기
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStart);
+            long expectedMs = (long) (result.getPublished() * 1000 / rate);
+            if (expectedMs > elapsedMs) {
+                TimeUnit.MILLISECONDS.sleep(expectedMs - elapsedMs);
+            }
+
+            long batchMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStart));
+            double batchRate = result.getPublished() * 1000.0 / batchMs;
+            currentRate = currentRate == 0 ? batchRate
+                    : RATE_SMOOTHING * batchRate + (1 - RATE_SMOOTHING) * currentRate;
+        }
+
+        log.info("🏁 [Drain] 대기열 드레인 종료. published={}, failed={}, batches={}, elapsed={}s",
+                published, failed, batches,
+                Duration.between(startedAt, LocalDateTime.now()).toSeconds());
+    }
+
+    /**
+     * Lag이 0이면 목표 속도, max-consumer-lag에 가까울수록 선형 감소, 초과 시 0 (일시 정지)
+     */
+    private double adjustedRate() {
+        long lag = lagMonitor.getLag();
+        lastLag = lag;
+
+        double rate;
+        if (lag < 0) {
+            rate = targetRatePerSec;  // Lag 조회 실패 → 목표 속도 유지
+        } else if (lag >= maxConsumerLag) {
+            rate = 0;
+        } else {
+            double factor = 1.0 - (double) lag / maxConsumerLag;
+            rate = targetRatePerSec * Math.max(MIN_RATE_FACTOR, factor);
+        }
+        effectiveTargetRate = rate;
+        return rate;
+    }
+
+    /**
+     * 진행 상황 (남은 건수, 현재 속도, 예상 완료 시간)
+     */
+    public DrainProgress getProgress() {
+        long remaining = queueService.getQueueSize();
+        double rate = running.get() ? currentRate : 0;
+        Long etaSeconds = rate > 0 ? (long) Math.ceil(remaining / rate) : null;
+
+        return new DrainProgress(
+                state,
+                startedAt,
+                published,
+                failed,
+                batches,
+                remaining,
+                Math.round(rate),
+                Math.round(effectiveTargetRate),
+                targetRatePerSec,
+                lastLag,
+                etaSeconds
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        drainThread.shutdown();
+    }
+
+    public record DrainProgress(
+            String state,
+            LocalDateTime startedAt,
+            long published,
+            long failed,
+            long batches,
+            long remaining,
+            long ratePerSec,
+            long effectiveTargetRatePerSec,
+            long targetRatePerSec,
+            long consumerLag,
+            Long etaSeconds
+    ) {}
+}
@@ -0,0 +1,123 @@
+package com.ureca.billing.notification.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ureca.billing.notification.service.WaitingQueueService.QueuedMessage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 대기열 → Kafka 재발행 (shard 단위 드레인)
+ *
+ * - shard 순서를 섞어서 순회 → 여러 인스턴스가 서로 다른 shard부터 락을 잡아 병렬로 드레인
+ * - 이미 다른 인스턴스가 락을 잡은 shard는 건너뜀
+ * - pop → 일괄 발행 → 성공분 ACK / 실패분 requeue (꺼낸 메시지는 inflight로 보호되어 유실 없음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitingQueueReleaseService {
+
+    private static final String TOPIC = "billing-event";
+    private static final int LEGACY_MIGRATION_BATCH = 1000;
+
+    private final WaitingQueueService queueService;
+    private final KafkaBatchPublisher kafkaBatchPublisher;
+
+    @Value("${notification.waiting-queue.inflight-timeout-ms:120000}")
+    private long inflightTimeoutMs;
+
+    /**
+     * 대기열 드레인
+     *
+     * @param maxCount 이번 호출에서 재발행할 최대 건수
+     * @param force true면 발송 시각과 관계없이 재발행 (수동 처리용)
+     */
+    public DrainResult drain(int maxCount, boolean force) {
+        // 이전 버전 단일 ZSET에 남아있는 메시지 이관
+        queueService.migrateLegacyQueue(LEGACY_MIGRATION_BATCH);
+
+        List<Integer> shards = IntStream.range(0, queueService.getShardCount())
+                .boxed()
+                .collect(Collectors.toList());
+        Collections.shuffle(shards);
+
+        DrainResult result = new DrainResult();
+        for (int shard : shards) {
+            int remaining = maxCount - result.published;
+            if (remaining <= 0) {
+                break;
+            }
+
+            String token = queueService.tryLockShard(shard);
+            if (token == null) {
+                result.skippedShards++;
+                continue;
+            }
+
+            try {
+                drainShard(shard, remaining, force, result);
+            } finally {
+                queueService.unlockShard(shard, token);
+            }
+        }
+
+        return result;
+    }
+
+    private void drainShard(int shard, int limit, boolean force, DrainResult result) {
+        // 1. 원자적 pop (꺼낸 메시지는 inflight에 등록됨)
+        List<QueuedMessage> messages = queueService.popReady(shard, limit, force);
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // 2. 일괄 발행 후 한 번만 대기
+        boolean[] succeeded = kafkaBatchPublisher.publishAll(TOPIC,
+                messages.stream().map(QueuedMessage::payload).toList());
+
+        List<String> published = new ArrayList<>(messages.size());
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            (succeeded[i] ? published : failed).add(messages.get(i).messageId());
+        }
+
+        // 3. 성공분 ACK, 실패분은 즉시 되돌림 (다음 드레인에서 재시도)
+        queueService.acknowledge(shard, published);
+        if (!failed.isEmpty()) {
+            queueService.requeue(shard, failed);
+            log.error("❌ [WaitingQueue] Failed to re-publish {} message(s). shard={} → requeued", failed.size(), shard);
+        }
+
+        result.published += published.size();
+        result.failed += failed.size();
+        log.debug("📤 [WaitingQueue] shard={} re-published {} message(s)", shard, published.size());
+    }
+
+    /**
+     * 발행 도중 장애로 남은 inflight 메시지 복구 (모든 shard)
+     */
+    public long recoverStale() {
+        long recovered = 0;
+        for (int shard = 0; shard < queueService.getShardCount(); shard++) {
+            recovered += queueService.recoverStale(shard, inflightTimeoutMs);
+        }
+        return recovered;
+    }
+
+    @Getter
+    public static class DrainResult {
+        private int published;
+        private int failed;
+        private int skippedShards;
+    }
+}
@@ -5,139 +5,633 @@ import com.ureca.billing.core.dto.BillingMessageDto;  // ✅ core-module의 DTO
 import com.ureca.billing.notification.domain.dto.WaitingQueueStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 금지시간 대기열 (Shard + 발송 분 단위 Bucket)
+ *
+ * Redis 구조:
+ * - queue:waiting:{s<N>}:bucket:<yyyyMMddHHmm> : SET, 해당 분에 발송될 메시지 ID(billId:channel)
+ * - queue:waiting:{s<N>}:buckets               : ZSET, 비어있지 않은 bucket 목록 (score = epoch 분)
+ * - queue:waiting:{s<N>}:inflight              : ZSET, 꺼냈지만 발행 확인 전인 메시지 ID (score = 꺼낸 시각 ms)
+ * - queue:waiting:{s<N>}:lock                  : 드레인 lease 락 (한 shard는 한 인스턴스만 드레인)
+ * - queue:waiting:{s<N>}:payload(:refs)        : HASH, 메시지 본문과 참조 수 (MessagePayloadStore, 큐 항목 추가/제거 시 참조 조정)
+ *
+ * 모든 키가 같은 hash tag({s<N>})를 쓰므로 shard 스크립트는 Redis Cluster에서도 한 slot 안에서만 동작한다.
+ *
+ * 08:00에 수백만 건이 몰려도 shard 수만큼 키가 나뉘고, 여러 스케줄러 인스턴스가 shard 단위로 병렬 드레인한다.
+ *
+ * 드레인 흐름 (pop → 발행 → ack):
+ * 1. popReady: bucket에서 꺼내면서 같은 Lua 안에서 inflight에 등록 (원자적, 중복 꺼냄 없음)
+ * 2. 발행 성공분은 acknowledge (inflight 제거 + 본문 참조 해제), 실패분은 requeue로 즉시 되돌림
+ * 3. 발행 도중 인스턴스가 죽으면 recoverStale이 오래된 inflight를 bucket으로 되돌림
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WaitingQueueService {
-    
+
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
-    
-    private static final String QUEUE_KEY = "queue:message:waiting";
-    
+    private final MessagePayloadStore payloadStore;
+
+    /** 이전 버전 단일 ZSET (배포 전 적재분 이관용) */
+    private static final String LEGACY_QUEUE_KEY = "queue:message:waiting";
+    private static final String KEY_PREFIX = "queue:waiting:";
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    /**
+     * KEYS = [buckets, payload, inflight]
+     * ARGV = [max epoch 분, limit, 꺼낸 시각 ms, bucket key prefix]
+     * return = [id1, 본문1, id2, 본문2, ...] (본문은 저장된 bytes 그대로)
+     */
+    private static final DefaultRedisScript<List> POP_READY_SCRIPT = new DefaultRedisScript<>("""
+            local limit = tonumber(ARGV[2])
+            local result = {}
+            local buckets = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])
+            for _, bucket in ipairs(buckets) do
+                if limit <= 0 then
+                    break
+                end
+                local ids = redis.call('SPOP', ARGV[4] .. bucket, limit)
+                if #ids < limit then
+                    redis.call('ZREM', KEYS[1], bucket)
+                end
+                for _, id in ipairs(ids) do
+                    local payload = redis.call('HGET', KEYS[2], id)
+                    if payload then
+                        redis.call('ZADD', KEYS[3], ARGV[3], id)
+                        result[#result + 1] = id
+                        result[#result + 1] = payload
+                    end
+                end
+                limit = limit - #ids
+            end
+            return result
+            """, List.class);
+
+    /**
+     * inflight → 현재 분 bucket으로 되돌리기
+     * KEYS = [inflight, payload, buckets, 대상 bucket]
+     * ARGV = [대상 bucket 이름, 대상 epoch 분, mode('ids' | 'stale'), stale 기준 시각 ms, id...]
+     * return = 되돌린 건수
+     */
+    private static final DefaultRedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            local ids
+            if ARGV[3] == 'stale' then
+                ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[4], 'LIMIT', 0, 1000)
+            else
+                ids = {unpack(ARGV, 5)}
+            end
+            local restored = 0
+            for _, id in ipairs(ids) do
+                if redis.call('ZREM', KEYS[1], id) == 1 and redis.call('HEXISTS', KEYS[2], id) == 1 then
+                    redis.call('SADD', KEYS[4], id)
+                    restored = restored + 1
+                end
+            end
+            if restored > 0 then
+                redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+            end
+            return restored
+            """, Long.class);
+
+    /**
+     * 대기열 추가 (bucket에 새로 들어간 경우에만 본문 참조 +1)
+     * KEYS = [bucket, buckets, payload, refs]
+     * ARGV = [id, 본문, epoch 분, bucket 이름]
+     */
+    private static final DefaultRedisScript<Long> ENQUEUE_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            local added = redis.call('SADD', KEYS[1], ARGV[1]) == 1
+            retain_payload(KEYS[3], KEYS[4], ARGV[1], ARGV[2], added)
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[4])
+            return added and 1 or 0
+            """, Long.class);
+
+    /**
+     * 발행 완료 (inflight 제거 + 본문 참조 해제)
+     * KEYS = [inflight, payload, refs], ARGV = [id...]
+     */
+    private static final DefaultRedisScript<Long> ACK_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            local acked = 0
+            for _, id in ipairs(ARGV) do
+                if redis.call('ZREM', KEYS[1], id) == 1 then
+                    release_payload(KEYS[2], KEYS[3], id)
+                    acked = acked + 1
+                end
+            end
+            return acked
+            """, Long.class);
+
+    /**
+     * 메시지 제거 (모든 bucket + inflight에서 빼고, 빠진 항목 수만큼 참조 해제)
+     * KEYS = [buckets, inflight, payload, refs], ARGV = [id, bucket key prefix]
+     */
+    private static final DefaultRedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            MessagePayloadStore.LUA_FUNCTIONS + """
+            local removed = 0
+            for _, bucket in ipairs(redis.call('ZRANGE', KEYS[1], 0, -1)) do
+                removed = removed + redis.call('SREM', ARGV[2] .. bucket, ARGV[1])
+            end
+            removed = removed + redis.call('ZREM', KEYS[2], ARGV[1])
+            for _ = 1, removed do
+                release_payload(KEYS[3], KEYS[4], ARGV[1])
+            end
+            return removed
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    @Value("${notification.waiting-queue.shards:16}")
+    private int shardCount;
+
+    @Value("${notification.waiting-queue.lock-ttl-ms:30000}")
+    private long lockTtlMs;
+
+    private volatile boolean legacyPayloadsAdopted = false;
+
     /**
      * 대기열에 메시지 추가 (DTO)
      */
     public void addToQueue(BillingMessageDto message) {
         try {
-            LocalDateTime releaseTime = calculateReleaseTime();
-            long score = releaseTime.atZone(ZoneId.systemDefault()).toEpochSecond();
-            
-            String messageJson = objectMapper.writeValueAsString(message);
-            
-            redisTemplate.opsForZSet().add(QUEUE_KEY, messageJson, score);
-            
-            log.info("📥 Message added to waiting queue. billId={}, releaseTime={}", 
+            LocalDateTime releaseTime = enqueue(message, calculateReleaseTime());
+
+            log.info("📥 Message added to waiting queue. billId={}, releaseTime={}",
                     message.getBillId(), releaseTime);
-            
+
         } catch (Exception e) {
             log.error("❌ Failed to add message to queue: {}", e.getMessage());
             throw new RuntimeException("Failed to add to queue", e);
         }
     }
-    
+
     /**
      * 대기열에 메시지 추가 (JSON String) - 기존 코드 호환용
      */
     public void addToQueue(String messageJson) {
         try {
-            // JSON 유효성 검증을 위해 파싱
+            // JSON 유효성 검증 + 메시지 ID 추출을 위해 파싱
             BillingMessageDto message = objectMapper.readValue(messageJson, BillingMessageDto.class);
-            
-            LocalDateTime releaseTime = calculateReleaseTime();
-            long score = releaseTime.atZone(ZoneId.systemDefault()).toEpochSecond();
-            
-            redisTemplate.opsForZSet().add(QUEUE_KEY, messageJson, score);
-            
-            log.info("📥 Message added to waiting queue (from JSON). billId={}, releaseTime={}", 
+            LocalDateTime releaseTime = enqueue(message, calculateReleaseTime());
+
+            log.info("📥 Message added to waiting queue (from JSON). billId={}, releaseTime={}",
                     message.getBillId(), releaseTime);
-            
+
         } catch (Exception e) {
             log.error("❌ Failed to add message to queue: {}", e.getMessage());
             throw new RuntimeException("Failed to add to queue", e);
         }
     }
-    
+
+    /**
+     * 발송 시각이 지난 메시지를 shard에서 최대 limit개 꺼내기 (원자적으로 inflight 등록)
+     * - 발행 완료 후 acknowledge, 발행 실패 시 requeue
+     *
+     * @param force true면 발송 시각과 관계없이 꺼냄 (수동 처리용)
+     */
+    @SuppressWarnings("unchecked")
+    public List<QueuedMessage> popReady(int shard, int limit, boolean force) {
+        String maxMinute = force ? "+inf" : String.valueOf(currentEpochMinute());
+
+        // 본문이 압축된 bytes일 수 있으므로 결과를 역직렬화하지 않고 받음
+        List<byte[]> raw = (List<byte[]>) redisTemplate.execute(POP_READY_SCRIPT, MessagePayloadStore.SCRIPT_ARGS, null,
+                List.of(bucketsKey(shard), payloadKey(shard), inflightKey(shard)),
+                maxMinute, String.valueOf(limit), String.valueOf(System.currentTimeMillis()),
+                shardPrefix(shard) + "bucket:");
+
+        List<QueuedMessage> result = new ArrayList<>();
+        if (raw == null) {
+            return result;
+        }
+        for (int i = 0; i + 1 < raw.size(); i += 2) {
+            result.add(new QueuedMessage(shard,
+                    new String(raw.get(i), StandardCharsets.UTF_8), payloadStore.toMessageBytes(raw.get(i + 1))));
+        }
+        return result;
+    }
+
+    /**
+     * 발행 완료된 메시지 정리 (inflight 제거 + 본문 참조 해제)
+     */
+    public void acknowledge(int shard, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(ACK_SCRIPT,
+                List.of(inflightKey(shard), payloadKey(shard), refsKey(shard)),
+                messageIds.toArray());
+    }
+
+    /**
+     * 발행 실패한 메시지를 즉시 현재 분 bucket으로 되돌림
+     */
+    public long requeue(int shard, List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        List<String> args = new ArrayList<>(messageIds.size() + 4);
+        args.addAll(restoreTargetArgs("ids", 0));
+        args.addAll(messageIds);
+        return restore(shard, args);
+    }
+
+    /**
+     * 꺼낸 뒤 timeoutMs 이상 ACK되지 않은 메시지(발행 도중 인스턴스 장애)를 bucket으로 복구
+     */
+    public long recoverStale(int shard, long timeoutMs) {
+        long restored = restore(shard, restoreTargetArgs("stale", System.currentTimeMillis() - timeoutMs));
+        if (restored > 0) {
+            log.warn("♻️ [WaitingQueue] Recovered {} stale in-flight message(s). shard={}", restored, shard);
+        }
+        return restored;
+    }
+
+    private List<String> restoreTargetArgs(String mode, long staleBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        return List.of(now.format(BUCKET_FORMAT),
+                String.valueOf(currentEpochMinute()),
+                mode,
+                String.valueOf(staleBefore));
+    }
+
+    private long restore(int shard, List<String> args) {
+        String bucket = args.get(0);
+        Long restored = redisTemplate.execute(RESTORE_SCRIPT,
+                List.of(inflightKey(shard), payloadKey(shard), bucketsKey(shard), bucketKey(shard, bucket)),
+                args.toArray());
+        return restored != null ? restored : 0;
+    }
+
+    /**
+     * shard 드레인 락 획득 (여러 인스턴스가 같은 shard를 동시에 드레인하지 않도록)
+     *
+     * @return 락 토큰 (획득 실패 시 null)
+     */
+    public String tryLockShard(int shard) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(lockKey(shard), token, lockTtlMs, TimeUnit.MILLISECONDS);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void unlockShard(int shard, String token) {
+        redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey(shard)), token);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
     /**
-     * 발송 가능한 메시지 조회 (현재 시간 이전)
+     * 이전 단일 ZSET에 남아있는 메시지를 shard 구조로 이관
+     *
+     * @return 이관한 건수
+     */
+    public int migrateLegacyQueue(int batchSize) {
+        // 공용 본문 저장소(payload:billing)를 쓰던 버전의 본문을 shard HASH로 이관 (프로세스당 1회)
+        if (!legacyPayloadsAdopted) {
+            if (payloadStore.hasSharedPayloads()) {
+                for (int shard = 0; shard < shardCount; shard++) {
+                    payloadStore.adoptShared(payloadKey(shard), refsKey(shard), queuedIds(shard));
+                }
+            }
+            legacyPayloadsAdopted = true;
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> legacy =
+                redisTemplate.opsForZSet().rangeWithScores(LEGACY_QUEUE_KEY, 0, batchSize - 1);
+        if (legacy == null || legacy.isEmpty()) {
+            return 0;
+        }
+
+        int migrated = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : legacy) {
+            String messageJson = tuple.getValue();
+            try {
+                BillingMessageDto message = objectMapper.readValue(messageJson, BillingMessageDto.class);
+                // 기존 score(발송 epoch 초)를 그대로 발송 시각으로 사용
+                LocalDateTime releaseTime = LocalDateTime.ofInstant(
+                        Instant.ofEpochSecond(tuple.getScore().longValue()), ZoneId.systemDefault());
+                enqueue(message, releaseTime);
+                migrated++;
+            } catch (Exception e) {
+                log.error("❌ Legacy queue message skipped: {}", e.getMessage());
+            }
+            redisTemplate.opsForZSet().remove(LEGACY_QUEUE_KEY, messageJson);
+        }
+        log.info("🔀 Migrated {} message(s) from legacy waiting queue", migrated);
+        return migrated;
+    }
+
+    /**
+     * 발송 가능한 메시지 조회 (현재 시간 이전, 제거하지 않음 - 모니터링용)
      */
     public Set<String> getReadyMessages(int limit) {
-        long now = System.currentTimeMillis() / 1000;
-        
-        Set<String> messages = redisTemplate.opsForZSet()
-                .rangeByScore(QUEUE_KEY, 0, now, 0, limit);
-        
-        log.info("📤 Found {} ready messages in queue", messages != null ? messages.size() : 0);
-        
+        long now = currentEpochMinute();
+        Set<String> messages = new LinkedHashSet<>();
+
+        for (int shard = 0; shard < shardCount && messages.size() < limit; shard++) {
+            Set<String> buckets = redisTemplate.opsForZSet().rangeByScore(bucketsKey(shard), 0, now);
+            if (buckets == null) {
+                continue;
+            }
+            for (String bucket : buckets) {
+                int remaining = limit - messages.size();
+                if (remaining <= 0) {
+                    break;
+                }
+                List<String> ids = redisTemplate.opsForSet().randomMembers(bucketKey(shard, bucket), remaining);
+                if (ids == null || ids.isEmpty()) {
+                    continue;
+                }
+                // randomMembers는 중복을 허용하므로 distinct 처리
+                List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+                for (String payload : payloadStore.multiGet(payloadKey(shard), distinctIds)) {
+                    if (payload != null) {
+                        messages.add(payload);
+                    }
+                }
+            }
+        }
+
+        log.info("📤 Found {} ready messages in queue", messages.size());
         return messages;
     }
-    
+
     /**
      * 대기열에서 메시지 제거
      */
     public void removeFromQueue(String messageJson) {
-        Long removed = redisTemplate.opsForZSet().remove(QUEUE_KEY, messageJson);
-        log.debug("🗑️ Removed {} message(s) from queue", removed);
+        try {
+            BillingMessageDto message = objectMapper.readValue(messageJson, BillingMessageDto.class);
+            String messageId = messageId(message);
+            int shard = shardOf(messageId);
+
+            Long removed = redisTemplate.execute(REMOVE_SCRIPT,
+                    List.of(bucketsKey(shard), inflightKey(shard),
+                            payloadKey(shard), refsKey(shard)),
+                    messageId, shardPrefix(shard) + "bucket:");
+            log.debug("🗑️ Removed {} message(s) from queue", removed);
+        } catch (Exception e) {
+            log.error("❌ Failed to remove message from queue: {}", e.getMessage());
+        }
     }
-    
+
     /**
-     * 대기열 크기 확인
+     * 대기열 크기 확인 (shard별 bucket 크기 + inflight 합계)
+     * - bucket은 발송 분 단위라 shard당 개수가 적음 (보통 다음날 08:00 하나)
      */
+    @SuppressWarnings("unchecked")
     public long getQueueSize() {
-        Long size = redisTemplate.opsForZSet().size(QUEUE_KEY);
-        return size != null ? size : 0;
+        List<Object> perShard = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int shard = 0; shard < shardCount; shard++) {
+                connection.zSetCommands().zRange(bytes(bucketsKey(shard)), 0, -1);
+                connection.zSetCommands().zCard(bytes(inflightKey(shard)));
+            }
+            return null;
+        });
+
+        long total = 0;
+        List<String> bucketKeys = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            Set<String> buckets = (Set<String>) perShard.get(shard * 2);
+            Long inflight = (Long) perShard.get(shard * 2 + 1);
+            total += inflight != null ? inflight : 0L;
+            if (buckets != null) {
+                for (String bucket : buckets) {
+                    bucketKeys.add(bucketKey(shard, bucket));
+                }
+            }
+        }
+
+        if (!bucketKeys.isEmpty()) {
+            List<Object> sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                bucketKeys.forEach(key -> connection.setCommands().sCard(bytes(key)));
+                return null;
+            });
+            total += sizes.stream().mapToLong(size -> size != null ? (Long) size : 0L).sum();
+        }
+
+        // 아직 이관되지 않은 이전 버전 대기열 포함
+        Long legacySize = redisTemplate.opsForZSet().size(LEGACY_QUEUE_KEY);
+        return total + (legacySize != null ? legacySize : 0L);
     }
 
     /**
      * 대기열 전체 삭제 (테스트용)
      */
     public void clearQueue() {
-        Boolean deleted = redisTemplate.delete(QUEUE_KEY);
-        log.info("🗑️ Waiting queue cleared. deleted={}", deleted);
+        List<String> keys = new ArrayList<>();
+        keys.add(LEGACY_QUEUE_KEY);
+        for (int shard = 0; shard < shardCount; shard++) {
+            // shard 본문 HASH의 참조부터 해제
+            Set<String> ids = new LinkedHashSet<>();
+            Set<String> buckets = redisTemplate.opsForZSet().range(bucketsKey(shard), 0, -1);
+            if (buckets != null) {
+                for (String bucket : buckets) {
+                    Set<String> members = redisTemplate.opsForSet().members(bucketKey(shard, bucket));
+                    if (members != null) {
+                        ids.addAll(members);
+                    }
+                }
+            }
+            Set<String> inflight = redisTemplate.opsForZSet().range(inflightKey(shard), 0, -1);
+            if (inflight != null) {
+                ids.addAll(inflight);
+            }
+            for (String id : ids) {
+                redisTemplate.execute(REMOVE_SCRIPT,
+                        List.of(bucketsKey(shard), inflightKey(shard),
+                                payloadKey(shard), refsKey(shard)),
+                        id, shardPrefix(shard) + "bucket:");
+            }
+
+            if (buckets != null) {
+                for (String bucket : buckets) {
+                    keys.add(bucketKey(shard, bucket));
+                }
+            }
+            keys.add(bucketsKey(shard));
+            keys.add(inflightKey(shard));
+            keys.add(payloadKey(shard));
+            keys.add(refsKey(shard));
+        }
+        Long deleted = redisTemplate.delete(keys);
+        log.info("🗑️ Waiting queue cleared. deletedKeys={}", deleted);
     }
-    
+
+    /**
+     * shard 본문 HASH 통계 (모니터링용)
+     */
+    public Map<String, Object> getPayloadStats() {
+        List<String> payloadKeys = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            payloadKeys.add(payloadKey(shard));
+        }
+        return payloadStore.getStats(payloadKeys);
+    }
+
     /**
      * 대기열 상태 조회
      */
     public WaitingQueueStatus getQueueStatus() {
-        Long totalCount = redisTemplate.opsForZSet().size(QUEUE_KEY);
-        
-        long now = System.currentTimeMillis() / 1000;
-        Long readyCount = redisTemplate.opsForZSet().count(QUEUE_KEY, 0, now);
-        
-        Set<String> readyMessages = getReadyMessages(10);
-        
-        List<String> messageList = readyMessages != null 
-                ? readyMessages.stream().limit(10).collect(Collectors.toList())
-                : List.of();
-        
+        long now = currentEpochMinute();
+        long readyCount = 0;
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            Set<String> buckets = redisTemplate.opsForZSet().rangeByScore(bucketsKey(shard), 0, now);
+            if (buckets == null) {
+                continue;
+            }
+            for (String bucket : buckets) {
+                Long size = redisTemplate.opsForSet().size(bucketKey(shard, bucket));
+                readyCount += size != null ? size : 0;
+            }
+        }
+
+        List<String> messageList = new ArrayList<>(getReadyMessages(10));
+
         return WaitingQueueStatus.builder()
-                .totalCount(totalCount != null ? totalCount : 0)
-                .queueKey(QUEUE_KEY)
-                .readyCount(readyCount != null ? readyCount : 0)
+                .totalCount(getQueueSize())
+                .queueKey(KEY_PREFIX + "{s*}")
+                .readyCount(readyCount)
                 .readyMessages(messageList)
                 .build();
     }
-    
+
+    /**
+     * bucket에 ID 추가 + 본문 저장/참조 + bucket 인덱스 갱신 (한 번의 Lua)
+     */
+    private LocalDateTime enqueue(BillingMessageDto message, LocalDateTime releaseTime) {
+        long epochMinute = releaseTime.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+        String bucket = releaseTime.format(BUCKET_FORMAT);
+
+        String messageId = messageId(message);
+        int shard = shardOf(messageId);
+
+        redisTemplate.execute(ENQUEUE_SCRIPT, MessagePayloadStore.SCRIPT_ARGS, null,
+                List.of(bucketKey(shard, bucket), bucketsKey(shard),
+                        payloadKey(shard), refsKey(shard)),
+                messageId, payloadStore.encode(message), String.valueOf(epochMinute), bucket);
+
+        return releaseTime;
+    }
+
+    /**
+     * shard에 남아있는 메시지 ID → 큐 항목 수 (bucket + inflight, 공용 저장소 이관용)
+     */
+    private Map<String, Integer> queuedIds(int shard) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        Set<String> buckets = redisTemplate.opsForZSet().range(bucketsKey(shard), 0, -1);
+        if (buckets != null) {
+            ScanOptions options = ScanOptions.scanOptions().count(1000).build();
+            for (String bucket : buckets) {
+                try (Cursor<String> cursor = redisTemplate.opsForSet().scan(bucketKey(shard, bucket), options)) {
+                    cursor.forEachRemaining(id -> occurrences.merge(id, 1, Integer::sum));
+                }
+            }
+        }
+        Set<String> inflight = redisTemplate.opsForZSet().range(inflightKey(shard), 0, -1);
+        if (inflight != null) {
+            inflight.forEach(id -> occurrences.merge(id, 1, Integer::sum));
+        }
+        return occurrences;
+    }
+
+    /**
+     * 메시지 ID: billId:channel (같은 청구/채널은 대기열에 한 번만 존재)
+     */
+    private String messageId(BillingMessageDto message) {
+        String channel = message.getNotificationType() != null
+                ? message.getNotificationType().toUpperCase() : "EMAIL";
+        return message.getBillId() + ":" + channel;
+    }
+
+    private int shardOf(String messageId) {
+        return Math.floorMod(messageId.hashCode(), shardCount);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long currentEpochMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private String shardPrefix(int shard) {
+        return KEY_PREFIX + "{s" + shard + "}:";
+    }
+
+    private String bucketKey(int shard, String bucket) {
+        return shardPrefix(shard) + "bucket:" + bucket;
+    }
+
+    private String bucketsKey(int shard) {
+        return shardPrefix(shard) + "buckets";
+    }
+
+    private String inflightKey(int shard) {
+        return shardPrefix(shard) + "inflight";
+    }
+
+    private String lockKey(int shard) {
+        return shardPrefix(shard) + "lock";
+    }
+
+    private String payloadKey(int shard) {
+        return shardPrefix(shard) + "payload";
+    }
+
+    private String refsKey(int shard) {
+        return shardPrefix(shard) + "payload:refs";
+    }
+
     /**
      * 다음 발송 가능 시간 계산
      */
     private LocalDateTime calculateReleaseTime() {
         // ✅ 테스트용: 즉시 발송 가능하도록 과거 시간 설정
         // return LocalDateTime.now().minusMinutes(1);
-        
+
         // 🚀 운영용: 다음날 08:00
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime nextRelease = now.toLocalDate().plusDays(1).atTime(8, 0);
         return nextRelease;
     }
-}
\ No newline at end of file
+
+    /**
+     * 대기열에서 꺼낸 메시지 (shard, 메시지 ID, 발행할 평문 bytes)
+     */
+    public record QueuedMessage(int shard, String messageId, byte[] payload) {
+    }
+}
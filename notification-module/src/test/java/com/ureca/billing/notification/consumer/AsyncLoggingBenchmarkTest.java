@@ -0,0 +1,123 @@
+package com.ureca.billing.notification.consumer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * 동기 출력 vs AsyncAppender(logback-spring.xml async-logging 프로필과 같은 설정) 호출 스레드 비용 비교
+ * (./gradlew :notification-module:test -Dbenchmark=true)
+ *
+ * - 출력 대상은 immediateFlush 파일 (Console처럼 줄마다 write 호출)
+ * - 호출 스레드가 log.info에서 돌아오기까지의 시간과, 비동기 쪽에서 버려진 줄 수를 함께 출력
+ */
+class AsyncLoggingBenchmarkTest {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m%n";
+    private static final int QUEUE_SIZE = 8192;
+    private static final int DISCARDING_THRESHOLD = 1638;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSyncAgainstAsyncAppender() throws Exception {
+        int threads = 8;
+        int perThread = 100_000;
+        for (int round = 0; round < 3; round++) {
+            Result sync = run(false, threads, perThread, round);
+            Result async = run(true, threads, perThread, round);
+            System.out.printf("round %d: sync %.0f ns/call (%d lines), async %.0f ns/call (%d/%d lines written)%n",
+                    round, sync.nsPerCall(), sync.written(), async.nsPerCall(), async.written(), threads * perThread);
+        }
+    }
+
+    private Result run(boolean async, int threads, int perThread, int round) throws Exception {
+        LoggerContext context = new LoggerContext();
+        Path file = dir.resolve((async ? "async-" : "sync-") + round + ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.setImmediateFlush(true);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(QUEUE_SIZE);
+            asyncAppender.setDiscardingThreshold(DISCARDING_THRESHOLD);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger logger = context.getLogger(BillingEventConsumer.class);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+
+        Thread[] workers = new Thread[threads];
+        long[] elapsed = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                long start = System.nanoTime();
+                for (int i = 0; i < perThread; i++) {
+                    logger.info("[P{}-0{}] 메시지 처리 완료: billId={}, channel={}", index, i, i, "EMAIL");
+                }
+                elapsed[index] = System.nanoTime() - start;
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.MINUTES.toMillis(5));
+        }
+        // AsyncAppender.stop()은 큐에 남은 이벤트를 maxFlushTime까지 비운 뒤 종료
+        context.stop();
+
+        long total = 0;
+        for (long e : elapsed) {
+            total += e;
+        }
+        return new Result(total / (double) (threads * perThread), countLines(file));
+    }
+
+    private static long countLines(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.count();
+        }
+    }
+
+    private record Result(double nsPerCall, long written) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.ureca.billing.notification.consumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.consumer.handler.DuplicateCheckHandler;
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
+import com.ureca.billing.notification.domain.repository.NotificationRepository;
+
+class DeadLetterConsumerTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationBulkRepository bulkRepository;
+    private DuplicateCheckHandler duplicateCheckHandler;
+    private BillingRecordDecoder recordDecoder;
+    private DeadLetterConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        bulkRepository = mock(NotificationBulkRepository.class);
+        duplicateCheckHandler = mock(DuplicateCheckHandler.class);
+        recordDecoder = mock(BillingRecordDecoder.class);
+        consumer = new DeadLetterConsumer(notificationRepository, bulkRepository, new ObjectMapper(),
+                duplicateCheckHandler, recordDecoder);
+
+        when(notificationRepository.findAllByBillIdInAndType(anyCollection(), anyString())).thenReturn(List.of());
+        when(recordDecoder.decode(any(), any())).thenReturn(message(1L), message(2L));
+    }
+
+    @Test
+    void upsertFailureReleasesSmsClaimsAndSkipsAck() {
+        // billId 1은 이번에 선점, 2는 이미 발송된 상태
+        when(duplicateCheckHandler.bulkClaimSent(List.of(1L, 2L), "SMS")).thenReturn(List.of(true, false));
+        when(bulkRepository.upsertAll(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        assertThatThrownBy(() -> consumer.listenDeadLetter(List.of(record(0), record(1)), ack))
+                .isInstanceOf(IllegalStateException.class);
+
+        // 이번 배치가 선점한 키만 반납 → 재전달 시 billId 1 SMS가 다시 선점/저장됨
+        verify(duplicateCheckHandler).bulkReleaseSent(List.of(1L), "SMS");
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void successfulUpsertKeepsClaims() {
+        when(duplicateCheckHandler.bulkClaimSent(List.of(1L, 2L), "SMS")).thenReturn(List.of(true, true));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        consumer.listenDeadLetter(List.of(record(0), record(1)), ack);
+
+        verify(duplicateCheckHandler, never()).bulkReleaseSent(anyList(), eq("SMS"));
+        verify(ack).acknowledge();
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset) {
+        return new ConsumerRecord<>("billing-event-dlt", 0, offset, "k", new byte[] {'{'});
+    }
+
+    private static BillingMessageDto message(Long billId) {
+        return BillingMessageDto.builder()
+                .billId(billId)
+                .userId(billId)
+                .billYearMonth("202501")
+                .recipientEmail("user" + billId + "@ureca.com")
+                .recipientPhone("01012345678")
+                .totalAmount(10_000L)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ureca.billing.notification.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class LogSamplerTest {
+
+    @Test
+    void logsFirstThenEveryNthPerEvent() {
+        LogSampler sampler = new LogSampler(3, 1);
+
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            if (sampler.sample(LogSampler.Event.SCHEDULED)) {
+                sampled++;
+            }
+        }
+        assertThat(sampled).isEqualTo(3);
+        assertThat(sampler.sample(LogSampler.Event.QUIET_TIME)).isTrue();
+        assertThat(sampler.sample(LogSampler.Event.QUIET_TIME)).isTrue();
+    }
+
+    @Test
+    void traceIdKeepsExistingFormat() {
+        RecordTraceId traceId = new RecordTraceId(new ConsumerRecord<>("billing-event", 3, 1234L, "k", new byte[0]));
+        assertThat(traceId.toString()).isEqualTo(String.format("[P%d-0%d]", 3, 1234L));
+        assertThat(traceId.toString()).isSameAs(traceId.toString());
+    }
+
+    /**
+     * 레코드당 추적 ID 비용 비교 (./gradlew :notification-module:test -Dbenchmark=true)
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTraceIdAgainstStringFormat() {
+        int iterations = 5_000_000;
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("billing-event", 7, 0L, "k", new byte[0]);
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += String.format("[P%d-0%d]", record.partition(), (long) i).length();
+            }
+            long format = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += new RecordTraceId(record).hashCode() & 1;
+            }
+            long lazy = System.nanoTime() - start;
+
+            System.out.printf("round %d: String.format %.1f ns/op, lazy(not rendered) %.1f ns/op%n",
+                    round, format / (double) iterations, lazy / (double) iterations);
+        }
+        System.out.println("sink=" + sink);
+    }
+}
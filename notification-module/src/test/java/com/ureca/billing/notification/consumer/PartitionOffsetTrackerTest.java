@@ -0,0 +1,48 @@
+package com.ureca.billing.notification.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PartitionOffsetTrackerTest {
+
+    @Test
+    void commitsOnlyContiguousCompletedPrefix() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.dispatched(offset);
+        }
+        assertThat(tracker.committableOffset()).isEqualTo(-1);
+
+        // 느린 10번이 끝나기 전에는 뒤쪽 완료분을 커밋하지 않음
+        tracker.completed(12);
+        tracker.completed(11);
+        tracker.completed(14);
+        assertThat(tracker.committableOffset()).isEqualTo(-1);
+        assertThat(tracker.inFlight()).isEqualTo(2);
+
+        tracker.completed(10);
+        assertThat(tracker.committableOffset()).isEqualTo(13);
+        assertThat(tracker.inFlight()).isEqualTo(1);
+
+        tracker.completed(13);
+        assertThat(tracker.committableOffset()).isEqualTo(15);
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void tracksCommittedProgress() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        tracker.dispatched(0);
+        tracker.dispatched(1);
+        tracker.completed(0);
+        assertThat(tracker.hasUncommitted()).isTrue();
+
+        tracker.markCommitted(tracker.committableOffset());
+        assertThat(tracker.hasUncommitted()).isFalse();
+
+        tracker.completed(1);
+        assertThat(tracker.hasUncommitted()).isTrue();
+        assertThat(tracker.committableOffset()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ureca.billing.notification.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ChannelRateLimiterTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ScheduledExecutorService scheduler;
+    private ChannelRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        rateLimiter = new ChannelRateLimiter(redisTemplate, scheduler);
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "emailRatePerSec", 500);
+        ReflectionTestUtils.setField(rateLimiter, "smsRatePerSec", 100);
+        ReflectionTestUtils.setField(rateLimiter, "pushRatePerSec", 1000);
+        ReflectionTestUtils.setField(rateLimiter, "burstSeconds", 1);
+        ReflectionTestUtils.setField(rateLimiter, "leaseSize", 5);
+        ReflectionTestUtils.setField(rateLimiter, "leaseTtlMs", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void localLeaseIsDiscardedAfterLeaseTtl() throws Exception {
+        ReflectionTestUtils.setField(rateLimiter, "leaseTtlMs", 50L);
+        stubRedis(List.of(5L, 0L));
+
+        rateLimiter.acquireAsync("EMAIL").get(1, TimeUnit.SECONDS);
+        // lease 유효 시간 안에는 Redis 호출 없이 로컬 토큰 소비
+        assertThat(rateLimiter.acquireAsync("EMAIL").isDone()).isTrue();
+        assertThat(rateLimiter.acquireAsync("EMAIL").isDone()).isTrue();
+        verifyRedisCalls(1);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // 남은 2개는 만료 → 폐기 후 새 lease
+        rateLimiter.acquireAsync("EMAIL").get(1, TimeUnit.SECONDS);
+        verifyRedisCalls(2);
+        assertThat(rateLimiter.getStats().get("EMAIL").get("localTokens")).isEqualTo(4);
+    }
+
+    @Test
+    void bucketCapacityIsRateTimesBurstSeconds() throws Exception {
+        ReflectionTestUtils.setField(rateLimiter, "burstSeconds", 2);
+        ReflectionTestUtils.setField(rateLimiter, "leaseSize", 20);
+        ReflectionTestUtils.setField(rateLimiter, "smsRatePerSec", 5);
+        stubRedis(List.of(20L, 0L));
+
+        rateLimiter.acquireAsync("EMAIL").get(1, TimeUnit.SECONDS);
+        rateLimiter.acquireAsync("SMS").get(1, TimeUnit.SECONDS);
+
+        // ARGV = [ratePerSec, capacity, requested]
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ratelimit:bucket:EMAIL")),
+                eq("500"), eq("1000"), eq("20"));
+        // rate × burst-seconds가 lease-size보다 작으면 capacity는 lease-size
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ratelimit:bucket:SMS")),
+                eq("5"), eq("20"), eq("20"));
+    }
+
+    @Test
+    void emptyBucketRetriesAfterReturnedWait() throws Exception {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(List.of(0L, 50L))
+                .thenReturn(List.of(5L, 0L));
+
+        long start = System.nanoTime();
+        rateLimiter.acquireAsync("EMAIL").get(1, TimeUnit.SECONDS);
+
+        // 토큰 생성 시점(waitMs)까지 기다렸다가 다시 lease
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(50);
+        verifyRedisCalls(2);
+    }
+
+    @Test
+    void redisUnavailableFailsOpenAtLocalChannelRate() throws Exception {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+
+        // 발송을 막지 않음: 로컬에서 lease-size만큼 허용
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquireAsync("SMS").get(1, TimeUnit.SECONDS);
+        }
+
+        // 다음 lease는 lease-size / rate(100/s) = 50ms 이후
+        long start = System.nanoTime();
+        CompletableFuture<Void> next = rateLimiter.acquireAsync("SMS");
+        assertThat(next.isDone()).isFalse();
+        next.get(1, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(30);
+        assertThat(rateLimiter.getStats().get("SMS").get("fallbackLeases")).isEqualTo(2L);
+    }
+
+    private void stubRedis(List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(result);
+    }
+
+    private void verifyRedisCalls(int count) {
+        verify(redisTemplate, times(count))
+                .execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ureca.billing.notification.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.service.EmailService;
+
+class EmailNotificationHandlerTest {
+
+    private EmailService emailService;
+    private ChannelRateLimiter rateLimiter;
+    private EmailNotificationHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        rateLimiter = mock(ChannelRateLimiter.class);
+        ChannelConcurrencyLimiter concurrencyLimiter = new ChannelConcurrencyLimiter();
+        ReflectionTestUtils.setField(concurrencyLimiter, "emailMaxInFlight", 10);
+        handler = new EmailNotificationHandler(emailService, concurrencyLimiter, rateLimiter);
+    }
+
+    @Test
+    void sendStartIsSignalledOnlyAfterRatePermit() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        when(rateLimiter.acquireAsync("EMAIL")).thenReturn(permit);
+        when(emailService.sendEmailAsync(any(), anyInt())).thenReturn(CompletableFuture.completedFuture(null));
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<Void> sending = handler.handleAsync(message(), "[T]", 1, started::incrementAndGet);
+
+        // 속도 한도 대기 중에는 발송 시작 전 → 채널 지연 측정 시작 안 함
+        assertThat(started.get()).isZero();
+        permit.complete(null);
+        assertThat(sending).isDone();
+        assertThat(started.get()).isEqualTo(1);
+    }
+
+    @Test
+    void simulatedFailureIsReportedAsDeliveryRejection() {
+        when(rateLimiter.acquireAsync("EMAIL")).thenReturn(CompletableFuture.completedFuture(null));
+        when(emailService.sendEmailAsync(any(), anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new DeliveryRejectedException("SMTP error simulation")));
+
+        CompletableFuture<Void> sending = handler.handleAsync(message(), "[T]", 2, () -> { });
+
+        // "Email send failed" 래핑 뒤에도 발송 건 실패로 구분됨 (채널 실패율 제외 대상)
+        assertThatThrownBy(sending::join)
+                .isInstanceOf(CompletionException.class)
+                .satisfies(error -> assertThat(DeliveryRejectedException.isCause(error)).isTrue());
+        assertThat(DeliveryRejectedException.isCause(new CompletionException(new IllegalStateException("smtp down"))))
+                .isFalse();
+    }
+
+    private static BillingMessageDto message() {
+        return BillingMessageDto.builder()
+                .billId(1L)
+                .userId(1L)
+                .billYearMonth("202501")
+                .recipientEmail("user1@ureca.com")
+                .totalAmount(10_000L)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ureca.billing.notification.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+
+class NotificationJournalCodecTest {
+
+    @Test
+    void roundTripKeepsAllFields() {
+        Notification original = Notification.builder()
+                .notificationId(1L)
+                .userId(2L)
+                .billId(3L)
+                .notificationType("EMAIL")
+                .notificationStatus("FAILED")
+                .recipient("암호문==")
+                .content("2025년 1월 청구서 안내")
+                .retryCount(2)
+                .scheduledAt(LocalDateTime.of(2025, 1, 15, 9, 0))
+                .sentAt(LocalDateTime.of(2025, 1, 15, 9, 0, 1, 123_456_789))
+                .errorMessage("SMTP timeout")
+                .createdAt(LocalDateTime.of(2025, 1, 15, 8, 59))
+                .build();
+
+        Notification decoded = NotificationJournalCodec.decode(ByteBuffer.wrap(NotificationJournalCodec.encode(original)));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(original);
+    }
+
+    @Test
+    void roundTripKeepsNullFields() {
+        Notification original = Notification.builder()
+                .retryCount(null)
+                .build();
+
+        Notification decoded = NotificationJournalCodec.decode(ByteBuffer.wrap(NotificationJournalCodec.encode(original)));
+
+        assertThat(decoded.getNotificationId()).isNull();
+        assertThat(decoded.getUserId()).isNull();
+        assertThat(decoded.getBillId()).isNull();
+        assertThat(decoded.getNotificationType()).isNull();
+        assertThat(decoded.getNotificationStatus()).isNull();
+        assertThat(decoded.getRecipient()).isNull();
+        assertThat(decoded.getContent()).isNull();
+        assertThat(decoded.getScheduledAt()).isNull();
+        assertThat(decoded.getSentAt()).isNull();
+        assertThat(decoded.getErrorMessage()).isNull();
+        assertThat(decoded.getCreatedAt()).isNull();
+        // retry_count는 NOT NULL 컬럼 → null은 0으로 기록
+        assertThat(decoded.getRetryCount()).isZero();
+    }
+
+    @Test
+    void emptyStringIsNotNull() {
+        Notification original = Notification.builder().content("").errorMessage("").build();
+
+        Notification decoded = NotificationJournalCodec.decode(ByteBuffer.wrap(NotificationJournalCodec.encode(original)));
+
+        assertThat(decoded.getContent()).isEmpty();
+        assertThat(decoded.getErrorMessage()).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] body = NotificationJournalCodec.encode(Notification.builder().build());
+        body[0] = 99;
+
+        assertThatThrownBy(() -> NotificationJournalCodec.decode(ByteBuffer.wrap(body)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
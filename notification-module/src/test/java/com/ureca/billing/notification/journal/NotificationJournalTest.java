@@ -0,0 +1,213 @@
+package com.ureca.billing.notification.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.journal.NotificationJournal.JournalBatch;
+
+class NotificationJournalTest {
+
+    private static final int HEADER_SIZE = 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackAppendedRecordsAcrossSegmentRoll() throws IOException {
+        NotificationJournal journal = open();
+        // 1MB 세그먼트에 약 100KB 레코드 30개 → 세그먼트 여러 개로 롤링
+        List<Notification> appended = notifications(1, 30, 100_000);
+        journal.append(appended.subList(0, 10));
+        journal.append(appended.subList(10, 30));
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        JournalBatch batch = journal.read(1000);
+
+        assertThat(ids(batch.getEntries())).isEqualTo(ids(appended));
+        assertThat(batch.getEntries().get(29).getContent()).isEqualTo(appended.get(29).getContent());
+
+        // commit 후 지난 세그먼트는 삭제, 더 읽을 것 없음
+        journal.commit(batch);
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(journal.read(1000).isEmpty()).isTrue();
+        assertThat(journal.getBacklogBytes()).isZero();
+    }
+
+    @Test
+    void restartResumesFromCheckpoint() throws IOException {
+        NotificationJournal journal = open();
+        journal.append(notifications(1, 10, 10));
+
+        // 앞 4건만 DB 반영 완료
+        journal.commit(journal.read(4));
+        // 반영되지 않은 배치는 commit 전까지 위치가 확정되지 않음
+        journal.read(3);
+        journal.close();
+
+        NotificationJournal restarted = open();
+        restarted.append(notifications(11, 2, 10));
+
+        assertThat(ids(restarted.read(1000).getEntries()))
+                .containsExactly(5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L);
+    }
+
+    @Test
+    void restartWithoutCheckpointReplaysFromOldestSegment() throws IOException {
+        NotificationJournal journal = open();
+        journal.append(notifications(1, 3, 10));
+        journal.close();
+
+        assertThat(ids(open().read(1000).getEntries())).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void tornTailRecordIsIgnoredAndOverwrittenOnRestart() throws IOException {
+        NotificationJournal journal = open();
+        List<Notification> appended = notifications(1, 3, 10);
+        journal.append(appended);
+        journal.close();
+
+        // 기록 도중 중단: length/crc는 썼지만 본문은 일부만 기록된 레코드
+        int tail = endOf(appended);
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(HEADER_SIZE + 5);
+            torn.putInt(200).putInt(0x12345678).put(new byte[] {1, 2, 3, 4, 5}).flip();
+            channel.write(torn, tail);
+        }
+
+        NotificationJournal restarted = open();
+        assertThat(ids(restarted.read(1000).getEntries())).containsExactly(1L, 2L, 3L);
+
+        // Writer는 깨진 꼬리부터 덮어씀
+        restarted.append(notifications(4, 1, 10));
+        assertThat(ids(restarted.read(1000).getEntries())).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(restarted.getCorruptRecords()).isZero();
+    }
+
+    @Test
+    void truncatedTailLengthIsIgnoredOnRestart() throws IOException {
+        NotificationJournal journal = open();
+        List<Notification> appended = notifications(1, 2, 10);
+        journal.append(appended);
+        journal.close();
+
+        // 세그먼트 끝을 넘는 length만 기록된 경우
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).flip();
+            channel.write(length, endOf(appended));
+        }
+
+        NotificationJournal restarted = open();
+        assertThat(ids(restarted.read(1000).getEntries())).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void crcMismatchDropsOnlyCorruptRecord() throws IOException {
+        NotificationJournal journal = open();
+        List<Notification> appended = notifications(1, 3, 10);
+        journal.append(appended);
+
+        // 두 번째 레코드 본문 1바이트 손상
+        int second = endOf(appended.subList(0, 1));
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), second + HEADER_SIZE + 10);
+        }
+
+        // 깨진 레코드만 버리고 같은 세그먼트의 다음 레코드부터 계속 읽음
+        JournalBatch batch = journal.read(1000);
+        assertThat(ids(batch.getEntries())).containsExactly(1L, 3L);
+        assertThat(journal.getCorruptRecords()).isEqualTo(1);
+        assertThat(dir.resolve("quarantine").resolve(segment(0).getFileName() + "." + second)).exists();
+        journal.commit(batch);
+
+        journal.append(notifications(4, 2, 10));
+        assertThat(ids(journal.read(1000).getEntries())).containsExactly(4L, 5L);
+        assertThat(journal.getCorruptRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void corruptLengthInSealedSegmentResyncsToNextValidRecord() throws IOException {
+        NotificationJournal journal = open();
+        List<Notification> appended = notifications(1, 30, 100_000);
+        journal.append(appended);
+        journal.close();
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        // 롤링된 세그먼트의 두 번째 레코드 length를 범위 밖 값으로 손상
+        int second = endOf(appended.subList(0, 1));
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(5_000_000).flip(), second);
+        }
+
+        NotificationJournal restarted = open();
+        List<Long> expected = new ArrayList<>(ids(appended));
+        expected.remove(Long.valueOf(2L));
+        assertThat(ids(restarted.read(1000).getEntries())).isEqualTo(expected);
+        assertThat(restarted.getCorruptRecords()).isEqualTo(1);
+    }
+
+    // ========================================
+    // Helper
+    // ========================================
+
+    private NotificationJournal open() throws IOException {
+        NotificationJournal journal = new NotificationJournal();
+        ReflectionTestUtils.setField(journal, "journalDir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+        return journal;
+    }
+
+    static List<Notification> notifications(long firstId, int count, int contentLength) {
+        List<Notification> result = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            result.add(Notification.builder()
+                    .notificationId(id)
+                    .userId(id)
+                    .billId(id)
+                    .notificationType("EMAIL")
+                    .notificationStatus("SENT")
+                    .recipient("recipient-" + id)
+                    .content("x".repeat(contentLength))
+                    .build());
+        }
+        return result;
+    }
+
+    static List<Long> ids(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getNotificationId).toList();
+    }
+
+    private static int endOf(List<Notification> notifications) {
+        int pos = 0;
+        for (Notification notification : notifications) {
+            pos += HEADER_SIZE + NotificationJournalCodec.encode(notification).length;
+        }
+        return pos;
+    }
+
+    private Path segment(long seq) {
+        return dir.resolve(String.format("segment-%020d.log", seq));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+}
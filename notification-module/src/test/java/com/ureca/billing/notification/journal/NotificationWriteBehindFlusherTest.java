@@ -0,0 +1,87 @@
+package com.ureca.billing.notification.journal;
+
+import static com.ureca.billing.notification.journal.NotificationJournalTest.ids;
+import static com.ureca.billing.notification.journal.NotificationJournalTest.notifications;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.notification.domain.entity.Notification;
+import com.ureca.billing.notification.domain.repository.NotificationBulkRepository;
+
+class NotificationWriteBehindFlusherTest {
+
+    @TempDir
+    Path dir;
+
+    private NotificationJournal journal;
+    private NotificationBulkRepository bulkRepository;
+    private NotificationWriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new NotificationJournal();
+        ReflectionTestUtils.setField(journal, "journalDir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+
+        bulkRepository = mock(NotificationBulkRepository.class);
+        flusher = new NotificationWriteBehindFlusher(journal, bulkRepository);
+        ReflectionTestUtils.setField(flusher, "maxBatchSize", 2);
+    }
+
+    @Test
+    void flushUpsertsInBatchesAndAdvancesCheckpoint() {
+        journal.append(notifications(1, 5, 10));
+
+        flusher.flush();
+
+        List<List<Long>> upserted = upsertedIds(3);
+        assertThat(upserted).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(journal.read(1000).isEmpty()).isTrue();
+    }
+
+    @Test
+    void failedUpsertKeepsRecordsForNextFlush() {
+        when(bulkRepository.upsertAll(anyCollection()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(2);
+        journal.append(notifications(1, 2, 10));
+
+        flusher.flush();
+        // checkpoint는 그대로 → 같은 레코드가 다시 읽힘
+        assertThat(ids(journal.read(1000).getEntries())).containsExactly(1L, 2L);
+
+        flusher.flush();
+
+        assertThat(upsertedIds(2)).containsExactly(List.of(1L, 2L), List.of(1L, 2L));
+        assertThat(journal.read(1000).isEmpty()).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Long>> upsertedIds(int calls) {
+        ArgumentCaptor<Collection<Notification>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkRepository, times(calls)).upsertAll(captor.capture());
+        List<List<Long>> result = new ArrayList<>();
+        for (Collection<Notification> batch : captor.getAllValues()) {
+            result.add(ids(new ArrayList<>(batch)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ureca.billing.notification.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.support.FakeSmtpServer;
+
+class EmailDeliveryEngineTest {
+
+    private static final int MAX_CONNECTIONS = 2;
+
+    private FakeSmtpServer smtpServer;
+    private ExecutorService mailExecutor;
+    private SmtpTransportPool transportPool;
+    private EmailDeliveryEngine deliveryEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        mailExecutor = Executors.newFixedThreadPool(4);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        transportPool = new SmtpTransportPool(mailSender);
+        ReflectionTestUtils.setField(transportPool, "maxConnections", MAX_CONNECTIONS);
+        ReflectionTestUtils.setField(transportPool, "maxMessagesPerConnection", 1000);
+        ReflectionTestUtils.setField(transportPool, "maxIdleMs", 30_000L);
+
+        deliveryEngine = new EmailDeliveryEngine(mailSender, transportPool, new BillingEmailTemplate(), mailExecutor, () -> null);
+        ReflectionTestUtils.setField(deliveryEngine, "testRecipient", "test@ureca.com");
+        ReflectionTestUtils.setField(deliveryEngine, "batchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        transportPool.close();
+        mailExecutor.shutdownNow();
+        smtpServer.close();
+    }
+
+    @Test
+    void submit_reusesPooledConnectionsForAllMessages() {
+        int count = 300;
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (long billId = 1; billId <= count; billId++) {
+            futures.add(deliveryEngine.submit(message(billId)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(30, TimeUnit.SECONDS).join();
+
+        assertThat(smtpServer.getMessageCount()).isEqualTo(count);
+        // 메시지마다 세션을 맺지 않고 풀 크기만큼의 연결만 사용
+        assertThat(smtpServer.getConnectionCount()).isLessThanOrEqualTo(MAX_CONNECTIONS);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> connections = (List<Map<String, Object>>) transportPool.getStats().get("connections");
+        assertThat(connections).isNotEmpty();
+        assertThat(connections).allSatisfy(stat -> assertThat((double) stat.get("messagesPerSec")).isPositive());
+        assertThat(connections.stream().mapToLong(stat -> (long) stat.get("messagesSent")).sum()).isEqualTo(count);
+    }
+
+    @Test
+    void renderBody_fillsPrecompiledTemplate() {
+        String body = new BillingEmailTemplate().renderBody(message(42L));
+
+        assertThat(body).contains("202501 요금 안내", "1,234,567원", "5G 프리미어", "BillID: 42 | UserID: 7");
+        assertThat(body).doesNotContain("{{");
+    }
+
+    private BillingMessageDto message(Long billId) {
+        return BillingMessageDto.builder()
+                .billId(billId)
+                .userId(7L)
+                .billYearMonth("202501")
+                .recipientEmail("user" + billId + "@ureca.com")
+                .totalAmount(1_234_567L)
+                .notificationType("EMAIL")
+                .build();
+    }
+}
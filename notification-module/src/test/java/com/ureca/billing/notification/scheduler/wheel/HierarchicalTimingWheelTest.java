@@ -0,0 +1,54 @@
+package com.ureca.billing.notification.scheduler.wheel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void expiresEachEntryAtItsTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, START);
+        // level0 = 80ms, level1 = 640ms, level2 = 5120ms 범위
+        long[] delays = {0, 15, 79, 80, 500, 639, 640, 3000, 5119, 12000};
+        for (long delay : delays) {
+            wheel.add(START + delay, START + delay);
+        }
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = START; now <= START + 13000; now += 10) {
+            long at = now;
+            wheel.advance(now, expiration -> fired.add(new long[] {expiration, at}));
+        }
+
+        assertThat(fired).hasSize(delays.length);
+        for (long[] event : fired) {
+            // 만료 시각이 속한 tick에 정확히 만료 (tick 이전에 만료되지 않음)
+            assertThat(event[1]).isEqualTo(event[0] - (event[0] % 10));
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterClockJumpAndExpiresPastEntriesImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 16, START);
+        wheel.add(START - 5000, "past");
+        wheel.add(START + 2000, "future");
+        wheel.add(START + 60_000, "later");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START, fired::add);
+        assertThat(fired).containsExactly("past");
+
+        wheel.advance(START + 10_000, fired::add);
+        assertThat(fired).containsExactly("past", "future");
+
+        assertThat(wheel.drainAll()).containsExactly("later");
+        assertThat(wheel.size()).isZero();
+    }
+}
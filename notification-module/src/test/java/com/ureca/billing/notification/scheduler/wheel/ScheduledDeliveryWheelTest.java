@@ -0,0 +1,72 @@
+package com.ureca.billing.notification.scheduler.wheel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.notification.service.KafkaBatchPublisher;
+import com.ureca.billing.notification.service.MessagePolicyService;
+import com.ureca.billing.notification.service.ScheduledQueueService;
+import com.ureca.billing.notification.service.ScheduledQueueService.ScheduledMessage;
+
+class ScheduledDeliveryWheelTest {
+
+    private ScheduledQueueService scheduledQueueService;
+    private ScheduledDeliveryWheel deliveryWheel;
+
+    @BeforeEach
+    void setUp() {
+        scheduledQueueService = mock(ScheduledQueueService.class);
+        MessagePolicyService policyService = mock(MessagePolicyService.class);
+        deliveryWheel = new ScheduledDeliveryWheel(scheduledQueueService, mock(KafkaBatchPublisher.class), policyService);
+        ReflectionTestUtils.setField(deliveryWheel, "tickMs", 10L);
+        ReflectionTestUtils.setField(deliveryWheel, "wheelSize", 64);
+        ReflectionTestUtils.setField(deliveryWheel, "lookaheadSeconds", 5L);
+        ReflectionTestUtils.setField(deliveryWheel, "preloadBatch", 100);
+        ReflectionTestUtils.setField(deliveryWheel, "maxPending", 150);
+        ReflectionTestUtils.setField(deliveryWheel, "publishBatch", 100);
+        deliveryWheel.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        deliveryWheel.stop();
+    }
+
+    @Test
+    void preloadClaimsOneBatchPerCallEvenWhenMoreIsDue() {
+        when(scheduledQueueService.popDue(anyLong(), anyInt()))
+                .thenAnswer(invocation -> messages(invocation.getArgument(1)));
+
+        // 가득 찬 배치가 와도 이어서 꺼내지 않음 → 다음 주기에 다른 인스턴스도 가져갈 수 있음
+        assertThat(deliveryWheel.preload()).isEqualTo(100);
+        verify(scheduledQueueService, times(1)).popDue(anyLong(), anyInt());
+
+        // max-pending은 메모리 상한으로만 적용
+        assertThat(deliveryWheel.preload()).isEqualTo(50);
+        assertThat(deliveryWheel.preload()).isZero();
+        verify(scheduledQueueService, times(2)).popDue(anyLong(), anyInt());
+    }
+
+    private static List<ScheduledMessage> messages(int count) {
+        // 휠에서 바로 만료되지 않도록 lookahead 끝 시각으로 예약
+        long scheduledAt = System.currentTimeMillis() / 1000 + 5;
+        List<ScheduledMessage> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new ScheduledMessage("m" + i, new byte[] {'{'}, scheduledAt));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ureca.billing.notification.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ureca.billing.core.dto.BillingMessageDto;
+import com.ureca.billing.notification.mail.BillingEmailTemplate;
+import com.ureca.billing.notification.mail.EmailDeliveryEngine;
+import com.ureca.billing.notification.mail.SmtpTransportPool;
+import com.ureca.billing.notification.support.FakeSmtpServer;
+
+class EmailServiceAsyncTest {
+
+    private FakeSmtpServer smtpServer;
+    private ScheduledExecutorService delayScheduler;
+    private ExecutorService mailExecutor;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        delayScheduler = Executors.newScheduledThreadPool(2);
+        mailExecutor = Executors.newFixedThreadPool(4);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        SmtpTransportPool transportPool = new SmtpTransportPool(mailSender);
+        ReflectionTestUtils.setField(transportPool, "maxConnections", 2);
+        ReflectionTestUtils.setField(transportPool, "maxMessagesPerConnection", 500);
+        ReflectionTestUtils.setField(transportPool, "maxIdleMs", 30_000L);
+
+        EmailDeliveryEngine deliveryEngine =
+                new EmailDeliveryEngine(mailSender, transportPool, new BillingEmailTemplate(), mailExecutor, () -> null);
+        ReflectionTestUtils.setField(deliveryEngine, "testRecipient", "test@ureca.com");
+        ReflectionTestUtils.setField(deliveryEngine, "batchSize", 50);
+
+        emailService = new EmailService(deliveryEngine, delayScheduler);
+        ReflectionTestUtils.setField(emailService, "latencyMs", 500L);
+        ReflectionTestUtils.setField(emailService, "initialFailureRate", 0);
+        ReflectionTestUtils.setField(emailService, "retryFailureRate", 100);
+        ReflectionTestUtils.setField(emailService, "realEmailEnabled", true);
+        ReflectionTestUtils.setField(emailService, "testRecipient", "test@ureca.com");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        delayScheduler.shutdownNow();
+        mailExecutor.shutdownNow();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendEmailAsync_keepsSendsInFlightWithoutBlockingThreads() {
+        int count = 200;
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (long billId = 1; billId <= count; billId++) {
+            futures.add(emailService.sendEmailAsync(message(billId), 1));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(30, TimeUnit.SECONDS).join();
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 순차 처리라면 200 × 500ms = 100초, 스케줄러 2개 스레드로 동시에 대기해야 한다
+        assertThat(elapsedMs).isLessThan(15_000);
+        assertThat(smtpServer.getMessageCount()).isEqualTo(count);
+    }
+
+    @Test
+    void sendEmailAsync_completesExceptionallyOnSimulatedFailure() {
+        CompletableFuture<Void> future = emailService.sendEmailAsync(message(1L), 2);
+
+        assertThat(future).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(smtpServer.getMessageCount()).isZero();
+    }
+
+    private BillingMessageDto message(Long billId) {
+        return BillingMessageDto.builder()
+                .billId(billId)
+                .userId(1L)
+                .billYearMonth("202501")
+                .recipientEmail("user" + billId + "@ureca.com")
+                .totalAmount(55000L)
+                .notificationType("EMAIL")
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ureca.billing.notification.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Test;
+
+class RetryTopicRouterTest {
+
+    @Test
+    void recoveryWalksTiersByAttemptHeaderAndEndsInDlt() {
+        // billing-event 첫 실패 → 1m (단계 1)
+        ConsumerRecord<String, byte[]> record = record(RetryTopicRouter.MAIN_TOPIC);
+        assertThat(RetryTopicRouter.nextTopicOf(record)).isEqualTo(RetryTopicRouter.RETRY_1M_TOPIC);
+
+        // 재시도 토픽을 거쳐 billing-event로 돌아와 다시 실패해도 단계가 이어짐 (토픽 이름과 무관)
+        String[] expected = {
+                RetryTopicRouter.RETRY_10M_TOPIC, RetryTopicRouter.RETRY_1H_TOPIC, RetryTopicRouter.DLT_TOPIC};
+        for (String next : expected) {
+            for (Header header : RetryTopicRouter.nextTierHeaders(record)) {
+                record.headers().add(header);
+            }
+            assertThat(RetryTopicRouter.nextTopicOf(record)).isEqualTo(next);
+        }
+        assertThat(RetryTopicRouter.attemptOf(record)).isEqualTo(RetryTopicRouter.TIERS.size());
+        assertThat(RetryTopicRouter.nextTierHeaders(record)).isEmpty();
+    }
+
+    @Test
+    void nextTierHeadersSetDueAtFromTierDelay() {
+        ConsumerRecord<String, byte[]> record = record(RetryTopicRouter.MAIN_TOPIC);
+        long before = System.currentTimeMillis();
+        Header dueAt = RetryTopicRouter.nextTierHeaders(record).lastHeader(RetryTopicRouter.DUE_AT_HEADER);
+
+        long value = ByteBuffer.wrap(dueAt.value()).getLong();
+        assertThat(value).isGreaterThanOrEqualTo(before + RetryTopicRouter.TIERS.get(0).delay().toMillis());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String topic) {
+        return new ConsumerRecord<>(topic, 0, 0L, "1", new byte[] {1});
+    }
+}
@@ -0,0 +1,128 @@
+package com.ureca.billing.notification.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 로컬 SMTP 서버
+ *
+ * - 최소한의 SMTP 명령(EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT)만 지원
+ * - 수신한 메시지 수 / 연결 수를 기록해 발송 결과 검증에 사용
+ * - dataLatencyMs로 DATA 응답 지연(느린 SMTP 서버)을 흉내낼 수 있음
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionPool = Executors.newCachedThreadPool();
+    private final AtomicInteger messageCount = new AtomicInteger();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final long dataLatencyMs;
+    private volatile boolean running = true;
+
+    public FakeSmtpServer() throws IOException {
+        this(0);
+    }
+
+    public FakeSmtpServer(long dataLatencyMs) throws IOException {
+        this.dataLatencyMs = dataLatencyMs;
+        this.serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getMessageCount() {
+        return messageCount.get();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                connectionPool.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (running) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+
+            reply(out, "220 fake-smtp ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-fake-smtp\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        messages.add(readData(in));
+                        if (dataLatencyMs > 0) {
+                            Thread.sleep(dataLatencyMs);
+                        }
+                        messageCount.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException ignored) {
+            // 클라이언트 연결 종료
+        }
+    }
+
+    private String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !".".equals(line)) {
+            data.append(line).append('\n');
+        }
+        return data.toString();
+    }
+
+    private void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connectionPool.shutdownNow();
+    }
+}